@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Time-to-first-request for the plain jar versus the fast-start build (prod profile + AOT + CDS).
+# Needs the services from docker-compose.yml. Usage: scripts/startup-benchmark.sh [runs]
+# Run after `./mvnw -Pfast-start package`; the fast-start profile also wires this into `verify`.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${BENCHMARK_PORT:-18080}"
+cd "$(dirname "$0")/.."
+JAR="$(ls target/backend-*.jar | grep -v plain | head -n 1)"
+APP_DIR="target/application"
+APP_JAR="$APP_DIR/$(basename "$JAR")"
+
+# prints milliseconds from launch until the first HTTP response of any status
+time_to_first_request() {
+  local start pid code
+  start=$(date +%s%N)
+  "$@" --server.port="$PORT" > target/startup-benchmark.log 2>&1 &
+  pid=$!
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health" || true)
+    if [ "$code" != "000" ]; then
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited during startup, see target/startup-benchmark.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  echo $(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+measure() {
+  local label="$1"
+  shift
+  local results=()
+  for _ in $(seq "$RUNS"); do
+    results+=("$(time_to_first_request "$@")")
+  done
+  printf '%-12s median %6s ms   runs: %s\n' "$label" "$(printf '%s\n' "${results[@]}" | median)" "${results[*]}"
+}
+
+echo "Time to first request over $RUNS runs"
+measure "baseline" java -jar "$JAR"
+if [ -f "$APP_DIR/application.jsa" ]; then
+  measure "fast-start" java -XX:SharedArchiveFile="$APP_DIR/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$APP_JAR" --spring.profiles.active=prod
+else
+  echo "fast-start   skipped: no CDS archive, build with ./mvnw -Pfast-start package" >&2
+fi
@@ -0,0 +1,23 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bas.assignment")
+public class AssignmentProperties {
+
+  // estimated bay hours per job; drives the technician load ranking
+  private Map<JobTypeEnum, Double> estimatedHours = new EnumMap<>(Map.of(
+      JobTypeEnum.LIGHT, 1.0,
+      JobTypeEnum.MEDIUM, 3.0,
+      JobTypeEnum.HEAVY, 8.0));
+}
@@ -0,0 +1,39 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.utils.BranchContext;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bas.branches")
+public class BranchProperties {
+
+  // branches users can be assigned to, besides the default and the dedicated ones
+  private Set<String> codes = new HashSet<>();
+
+  // branch code -> its own database or schema; branches not listed use spring.datasource
+  private Map<String, DedicatedDataSource> dedicated = new HashMap<>();
+
+  @Getter
+  @Setter
+  public static class DedicatedDataSource {
+    private String url;
+    private String username;
+    private String password;
+    private String schema;
+    private int maximumPoolSize = 10;
+  }
+
+  public boolean isKnown(String branchCode) {
+    return BranchContext.DEFAULT_BRANCH.equals(branchCode) || codes.contains(branchCode) || dedicated.containsKey(branchCode);
+  }
+}
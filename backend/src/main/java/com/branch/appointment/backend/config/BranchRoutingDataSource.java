@@ -0,0 +1,25 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.utils.BranchContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Sends a branch with a dedicated database or schema to its own pool; everyone else shares the primary.
+ */
+public class BranchRoutingDataSource extends AbstractRoutingDataSource {
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return BranchContext.current();
+  }
+
+  // dedicated pools are not beans of their own, so close them with the router
+  public void close() {
+    getResolvedDataSources().values().forEach(ds -> {
+      if (ds instanceof HikariDataSource hikari) {
+        hikari.close();
+      }
+    });
+  }
+}
@@ -0,0 +1,99 @@
+package com.branch.appointment.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Type;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate applies {@code ddl-auto} through the routed datasource while no branch is bound, so only the primary
+ * gets tables. This applies the same action to every dedicated database or schema before the application serves
+ * requests, with the naming and dialect settings of the main persistence unit. Only branch-scoped entities (those
+ * with a {@link TenantId}) get tables there; users and token revocations live in the shared database alone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BranchSchemaInitializer {
+
+  // what shapes the generated DDL; everything else of the main unit (datasource, statistics, ...) stays behind
+  private static final List<String> SCHEMA_SETTINGS = List.of(
+      AvailableSettings.DIALECT,
+      AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+      AvailableSettings.IMPLICIT_NAMING_STRATEGY,
+      AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER);
+
+  private final BranchProperties branchProperties;
+  private final BranchRoutingDataSource branchRoutingDataSource;
+  private final EntityManagerFactory entityManagerFactory;
+
+  @PostConstruct
+  void initialize() {
+    Map<String, Object> settings = entityManagerFactory.getProperties();
+    Object configured = settings.get(AvailableSettings.HBM2DDL_AUTO);
+    if (configured == null || "none".equals(configured.toString())) {
+      return;
+    }
+    // the throwaway factory below would drop the tables again straight away
+    String action = "create-drop".equals(configured.toString()) ? "create" : configured.toString();
+    List<Class<?>> entities = entityManagerFactory.getMetamodel().getEntities().stream()
+        .<Class<?>>map(Type::getJavaType)
+        .filter(BranchSchemaInitializer::branchScoped)
+        .toList();
+
+    branchProperties.getDedicated().forEach((branch, config) -> {
+      DataSource dataSource = branchRoutingDataSource.getResolvedDataSources().get(branch);
+      log.info("Applying ddl-auto={} to branch {}", action, branch);
+      if (config.getSchema() != null) {
+        new JdbcTemplate(dataSource).execute("create schema if not exists " + config.getSchema());
+      }
+      apply(dataSource, action, settings, entities);
+    });
+  }
+
+  static boolean branchScoped(Class<?> entity) {
+    for (Class<?> type = entity; type != null; type = type.getSuperclass()) {
+      for (Field field : type.getDeclaredFields()) {
+        if (field.isAnnotationPresent(TenantId.class)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // a throwaway session factory on the branch's own pool, so existing tables are read from that database or schema
+  static void apply(DataSource dataSource, String action, Map<String, Object> settings, List<Class<?>> entities) {
+    StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder()
+        .applySetting(AvailableSettings.DATASOURCE, dataSource)
+        .applySetting(AvailableSettings.HBM2DDL_AUTO, action);
+    for (String key : SCHEMA_SETTINGS) {
+      if (settings.get(key) != null) {
+        builder.applySetting(key, settings.get(key));
+      }
+    }
+    StandardServiceRegistry registry = builder.build();
+    MetadataSources sources = new MetadataSources(registry);
+    entities.forEach(sources::addAnnotatedClass);
+    try (SessionFactory ignored = sources.buildMetadata().buildSessionFactory()) {
+      // building it ran the schema action
+    } catch (RuntimeException e) {
+      StandardServiceRegistryBuilder.destroy(registry);
+      throw e;
+    }
+  }
+}
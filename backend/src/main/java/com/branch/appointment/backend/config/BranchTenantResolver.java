@@ -0,0 +1,20 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.utils.BranchContext;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Feeds the current branch to Hibernate, which fills and filters every {@code @TenantId} column with it.
+ */
+public class BranchTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+  @Override
+  public String resolveCurrentTenantIdentifier() {
+    return BranchContext.current();
+  }
+
+  @Override
+  public boolean validateExistingCurrentSessions() {
+    return false;
+  }
+}
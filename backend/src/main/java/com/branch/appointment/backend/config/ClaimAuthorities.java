@@ -0,0 +1,58 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.enums.UserRoleEnum;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authorities derived from the {@code role} claim of a verified token. The lists are built once per role and shared
+ * by every request, so authenticating a caller costs a map lookup and no database access; a role change takes effect
+ * with the user's next token.
+ */
+public final class ClaimAuthorities {
+
+  public static final String ADMIN = UserRoleEnum.ADMIN.name();
+  public static final String TECHNICIAN = UserRoleEnum.TECHNICIAN.name();
+  public static final String SERVICE_ADVISOR = UserRoleEnum.SERVICE_ADVISOR.name();
+
+  // every signed-in caller has it, whatever their role
+  private static final GrantedAuthority USER = new SimpleGrantedAuthority("ROLE_USER");
+  private static final List<GrantedAuthority> UNKNOWN_ROLE = List.of(USER);
+  private static final Map<String, List<GrantedAuthority>> BY_ROLE = byRole();
+
+  private ClaimAuthorities() {
+  }
+
+  public static List<GrantedAuthority> forRole(String role) {
+    return role != null ? BY_ROLE.getOrDefault(role, UNKNOWN_ROLE) : UNKNOWN_ROLE;
+  }
+
+  /**
+   * An authenticated token for the claims' subject, or null if they have none.
+   */
+  public static UsernamePasswordAuthenticationToken authenticate(Claims claims) {
+    String email = claims.getSubject();
+    if (email == null) {
+      return null;
+    }
+    String role = claims.get("role", String.class);
+    Number userId = claims.get("id", Number.class);
+    TokenPrincipal principal = new TokenPrincipal(userId != null ? userId.longValue() : null, email, role,
+        claims.get("branch", String.class));
+    return UsernamePasswordAuthenticationToken.authenticated(principal, null, forRole(role));
+  }
+
+  private static Map<String, List<GrantedAuthority>> byRole() {
+    Map<String, List<GrantedAuthority>> byRole = new HashMap<>();
+    for (UserRoleEnum role : UserRoleEnum.values()) {
+      byRole.put(role.name(), List.of(new SimpleGrantedAuthority("ROLE_" + role.name()), USER));
+    }
+    return Map.copyOf(byRole);
+  }
+}
@@ -0,0 +1,100 @@
+package com.branch.appointment.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datasource layout:
+ * <pre>
+ *   dataSource (lazy proxy)
+ *     read-write -> branchRoutingDataSource -> dedicated branch pool | primary
+ *     read-only  -> branch router           -> dedicated branch pool | replicaRoutingDataSource -> replica | primary
+ * </pre>
+ * The lazy proxy only fetches a physical connection at the first statement, by which time the
+ * transaction has marked it read-only or not.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public BranchRoutingDataSource branchRoutingDataSource(HikariDataSource primaryDataSource, BranchProperties branchProperties) {
+    Map<Object, Object> targets = new HashMap<>();
+    branchProperties.getDedicated().forEach((branch, config) -> {
+      HikariDataSource ds = new HikariDataSource();
+      ds.setPoolName("branch-" + branch);
+      // a schema-only entry lives in the primary database
+      ds.setJdbcUrl(config.getUrl() != null ? config.getUrl() : primaryDataSource.getJdbcUrl());
+      ds.setUsername(config.getUsername() != null ? config.getUsername() : primaryDataSource.getUsername());
+      ds.setPassword(config.getPassword() != null ? config.getPassword() : primaryDataSource.getPassword());
+      ds.setSchema(config.getSchema());
+      ds.setMaximumPoolSize(config.getMaximumPoolSize());
+      targets.put(branch, ds);
+    });
+
+    BranchRoutingDataSource routing = new BranchRoutingDataSource();
+    routing.setDefaultTargetDataSource(primaryDataSource);
+    routing.setTargetDataSources(targets);
+    return routing;
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                           ReplicaProperties replicaProperties,
+                                                           ReadYourWritesTracker tracker) {
+    List<DataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+      ReplicaProperties.Replica config = replicaProperties.getReplicas().get(i);
+      HikariDataSource ds = new HikariDataSource();
+      ds.setPoolName("replica-" + i);
+      ds.setJdbcUrl(config.getUrl());
+      ds.setUsername(config.getUsername() != null ? config.getUsername() : primaryDataSource.getUsername());
+      ds.setPassword(config.getPassword() != null ? config.getPassword() : primaryDataSource.getPassword());
+      ds.setMaximumPoolSize(config.getMaximumPoolSize());
+      ds.setReadOnly(true);
+      replicas.add(ds);
+    }
+
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, tracker, replicaProperties.getMaxLag());
+    routing.startHealthChecks(replicaProperties.getHealthCheckInterval());
+    return routing;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(BranchRoutingDataSource branchRoutingDataSource,
+                               ReplicaRoutingDataSource replicaRoutingDataSource) {
+    // dedicated branches read from their own pool; only the shared primary has replicas
+    BranchRoutingDataSource readRouting = new BranchRoutingDataSource();
+    readRouting.setDefaultTargetDataSource(replicaRoutingDataSource);
+    readRouting.setTargetDataSources(new HashMap<>(branchRoutingDataSource.getResolvedDataSources()));
+    readRouting.afterPropertiesSet();
+
+    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(branchRoutingDataSource);
+    proxy.setReadOnlyDataSource(readRouting);
+    return proxy;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer branchTenantCustomizer() {
+    return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new BranchTenantResolver());
+  }
+}
@@ -0,0 +1,33 @@
+package com.branch.appointment.backend.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Startup trimming for the {@code prod} profile: beans whose class lives under {@code bas.startup.lazy-packages}
+ * are marked lazy. With Spring AOT the flags are baked into the generated bean definitions at build time.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("prod")
+public class FastStartConfig {
+
+  @Bean
+  static BeanFactoryPostProcessor lazyRarelyUsedBeans(Environment environment) {
+    List<String> packages = List.of(environment.getProperty("bas.startup.lazy-packages", String[].class,
+        new String[0]));
+    return beanFactory -> {
+      for (String name : beanFactory.getBeanDefinitionNames()) {
+        // resolves @Bean factory method return types too, without creating anything
+        Class<?> type = beanFactory.getType(name, false);
+        if (type != null && packages.stream().anyMatch(p -> type.getName().startsWith(p + "."))) {
+          beanFactory.getBeanDefinition(name).setLazyInit(true);
+        }
+      }
+    };
+  }
+}
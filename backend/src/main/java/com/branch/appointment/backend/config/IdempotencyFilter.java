@@ -0,0 +1,176 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays the stored result for a retried POST/PUT/PATCH carrying an {@code Idempotency-Key}.
+ * Requests without the header pass straight through.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  @Autowired
+  private IdempotencyStore store;
+
+  @Value("${bas.idempotency.wait-timeout:30s}")
+  private Duration waitTimeout;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    return request.getHeader(HEADER) == null
+        || !("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+    String key = scopedKey(request);
+    byte[] fingerprint = IdempotencyStore.fingerprint(cachedRequest.body);
+
+    while (true) {
+      IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+      if (claim.owner()) {
+        execute(cachedRequest, response, filterChain, key, claim.entry());
+        return;
+      }
+      if (!claim.entry().matches(fingerprint)) {
+        response.sendError(422, "Idempotency-Key was already used with a different request body");
+        return;
+      }
+
+      IdempotencyStore.StoredResponse stored;
+      try {
+        stored = claim.entry().getResult().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        response.sendError(HttpServletResponse.SC_CONFLICT, "A request with this Idempotency-Key is still in progress");
+        return;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ServletException(e);
+      } catch (ExecutionException e) {
+        throw new ServletException(e.getCause());
+      }
+
+      if (stored != null) {
+        replay(stored, response);
+        return;
+      }
+      // the first attempt failed and released the key; try to claim it ourselves
+    }
+  }
+
+  private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                       String key, IdempotencyStore.Entry entry) throws ServletException, IOException {
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    boolean completed = false;
+    try {
+      filterChain.doFilter(request, wrapper);
+      // 5xx is not a decision the client should be held to; let the retry run again
+      if (wrapper.getStatus() < 500) {
+        store.complete(entry, new IdempotencyStore.StoredResponse(
+            wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        completed = true;
+      }
+    } finally {
+      if (!completed) {
+        store.abandon(key, entry);
+      }
+      wrapper.copyBodyToResponse();
+    }
+  }
+
+  private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+    response.setStatus(stored.status());
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.setContentLength(stored.body().length);
+    response.getOutputStream().write(stored.body());
+  }
+
+  // keys are only unique per caller, so scope them by branch, subject and target
+  private String scopedKey(HttpServletRequest request) {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    String subject = auth != null ? auth.getName() : "anonymous";
+    return BranchContext.current() + '|' + subject + '|' + request.getMethod() + ' ' + request.getRequestURI()
+        + '|' + request.getHeader(HEADER);
+  }
+
+  private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request) throws IOException {
+      super(request);
+      this.body = request.getInputStream().readAllBytes();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+  }
+}
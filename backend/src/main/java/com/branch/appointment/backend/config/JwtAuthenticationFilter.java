@@ -1,16 +1,17 @@
 package com.branch.appointment.backend.config;
 
+import com.branch.appointment.backend.service.TokenRevocationService;
+import com.branch.appointment.backend.utils.BranchContext;
 import com.branch.appointment.backend.utils.TokenGeneration;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -18,12 +19,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+@Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   @Autowired
   private TokenGeneration tokenGeneration;
 
+  @Autowired
+  private TokenRevocationService tokenRevocationService;
+
   @Override
   protected void doFilterInternal(HttpServletRequest request,
                                   HttpServletResponse response,
@@ -41,26 +46,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     try {
       // 2. Parse JWT
       Claims claims = tokenGeneration.parseClaims(token);
+      if (tokenRevocationService.isRevoked(claims)) {
+        // logged out or revoked: carry on unauthenticated, so protected endpoints answer 401/403
+        filterChain.doFilter(request, response);
+        return;
+      }
 
-      String username = claims.getSubject();
-
-      // 3. If SecurityContext already has auth, skip
-      if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        // buing user object
-        UserDetails ud = User.builder().username(username).password("").authorities("ROLE_USER").build();
-        UsernamePasswordAuthenticationToken upat = new UsernamePasswordAuthenticationToken(ud, null, ud.getAuthorities());
+      BranchContext.set(claims.get("branch", String.class));
 
+      // 3. If SecurityContext already has auth, skip; the role comes from the verified claims, no user lookup
+      UsernamePasswordAuthenticationToken upat = ClaimAuthorities.authenticate(claims);
+      if (upat != null && SecurityContextHolder.getContext().getAuthentication() == null) {
         upat.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
         SecurityContextHolder.getContext().setAuthentication(upat);
       }
 
     } catch (Exception e) {
-      System.out.println("Invalid JWT: " + e.getMessage());
+      // the request carries on unauthenticated; debug only, since any client can send a bad token
+      log.debug("Invalid JWT: {}", e.getMessage());
     }
 
-
-    filterChain.doFilter(request, response);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      BranchContext.clear();
+    }
   }
 
 
@@ -0,0 +1,26 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.metrics.StatementCountingInspector;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+  // Without the aspect, @Timed on services is inert, so disabling metrics costs nothing on the hot path
+  @Bean
+  @ConditionalOnProperty(name = "bas.metrics.enabled", havingValue = "true", matchIfMissing = true)
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+    return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+  }
+}
@@ -0,0 +1,20 @@
+package com.branch.appointment.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Per-caller token bucket for a controller method, plus an optional cap on concurrent executions
+ * across all callers. Overridden by {@code bas.rate-limit.endpoints[<Controller>.<method>].*}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+  int capacity();
+
+  double refillPerSecond();
+
+  int maxConcurrent() default 0;
+}
@@ -0,0 +1,114 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.utils.StripedTokenBuckets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the controllers: a token bucket per caller and endpoint (429 + Retry-After),
+ * and for expensive endpoints a shared concurrency cap (503 + Retry-After).
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+
+  private final RateLimitProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final StripedTokenBuckets buckets = new StripedTokenBuckets(Runtime.getRuntime().availableProcessors() * 4);
+  private final Map<Method, Policy> policies = new ConcurrentHashMap<>();
+
+  public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("bas.ratelimit.buckets", buckets, StripedTokenBuckets::size)
+        .description("Live token buckets")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+    if (!properties.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+      return true;
+    }
+    Policy policy = policies.computeIfAbsent(handlerMethod.getMethod(), m -> resolve(handlerMethod));
+
+    long waitNanos = buckets.tryAcquire(policy.endpoint() + '|' + caller(request), policy.capacity(), policy.refillPerSecond());
+    if (waitNanos > 0) {
+      reject(response, policy, HttpStatus.TOO_MANY_REQUESTS, "rate", waitNanos);
+      return false;
+    }
+
+    if (policy.concurrency() != null) {
+      if (!policy.concurrency().tryAcquire()) {
+        reject(response, policy, HttpStatus.SERVICE_UNAVAILABLE, "concurrency", TimeUnit.SECONDS.toNanos(1));
+        return false;
+      }
+      request.setAttribute(PERMIT_ATTRIBUTE, policy.concurrency());
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+    if (permit instanceof Semaphore semaphore) {
+      semaphore.release();
+    }
+  }
+
+  private void reject(HttpServletResponse response, Policy policy, HttpStatus status, String reason, long waitNanos)
+      throws IOException {
+    Counter.builder("bas.ratelimit.rejected")
+        .description("Requests turned away by admission control")
+        .tag("endpoint", policy.endpoint())
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+
+    long waitSeconds = (Math.min(waitNanos, TimeUnit.HOURS.toNanos(1)) + 999_999_999L) / 1_000_000_000L;
+    long retryAfterSeconds = Math.max(1, waitSeconds);
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    response.sendError(status.value(), "Too many requests for " + policy.endpoint());
+  }
+
+  private String caller(HttpServletRequest request) {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth != null && !(auth instanceof AnonymousAuthenticationToken) ? auth.getName() : request.getRemoteAddr();
+  }
+
+  private Policy resolve(HandlerMethod handlerMethod) {
+    String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+    RateLimitProperties.Limit limit = properties.getEndpoints().get(endpoint);
+    if (limit == null) {
+      RateLimit annotation = handlerMethod.getMethodAnnotation(RateLimit.class);
+      limit = annotation != null
+          ? new RateLimitProperties.Limit(annotation.capacity(), annotation.refillPerSecond(), annotation.maxConcurrent())
+          : properties.getDefaults();
+    }
+    Semaphore concurrency = limit.getMaxConcurrent() > 0 ? new Semaphore(limit.getMaxConcurrent()) : null;
+    return new Policy(endpoint, limit.getCapacity(), limit.getRefillPerSecond(), concurrency);
+  }
+
+  private record Policy(String endpoint, int capacity, double refillPerSecond, Semaphore concurrency) {
+  }
+}
@@ -0,0 +1,39 @@
+package com.branch.appointment.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bas.rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+  // applies to endpoints without @RateLimit
+  private Limit defaults = new Limit(60, 20, 0);
+  // keyed by "<Controller>.<method>"; use bracket notation in properties files
+  private Map<String, Limit> endpoints = new HashMap<>();
+
+  @Getter
+  @Setter
+  public static class Limit {
+    private int capacity;
+    private double refillPerSecond;
+    private int maxConcurrent;
+
+    public Limit() {
+    }
+
+    public Limit(int capacity, double refillPerSecond, int maxConcurrent) {
+      this.capacity = capacity;
+      this.refillPerSecond = refillPerSecond;
+      this.maxConcurrent = maxConcurrent;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.branch.appointment.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who committed a write recently so their follow-up reads skip the (possibly lagging) replicas.
+ * Boot registers this listener on the JPA transaction manager.
+ */
+@Component
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+  private static final int CLEANUP_THRESHOLD = 10_000;
+
+  private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+  private final long stickinessNanos;
+
+  @Autowired
+  public ReadYourWritesTracker(ReplicaProperties properties) {
+    this(properties.getStickiness().toNanos());
+  }
+
+  ReadYourWritesTracker(long stickinessNanos) {
+    this.stickinessNanos = stickinessNanos;
+  }
+
+  @Override
+  public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+    String subject = currentSubject();
+    if (commitFailure == null && !transaction.isReadOnly() && subject != null) {
+      recordWrite(subject);
+    }
+  }
+
+  public void recordWrite(String subject) {
+    long now = System.nanoTime();
+    lastWriteNanos.put(subject, now);
+    if (lastWriteNanos.size() > CLEANUP_THRESHOLD) {
+      lastWriteNanos.values().removeIf(t -> now - t > stickinessNanos);
+    }
+  }
+
+  public boolean isSticky() {
+    String subject = currentSubject();
+    if (subject == null) {
+      return false;
+    }
+    Long last = lastWriteNanos.get(subject);
+    return last != null && System.nanoTime() - last < stickinessNanos;
+  }
+
+  private String currentSubject() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth != null ? auth.getName() : null;
+  }
+}
@@ -0,0 +1,25 @@
+package com.branch.appointment.backend.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Replica status at {@code /actuator/health}. Down replicas only degrade reads to the primary,
+ * so the application stays UP and the detail lists which replicas are out of rotation.
+ */
+@Component("replicas")
+@AllArgsConstructor
+public class ReplicaHealthIndicator implements HealthIndicator {
+
+  private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+  @Override
+  public Health health() {
+    Map<String, Boolean> replicas = replicaRoutingDataSource.getHealth();
+    return Health.up().withDetails(replicas).build();
+  }
+}
@@ -0,0 +1,34 @@
+package com.branch.appointment.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bas.datasource")
+public class ReplicaProperties {
+
+  // read-only transactions are spread over these; empty means everything stays on the primary
+  private List<Replica> replicas = new ArrayList<>();
+  private Duration healthCheckInterval = Duration.ofSeconds(5);
+  // replicas lagging further behind than this are taken out of rotation
+  private Duration maxLag = Duration.ofSeconds(5);
+  // after a write, the same user reads from the primary for this long
+  private Duration stickiness = Duration.ofSeconds(10);
+
+  @Getter
+  @Setter
+  public static class Replica {
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+  }
+}
@@ -0,0 +1,134 @@
+package com.branch.appointment.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read side of the read/write split: round-robins over healthy replicas and falls back to the primary
+ * when none is healthy or the caller has just written (read-your-writes).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+  // 0 when the replica has replayed everything it received, null on a primary
+  private static final String LAG_QUERY = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+      + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+  private final DataSource primary;
+  private final List<DataSource> replicas;
+  private final ReadYourWritesTracker tracker;
+  private final double maxLagSeconds;
+  private final AtomicInteger next = new AtomicInteger();
+  private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "replica-health");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private volatile List<DataSource> healthyReplicas;
+  private volatile Map<String, Boolean> health = Map.of();
+
+  public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                  ReadYourWritesTracker tracker, Duration maxLag) {
+    this.primary = primary;
+    this.replicas = List.copyOf(replicas);
+    this.tracker = tracker;
+    this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    this.healthyReplicas = this.replicas;
+  }
+
+  public void startHealthChecks(Duration interval) {
+    if (!replicas.isEmpty()) {
+      healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    List<DataSource> candidates = healthyReplicas;
+    if (candidates.isEmpty() || tracker.isSticky()) {
+      return primary.getConnection();
+    }
+    DataSource replica = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    try {
+      return replica.getConnection();
+    } catch (SQLException e) {
+      log.warn("Replica connection failed, reading from primary: {}", e.getMessage());
+      return primary.getConnection();
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getConnection();
+  }
+
+  public void checkHealth() {
+    List<DataSource> healthy = new ArrayList<>();
+    Map<String, Boolean> status = new LinkedHashMap<>();
+    for (int i = 0; i < replicas.size(); i++) {
+      boolean up = isHealthy(replicas.get(i));
+      if (up) {
+        healthy.add(replicas.get(i));
+      }
+      status.put("replica-" + i, up);
+    }
+    if (healthy.size() != healthyReplicas.size()) {
+      log.warn("Healthy replicas: {}/{}", healthy.size(), replicas.size());
+    }
+    healthyReplicas = List.copyOf(healthy);
+    health = status;
+  }
+
+  public Map<String, Boolean> getHealth() {
+    return health;
+  }
+
+  private boolean isHealthy(DataSource replica) {
+    try (Connection con = replica.getConnection()) {
+      if (!con.isValid(2)) {
+        return false;
+      }
+      return lagSeconds(con) <= maxLagSeconds;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private double lagSeconds(Connection con) {
+    try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(LAG_QUERY)) {
+      return rs.next() ? rs.getDouble(1) : 0; // getDouble maps SQL null to 0
+    } catch (SQLException e) {
+      return 0; // not PostgreSQL; reachability is all we can check
+    }
+  }
+
+  @Override
+  public void close() {
+    healthChecker.shutdownNow();
+    for (DataSource replica : replicas) {
+      if (replica instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception e) {
+          log.warn("Failed to close replica pool", e);
+        }
+      }
+    }
+  }
+}
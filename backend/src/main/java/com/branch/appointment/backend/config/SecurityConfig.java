@@ -2,7 +2,9 @@ package com.branch.appointment.backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -13,7 +15,11 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import static com.branch.appointment.backend.config.ClaimAuthorities.ADMIN;
+import static com.branch.appointment.backend.config.ClaimAuthorities.SERVICE_ADVISOR;
+
 @Configuration
+@EnableMethodSecurity
 public class SecurityConfig {
 
   @Bean
@@ -29,6 +35,18 @@ public class SecurityConfig {
         .cors(Customizer.withDefaults()) // ✅ Enable CORS
         .authorizeHttpRequests(authz -> authz
             .requestMatchers("/auth/register", "/auth/login").permitAll()
+            // roles come from the token claims (see ClaimAuthorities); technicians mostly read and move job status
+            .requestMatchers("/auth/revoke", "/auth/users/**").hasRole(ADMIN)
+            // resets counters everyone else is reading, see HibernateStatisticsEndpoint
+            .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasRole(ADMIN)
+            .requestMatchers(HttpMethod.POST, "/bays", "/technicians", "/service-advisors").hasRole(ADMIN)
+            .requestMatchers(HttpMethod.PUT, "/bays/**", "/technicians/**", "/service-advisors/**").hasRole(ADMIN)
+            .requestMatchers(HttpMethod.DELETE, "/bays/**", "/technicians/**", "/service-advisors/**").hasRole(ADMIN)
+            .requestMatchers("/bookings/processes/**").hasAnyRole(ADMIN, SERVICE_ADVISOR)
+            .requestMatchers(HttpMethod.POST, "/bookings").hasAnyRole(ADMIN, SERVICE_ADVISOR)
+            .requestMatchers(HttpMethod.PUT, "/bookings/*/technician").hasAnyRole(ADMIN, SERVICE_ADVISOR)
+            .requestMatchers(HttpMethod.DELETE, "/bookings/**").hasAnyRole(ADMIN, SERVICE_ADVISOR)
+            .requestMatchers("/holds/**").hasAnyRole(ADMIN, SERVICE_ADVISOR)
             .anyRequest().authenticated()
         )
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -0,0 +1,14 @@
+package com.branch.appointment.backend.config;
+
+import java.security.Principal;
+
+/**
+ * The caller as described by their verified token; {@link #getName()} is the email, like the token subject.
+ */
+public record TokenPrincipal(Long userId, String email, String role, String branch) implements Principal {
+
+  @Override
+  public String getName() {
+    return email;
+  }
+}
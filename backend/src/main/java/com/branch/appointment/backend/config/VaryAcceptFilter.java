@@ -0,0 +1,27 @@
+package com.branch.appointment.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Any response may be JSON, Smile or CBOR (see {@link WireFormatConfig}) under the same ETag, so shared caches
+ * have to key on the Accept header too. Set up front so 304s and errors carry it as well.
+ */
+@Component
+public class VaryAcceptFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,21 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.metrics.QueryBudgetInterceptor;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@AllArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+  private final RateLimitInterceptor rateLimitInterceptor;
+  private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(rateLimitInterceptor);
+    registry.addInterceptor(queryBudgetInterceptor);
+  }
+}
@@ -0,0 +1,32 @@
+package com.branch.appointment.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings selected through the Accept header ({@code application/x-jackson-smile}, {@code application/cbor}).
+ * Both mappers come from Boot's builder so dates and enums serialize exactly like the JSON responses.
+ */
+@Configuration
+public class WireFormatConfig {
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    // shared string values turn repeated enum names like ACTIVE_BOARD into back-references
+    SmileFactory factory = SmileFactory.builder()
+        .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+        .build();
+    return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+  }
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+}
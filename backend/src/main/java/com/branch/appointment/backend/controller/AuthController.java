@@ -4,14 +4,21 @@ import com.branch.appointment.backend.dto.LoginResponse;
 import com.branch.appointment.backend.dto.LoginUserDto;
 import com.branch.appointment.backend.dto.RegisterResponse;
 import com.branch.appointment.backend.dto.RegisterUserDto;
+import com.branch.appointment.backend.enums.UserRoleEnum;
+import com.branch.appointment.backend.metrics.QueryBudget;
 import com.branch.appointment.backend.service.AuthService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
@@ -24,14 +31,47 @@ public class AuthController {
 
 
   @PostMapping("/register")
+  @QueryBudget(6)
   public ResponseEntity<RegisterResponse> registerUser(@RequestBody RegisterUserDto userInfo) {
     RegisterResponse response = authService.registerUser(userInfo);
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
   @PostMapping("/login")
+  @QueryBudget(2)
   public ResponseEntity<LoginResponse> loginUser(@RequestBody LoginUserDto userInfo) {
     LoginResponse response = authService.loginUser(userInfo);
     return ResponseEntity.ok(response);
   }
+
+  @PostMapping("/logout")
+  @QueryBudget(2)
+  public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+    authService.logout(authorization.substring(7));
+    return ResponseEntity.noContent().build();
+  }
+
+  // e.g. when an account is removed: its outstanding tokens stop working on every node within a poll interval
+  @PostMapping("/revoke")
+  @QueryBudget(4)
+  public ResponseEntity<Void> revokeUserTokens(@RequestParam String email) {
+    authService.revokeUserTokens(email);
+    return ResponseEntity.noContent().build();
+  }
+
+  // self-registration always lands in the default branch; the branch comes from here, never from the client
+  @PutMapping("/users/{userId}/branch")
+  @QueryBudget(8)
+  public ResponseEntity<Void> assignBranch(@PathVariable Long userId, @RequestParam String code) {
+    authService.assignBranch(userId, code);
+    return ResponseEntity.noContent().build();
+  }
+
+  // self-registration always creates a technician; any other role is granted here by an admin
+  @PutMapping("/users/{userId}/role")
+  @QueryBudget(8)
+  public ResponseEntity<Void> assignRole(@PathVariable Long userId, @RequestParam UserRoleEnum role) {
+    authService.assignRole(userId, role);
+    return ResponseEntity.noContent().build();
+  }
 }
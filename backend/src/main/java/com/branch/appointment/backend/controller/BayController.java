@@ -1,12 +1,21 @@
 package com.branch.appointment.backend.controller;
 
+import com.branch.appointment.backend.dto.BayAvailabilityDto;
 import com.branch.appointment.backend.dto.BayDto;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.metrics.QueryBudget;
 import com.branch.appointment.backend.service.BayService;
+import com.branch.appointment.backend.utils.ChangeVersions;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,29 +24,56 @@ import java.util.List;
 public class BayController {
 
   private final BayService bayService;
+  private final ChangeVersions changeVersions;
 
   @GetMapping()
-  public ResponseEntity<List<BayDto>> getBays() {
-    return ResponseEntity.ok(bayService.getBays());
+  @QueryBudget(2)
+  public ResponseEntity<List<BayDto>> getBays(WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BAYS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(bayService.getBays());
   }
 
   @PostMapping()
+  @QueryBudget(3)
   public ResponseEntity<BayDto> createBay(@RequestBody BayDto bayDto) {
     BayDto createdBay = bayService.createBay(bayDto);
     return ResponseEntity.status(HttpStatus.CREATED).body(createdBay);
   }
 
+  // e.g. /bays/availability?date=2025-10-20&jobType=HEAVY or &duration=90 (minutes)
+  @GetMapping("/availability")
+  @QueryBudget(2)
+  public ResponseEntity<List<BayAvailabilityDto>> getAvailability(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+      @RequestParam(required = false) Integer duration,
+      @RequestParam(required = false) JobTypeEnum jobType,
+      @RequestParam(defaultValue = "31") int days,
+      @RequestParam(defaultValue = "5") int limit
+  ) {
+    return ResponseEntity.ok(bayService.getAvailability(date, duration, jobType, days, limit));
+  }
+
   @GetMapping("/{id}")
-  public ResponseEntity<BayDto> getBayById(@PathVariable Long id) {
-    return ResponseEntity.ok(bayService.getBayById(id));
+  @QueryBudget(2)
+  public ResponseEntity<BayDto> getBayById(@PathVariable Long id, WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BAYS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(bayService.getBayById(id));
   }
 
   @PutMapping("/{id}")
+  @QueryBudget(4)
   public ResponseEntity<BayDto> updateBay(@PathVariable Long id, @RequestBody BayDto bayDto) {
     return ResponseEntity.ok(bayService.updateBay(id, bayDto));
   }
 
   @DeleteMapping("/{id}")
+  @QueryBudget(4)
   public ResponseEntity<Void> deleteBay(@PathVariable Long id) {
     bayService.deleteBay(id);
     return ResponseEntity.noContent().build();
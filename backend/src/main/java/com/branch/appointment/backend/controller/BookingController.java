@@ -1,16 +1,39 @@
 package com.branch.appointment.backend.controller;
 
+import com.branch.appointment.backend.config.RateLimit;
+import com.branch.appointment.backend.dto.BookingChangesResponse;
 import com.branch.appointment.backend.dto.BookingDto;
 import com.branch.appointment.backend.dto.BookingProcessDto;
+import com.branch.appointment.backend.dto.CalendarDto;
+import com.branch.appointment.backend.dto.DurationEstimateDto;
+import com.branch.appointment.backend.dto.QueuePositionDto;
+import com.branch.appointment.backend.dto.TableResponse;
+import com.branch.appointment.backend.enums.DurationDimensionEnum;
+import com.branch.appointment.backend.enums.ExportFormatEnum;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.mapper.TableMapper;
+import com.branch.appointment.backend.metrics.QueryBudget;
 import com.branch.appointment.backend.service.BookingService;
+import com.branch.appointment.backend.service.BookingView;
+import com.branch.appointment.backend.service.BookingViewService;
+import com.branch.appointment.backend.service.CalendarService;
+import com.branch.appointment.backend.service.ProcessExportService;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/bookings")
@@ -18,23 +41,162 @@ import java.util.List;
 public class BookingController {
 
   private final BookingService bookingService;
+  private final ChangeVersions changeVersions;
+  private final TableMapper tableMapper;
+  private final CalendarService calendarService;
+  private final ProcessExportService processExportService;
+  private final BookingViewService bookingViewService;
 
   @GetMapping
-  public ResponseEntity<List<BookingDto>> getAllBookings() {
-    return ResponseEntity.ok(bookingService.getBookings());
+  @QueryBudget(40)
+  @RateLimit(capacity = 20, refillPerSecond = 2)
+  public ResponseEntity<List<BookingDto>> getAllBookings(WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(bookingService.getBookings());
+  }
+
+  @GetMapping(params = "shape=table")
+  @QueryBudget(40)
+  @RateLimit(capacity = 20, refillPerSecond = 2)
+  public ResponseEntity<TableResponse> getAllBookingsTable(WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS) + "-table";
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+        .body(tableMapper.toBookingTable(bookingService.getBookings()));
+  }
+
+  // only what the screen needs, e.g. ?fields=id,carRegNo,status,bayId for the board, or ?expand=history,bay
+  @GetMapping(params = "fields")
+  @QueryBudget(10)
+  @RateLimit(capacity = 20, refillPerSecond = 2)
+  public ResponseEntity<List<Map<String, Object>>> getAllBookingsView(
+      @RequestParam String fields,
+      @RequestParam(required = false) String expand,
+      WebRequest request
+  ) {
+    return bookingsView(BookingView.parse(fields, expand), request);
+  }
+
+  @GetMapping(params = {"expand", "!fields"})
+  @QueryBudget(10)
+  @RateLimit(capacity = 20, refillPerSecond = 2)
+  public ResponseEntity<List<Map<String, Object>>> getAllBookingsExpanded(@RequestParam String expand,
+                                                                          WebRequest request) {
+    return bookingsView(BookingView.parse(null, expand), request);
+  }
+
+  // many bookings by id in one round trip, e.g. ?ids=4,8,15; duplicates are merged, unknown ids left out
+  @GetMapping("/batch")
+  @QueryBudget(2)
+  public ResponseEntity<List<BookingDto>> getBookingsBatch(@RequestParam List<Long> ids, WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS) + "-batch-" + BookingService.batchTag(ids);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+        .body(bookingService.getBookingsByIds(ids));
+  }
+
+  // histories of many bookings grouped by booking id, from one query
+  @GetMapping("/batch/history")
+  @QueryBudget(2)
+  public ResponseEntity<Map<Long, List<BookingProcessDto>>> getHistoriesBatch(@RequestParam List<Long> ids,
+                                                                             WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.BAYS,
+        ResourceCollectionEnum.PROCESSES) + "-batch-" + BookingService.batchTag(ids);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+        .body(bookingService.getHistories(ids));
+  }
+
+  @GetMapping("/changes")
+  @QueryBudget(8)
+  public ResponseEntity<BookingChangesResponse> getBookingChanges(
+      @RequestParam(defaultValue = "0") Long since,
+      @RequestParam(defaultValue = "500") int limit
+  ) {
+    return ResponseEntity.ok(bookingService.getChanges(since, limit));
+  }
+
+  // bookings grouped by bay and day; to defaults to a week from `from`
+  @GetMapping("/calendar")
+  @QueryBudget(2)
+  public ResponseEntity<CalendarDto> getCalendar(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      WebRequest request
+  ) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.BAYS,
+        ResourceCollectionEnum.SERVICE_ADVISORS, ResourceCollectionEnum.TECHNICIANS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    LocalDate until = to != null ? to : from.plusDays(6);
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+        .body(calendarService.getCalendar(from, until, etag));
+  }
+
+  // p50/p90 working minutes on the board per job type, bay or technician, measured from completed jobs
+  @GetMapping("/durations")
+  @QueryBudget(0)
+  public ResponseEntity<List<DurationEstimateDto>> getDurationEstimates(
+      @RequestParam(defaultValue = "JOB_TYPE") DurationDimensionEnum by
+  ) {
+    return ResponseEntity.ok(bookingService.getDurationEstimates(by));
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<BookingDto> getBookingById(@PathVariable Long id) {
-    return ResponseEntity.ok(bookingService.getBookingById(id));
+  @QueryBudget(6)
+  public ResponseEntity<BookingDto> getBookingById(@PathVariable Long id, WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(bookingService.getBookingById(id));
+  }
+
+  @GetMapping(value = "/{id}", params = "fields")
+  @QueryBudget(2)
+  public ResponseEntity<Map<String, Object>> getBookingView(
+      @PathVariable Long id,
+      @RequestParam String fields,
+      @RequestParam(required = false) String expand,
+      WebRequest request
+  ) {
+    return bookingView(id, BookingView.parse(fields, expand), request);
+  }
+
+  @GetMapping(value = "/{id}", params = {"expand", "!fields"})
+  @QueryBudget(2)
+  public ResponseEntity<Map<String, Object>> getBookingExpanded(@PathVariable Long id, @RequestParam String expand,
+                                                                WebRequest request) {
+    return bookingView(id, BookingView.parse(null, expand), request);
+  }
+
+  // how many cars are ahead in the booking's bay queue and when it should start and finish; never cached
+  @GetMapping("/{id}/queue-position")
+  @QueryBudget(0)
+  public ResponseEntity<QueuePositionDto> getQueuePosition(@PathVariable Long id) {
+    return bookingService.getQueuePosition(id)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   @PostMapping
+  @QueryBudget(9)
   public ResponseEntity<BookingDto> createBooking(@RequestBody BookingDto dto) {
     return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createBooking(dto));
   }
 
   @PutMapping("/{id}")
+  @QueryBudget(16)
   public ResponseEntity<BookingDto> updateBooking(
       @PathVariable Long id,
       @RequestBody BookingDto dto
@@ -42,18 +204,69 @@ public class BookingController {
     return ResponseEntity.ok(bookingService.updateBooking(id, dto));
   }
 
+  // without technicianId the least-loaded available technician is picked
+  @PutMapping("/{id}/technician")
+  @QueryBudget(8)
+  public ResponseEntity<BookingDto> assignTechnician(
+      @PathVariable Long id,
+      @RequestParam(required = false) Long technicianId
+  ) {
+    return ResponseEntity.ok(bookingService.assignTechnician(id, technicianId));
+  }
+
   @DeleteMapping("/{id}")
+  @QueryBudget(6)
   public ResponseEntity<Void> deleteBooking(@PathVariable Long id) {
     bookingService.deleteBooking(id);
     return ResponseEntity.noContent().build();
   }
 
   @GetMapping("/{id}/history")
-  public ResponseEntity<List<BookingProcessDto>> getBookingHistory(@PathVariable Long id) {
-    return ResponseEntity.ok(bookingService.getHistory(id));
+  @QueryBudget(15)
+  public ResponseEntity<List<BookingProcessDto>> getBookingHistory(@PathVariable Long id, WebRequest request) {
+    // history embeds bay details, so a bay rename must also invalidate it
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.BAYS,
+        ResourceCollectionEnum.PROCESSES);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(bookingService.getHistory(id));
+  }
+
+  @GetMapping(value = "/{id}/history", params = "shape=table")
+  @QueryBudget(15)
+  public ResponseEntity<TableResponse> getBookingHistoryTable(@PathVariable Long id, WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.PROCESSES) + "-table";
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+        .body(tableMapper.toHistoryTable(bookingService.getHistory(id)));
+  }
+
+  // Raw process history for integrations; pass the previous response's Export-Cursor as `since` to get only new rows
+  @GetMapping("/processes/export")
+  @QueryBudget(2)
+  @RateLimit(capacity = 5, refillPerSecond = 0.1, maxConcurrent = 2)
+  public void exportBookingProcesses(
+      @RequestParam(defaultValue = "CSV") ExportFormatEnum format,
+      @RequestParam(defaultValue = "0") long since,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      HttpServletResponse response
+  ) throws IOException {
+    long until = processExportService.currentCursor();
+    boolean csv = format == ExportFormatEnum.CSV;
+    response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=processes_" + since + "_" + until + (csv ? ".csv" : ".ndjson"));
+    response.setHeader("Export-Cursor", Long.toString(until));
+    processExportService.export(format, since, until, from, to, response.getOutputStream());
   }
 
   @GetMapping("/processes/download")
+  @QueryBudget(60)
+  @RateLimit(capacity = 3, refillPerSecond = 0.05, maxConcurrent = 2)
   public ResponseEntity<byte[]> downloadBookingProcesses(@RequestParam(required = false) String carRegNo) {
     byte[] excelFile = bookingService.generateProcessReport(carRegNo);
 
@@ -64,5 +277,23 @@ public class BookingController {
         .contentType(MediaType.APPLICATION_OCTET_STREAM)
         .body(excelFile);
   }
-}
 
+  private ResponseEntity<List<Map<String, Object>>> bookingsView(BookingView view, WebRequest request) {
+    String etag = changeVersions.etag(view.collections()) + "-" + view.key();
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+        .body(bookingViewService.getBookings(view));
+  }
+
+  private ResponseEntity<Map<String, Object>> bookingView(Long id, BookingView view, WebRequest request) {
+    String etag = changeVersions.etag(view.collections()) + "-" + view.key();
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return bookingViewService.getBooking(id, view)
+        .map(booking -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(booking))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+}
@@ -0,0 +1,38 @@
+package com.branch.appointment.backend.controller;
+
+import com.branch.appointment.backend.config.RateLimit;
+import com.branch.appointment.backend.dto.DashboardDto;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.metrics.QueryBudget;
+import com.branch.appointment.backend.service.DashboardService;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+  private final DashboardService dashboardService;
+  private final ChangeVersions changeVersions;
+
+  // bookings, bays, technicians and service advisors in one round trip; revalidates as a whole
+  @GetMapping
+  @QueryBudget(46)
+  @RateLimit(capacity = 20, refillPerSecond = 2)
+  public ResponseEntity<DashboardDto> getDashboard(WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.BAYS,
+        ResourceCollectionEnum.TECHNICIANS, ResourceCollectionEnum.SERVICE_ADVISORS) + "-dashboard";
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(dashboardService.getDashboard());
+  }
+}
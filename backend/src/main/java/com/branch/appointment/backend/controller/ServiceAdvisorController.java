@@ -1,11 +1,16 @@
 package com.branch.appointment.backend.controller;
 
 import com.branch.appointment.backend.dto.ServiceAdvisorDto;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.metrics.QueryBudget;
 import com.branch.appointment.backend.service.ServiceAdvisorService;
+import com.branch.appointment.backend.utils.ChangeVersions;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,28 +20,42 @@ import java.util.List;
 public class ServiceAdvisorController {
 
   private final ServiceAdvisorService service;
+  private final ChangeVersions changeVersions;
 
   @GetMapping
-  public ResponseEntity<List<ServiceAdvisorDto>> getAll() {
-    return ResponseEntity.ok(service.getAll());
+  @QueryBudget(2)
+  public ResponseEntity<List<ServiceAdvisorDto>> getAll(WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.SERVICE_ADVISORS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(service.getAll());
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<ServiceAdvisorDto> getById(@PathVariable Long id) {
-    return ResponseEntity.ok(service.getById(id));
+  @QueryBudget(2)
+  public ResponseEntity<ServiceAdvisorDto> getById(@PathVariable Long id, WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.SERVICE_ADVISORS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(service.getById(id));
   }
 
   @PostMapping
+  @QueryBudget(3)
   public ResponseEntity<ServiceAdvisorDto> create(@RequestBody ServiceAdvisorDto dto) {
     return ResponseEntity.status(HttpStatus.CREATED).body(service.create(dto));
   }
 
   @PutMapping("/{id}")
+  @QueryBudget(4)
   public ResponseEntity<ServiceAdvisorDto> update(@PathVariable Long id, @RequestBody ServiceAdvisorDto dto) {
     return ResponseEntity.ok(service.update(id, dto));
   }
 
   @DeleteMapping("/{id}")
+  @QueryBudget(4)
   public ResponseEntity<Void> delete(@PathVariable Long id) {
     service.delete(id);
     return ResponseEntity.noContent().build();
@@ -0,0 +1,48 @@
+package com.branch.appointment.backend.controller;
+
+import com.branch.appointment.backend.dto.BookingDto;
+import com.branch.appointment.backend.dto.SlotHoldDto;
+import com.branch.appointment.backend.metrics.QueryBudget;
+import com.branch.appointment.backend.service.SlotHoldService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/holds")
+public class SlotHoldController {
+
+  private final SlotHoldService slotHoldService;
+
+  // 409 when a booking or another hold already covers part of the window; the one statement checks the bay exists
+  @PostMapping
+  @QueryBudget(1)
+  public ResponseEntity<SlotHoldDto> createHold(@RequestBody SlotHoldDto dto) {
+    return slotHoldService.hold(dto)
+        .map(hold -> ResponseEntity.status(HttpStatus.CREATED).body(hold))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+  }
+
+  @GetMapping("/{id}")
+  @QueryBudget(0)
+  public ResponseEntity<SlotHoldDto> getHold(@PathVariable String id) {
+    return ResponseEntity.of(slotHoldService.getHold(id));
+  }
+
+  // 410 when the hold has expired or was released in the meantime
+  @PostMapping("/{id}/confirm")
+  @QueryBudget(9)
+  public ResponseEntity<BookingDto> confirmHold(@PathVariable String id, @RequestBody BookingDto dto) {
+    return slotHoldService.confirm(id, dto)
+        .map(booking -> ResponseEntity.status(HttpStatus.CREATED).body(booking))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+  }
+
+  @DeleteMapping("/{id}")
+  @QueryBudget(0)
+  public ResponseEntity<Void> releaseHold(@PathVariable String id) {
+    return slotHoldService.release(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+  }
+}
@@ -1,11 +1,17 @@
 package com.branch.appointment.backend.controller;
 
 import com.branch.appointment.backend.dto.TechnicianDto;
+import com.branch.appointment.backend.dto.TechnicianLoadDto;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.metrics.QueryBudget;
 import com.branch.appointment.backend.service.TechnicianService;
+import com.branch.appointment.backend.utils.ChangeVersions;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,31 +21,56 @@ import java.util.List;
 public class TechnicianController {
 
   private final TechnicianService technicianService;
+  private final ChangeVersions changeVersions;
 
   @GetMapping
-  public ResponseEntity<List<TechnicianDto>> getTechnicians() {
-    return ResponseEntity.ok(technicianService.getTechnicians());
+  @QueryBudget(2)
+  public ResponseEntity<List<TechnicianDto>> getTechnicians(WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.TECHNICIANS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(technicianService.getTechnicians());
+  }
+
+  // served from the in-memory load tracker; changes with every assignment, so never cached
+  @GetMapping("/least-loaded")
+  @QueryBudget(0)
+  public ResponseEntity<TechnicianLoadDto> getLeastLoaded() {
+    return technicianService.getLeastLoaded()
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<TechnicianDto> getTechnician(@PathVariable Long id) {
-    return ResponseEntity.ok(technicianService.getTechnician(id));
+  @QueryBudget(2)
+  public ResponseEntity<TechnicianDto> getTechnician(@PathVariable Long id, WebRequest request) {
+    String etag = changeVersions.etag(ResourceCollectionEnum.TECHNICIANS);
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(technicianService.getTechnician(id));
   }
 
   @PostMapping
+  @QueryBudget(3)
   public ResponseEntity<TechnicianDto> createTechnician(@RequestBody TechnicianDto dto) {
     return ResponseEntity.status(HttpStatus.CREATED).body(technicianService.createTechnician(dto));
   }
 
   @PutMapping("/{id}")
+  @QueryBudget(4)
   public ResponseEntity<TechnicianDto> updateTechnician(@PathVariable Long id, @RequestBody TechnicianDto dto) {
     return ResponseEntity.ok(technicianService.updateTechnician(id, dto));
   }
 
+  // 409 when a booking still refers to the technician
   @DeleteMapping("/{id}")
+  @QueryBudget(4)
   public ResponseEntity<Void> deleteTechnician(@PathVariable Long id) {
-    technicianService.deleteTechnician(id);
-    return ResponseEntity.noContent().build();
+    return technicianService.deleteTechnician(id)
+        ? ResponseEntity.noContent().build()
+        : ResponseEntity.status(HttpStatus.CONFLICT).build();
   }
 }
 
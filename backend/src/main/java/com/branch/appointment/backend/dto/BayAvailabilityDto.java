@@ -0,0 +1,18 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BayAvailabilityDto {
+  private Long bayId;
+  private String bayName;
+  private String bayNumber;
+  // free windows long enough for the requested duration, earliest first
+  private List<FreeSlotDto> slots;
+}
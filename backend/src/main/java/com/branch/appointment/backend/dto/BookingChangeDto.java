@@ -0,0 +1,16 @@
+package com.branch.appointment.backend.dto;
+
+import com.branch.appointment.backend.enums.BookingChangeTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingChangeDto {
+  private Long seq;
+  private Long bookingId;
+  private BookingChangeTypeEnum type;
+  private BookingDto booking; // null for DELETE
+}
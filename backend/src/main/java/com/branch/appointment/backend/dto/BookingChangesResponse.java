@@ -0,0 +1,17 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingChangesResponse {
+  private List<BookingChangeDto> changes;
+  // pass back as ?since= for the next page; changes from the last few seconds may be sent again
+  private Long nextCursor;
+  private boolean hasMore;
+}
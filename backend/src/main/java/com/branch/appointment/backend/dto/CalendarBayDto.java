@@ -0,0 +1,18 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarBayDto {
+  private Long bayId;
+  private String bayName;
+  private String bayNumber;
+  // only days with at least one booking, in date order
+  private List<CalendarDayDto> days;
+}
@@ -0,0 +1,28 @@
+package com.branch.appointment.backend.dto;
+
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarBookingDto {
+  private Long id;
+  private String carRegNo;
+  private BookingStatusEnum status;
+  private JobTypeEnum jobType;
+  private LocalDate checkinDate;
+  private LocalDate promiseDate;
+  private LocalTime jobStartTime;
+  private LocalTime jobEndTime;
+  private Long serviceAdvisorId;
+  private String serviceAdvisorName;
+  private Long technicianId;
+  private String technicianName;
+}
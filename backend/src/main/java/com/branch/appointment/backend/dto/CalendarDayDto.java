@@ -0,0 +1,16 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarDayDto {
+  private LocalDate date;
+  private List<CalendarBookingDto> bookings;
+}
@@ -0,0 +1,17 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarDto {
+  private LocalDate from;
+  private LocalDate to;
+  private List<CalendarBayDto> bays;
+}
@@ -0,0 +1,20 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything the booking dashboard needs for its first paint ({@code GET /dashboard}).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardDto {
+  private List<BookingDto> bookings;
+  private List<BayDto> bays;
+  private List<TechnicianDto> technicians;
+  private List<ServiceAdvisorDto> serviceAdvisors;
+}
@@ -0,0 +1,17 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DurationEstimateDto {
+  // job type name, bay id or technician id
+  private String key;
+  private long samples;
+  // working minutes on the board, stoppages excluded
+  private long p50Minutes;
+  private long p90Minutes;
+}
@@ -0,0 +1,17 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FreeSlotDto {
+  private LocalDate date;
+  private LocalTime start;
+  private LocalTime end;
+}
@@ -0,0 +1,22 @@
+package com.branch.appointment.backend.dto;
+
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueuePositionDto {
+  private Long bookingId;
+  private Long bayId;
+  private BookingStatusEnum status;
+  // 1 is next in line once the bay frees up
+  private int position;
+  private int queueLength;
+  private LocalDateTime estimatedStart;
+  private LocalDateTime estimatedCompletion;
+}
@@ -11,5 +11,5 @@ public class RegisterUserDto {
     private String name;
     private String email;
     private String password;
-    private int role; // 0 = admin, 1 = technician, 2 = service advisor
+    // no role: accounts start as technicians, and only an admin can grant another one
 }
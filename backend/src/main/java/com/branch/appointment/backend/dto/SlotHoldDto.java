@@ -0,0 +1,22 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotHoldDto {
+  private String id;
+  private Long bayId;
+  private LocalDate checkinDate;
+  private LocalDate promiseDate;
+  private LocalTime jobStartTime;
+  private LocalTime jobEndTime;
+  private LocalDateTime expiresAt;
+}
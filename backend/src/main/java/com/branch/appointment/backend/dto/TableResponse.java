@@ -0,0 +1,18 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Columnar list shape ({@code ?shape=table}): field names are sent once instead of per row.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TableResponse {
+  private List<String> columns;
+  private List<List<Object>> rows;
+}
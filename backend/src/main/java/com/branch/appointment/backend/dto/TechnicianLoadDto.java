@@ -0,0 +1,14 @@
+package com.branch.appointment.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TechnicianLoadDto {
+  private Long technicianId;
+  private int activeJobs;
+  private double remainingHours;
+}
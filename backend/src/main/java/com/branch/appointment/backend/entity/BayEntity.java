@@ -1,18 +1,22 @@
 package com.branch.appointment.backend.entity;
 
 import com.branch.appointment.backend.enums.BayStatusEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@EntityListeners(EntityLoadCountingListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "BAS_Bays")
+@Table(name = "BAS_Bays", uniqueConstraints = @UniqueConstraint(columnNames = {"Branch_Code", "Bay_Number"}))
 public class BayEntity {
 
   @Id
@@ -23,10 +27,15 @@ public class BayEntity {
   @Column(name = "Bay_Name", nullable = false)
   private String bayName;
 
-  @Column(name = "Bay_Number", nullable = false, unique = true)
+  @Column(name = "Bay_Number", nullable = false)
   private String bayNumber;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "Status", nullable = false)
   private BayStatusEnum status;
+
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
 }
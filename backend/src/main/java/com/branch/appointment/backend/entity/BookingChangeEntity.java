@@ -0,0 +1,43 @@
+package com.branch.appointment.backend.entity;
+
+import com.branch.appointment.backend.enums.BookingChangeTypeEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+@Entity
+@EntityListeners(EntityLoadCountingListener.class)
+@Table(name = "BAS_Booking_Changes", indexes = @Index(name = "IDX_Booking_Changes_Booking", columnList = "Booking_Id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingChangeEntity {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "Change_Seq")
+  private Long seq;
+
+  // plain id rather than a relation: tombstones outlive the booking row
+  @Column(name = "Booking_Id", nullable = false)
+  private Long bookingId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "Change_Type", nullable = false)
+  private BookingChangeTypeEnum changeType;
+
+  @Column(name = "Changed_At", nullable = false)
+  private LocalDateTime changedAt;
+
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
+}
@@ -2,6 +2,7 @@ package com.branch.appointment.backend.entity;
 
 import com.branch.appointment.backend.enums.BookingStatusEnum;
 import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,8 +11,11 @@ import lombok.Setter;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@EntityListeners(EntityLoadCountingListener.class)
 @Table(name = "BAS_Bookings")
 @Getter
 @Setter
@@ -40,6 +44,10 @@ public class BookingEntity {
   @JoinColumn(name = "Bay_Id")
   private BayEntity bay;
 
+  @ManyToOne
+  @JoinColumn(name = "Technician_Id")
+  private TechnicianEntity technician;
+
   @Enumerated(EnumType.STRING)
   @Column(name = "Job_Type")
   private JobTypeEnum jobType; // LIGHT, MEDIUM, HEAVY
@@ -53,5 +61,9 @@ public class BookingEntity {
 
   @Column(name = "Job_End_Time")
   private LocalTime jobEndTime;
-}
 
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
+}
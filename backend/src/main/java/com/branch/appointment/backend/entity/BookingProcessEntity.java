@@ -2,6 +2,7 @@ package com.branch.appointment.backend.entity;
 
 import com.branch.appointment.backend.dto.BayDto;
 import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,8 +11,11 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@EntityListeners(EntityLoadCountingListener.class)
 @Table(name = "BAS_Booking_Processes")
 @Getter
 @Setter
@@ -49,5 +53,17 @@ public class BookingProcessEntity {
 
   @Column(name = "Job_End_Time")
   private LocalTime jobEndTime;
-}
 
+  // set by the write-behind audit writer; makes journal replays idempotent
+  @Column(name = "Audit_Key", unique = true, length = 36)
+  private String auditKey;
+
+  // when the audit writer sent the row; the export cursor only moves past rows older than the settle window
+  @Column(name = "Recorded_At")
+  private LocalDateTime recordedAt;
+
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
+}
@@ -0,0 +1,37 @@
+package com.branch.appointment.backend.entity;
+
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+// Shared ETag counter for one collection of one branch; written and polled with plain JDBC by ChangeVersions
+@Entity
+@EntityListeners(EntityLoadCountingListener.class)
+@Table(name = "BAS_Change_Versions", uniqueConstraints = @UniqueConstraint(name = "UK_Change_Versions_Collection",
+    columnNames = {"Branch_Code", "Collection_Name"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeVersionEntity {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "Change_Version_Id")
+  private Long id;
+
+  @Column(name = "Collection_Name", nullable = false, length = 32)
+  private String collectionName;
+
+  @Column(name = "Version", nullable = false)
+  private Long version;
+
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
+}
@@ -0,0 +1,43 @@
+package com.branch.appointment.backend.entity;
+
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Users are not branch-scoped, so neither are their revocations; rows live in the shared database
+@Entity
+@EntityListeners(EntityLoadCountingListener.class)
+@Table(name = "BAS_Revoked_Tokens", indexes = {
+    @Index(name = "IDX_Revoked_Tokens_Token", columnList = "Token_Id"),
+    @Index(name = "IDX_Revoked_Tokens_Subject", columnList = "Subject"),
+    @Index(name = "IDX_Revoked_Tokens_Revoked_At", columnList = "Revoked_At")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedTokenEntity {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "Revocation_Seq")
+  private Long seq;
+
+  // one token (logout); null when the row revokes everything the subject held
+  @Column(name = "Token_Id", length = 36)
+  private String tokenId;
+
+  @Column(name = "Subject")
+  private String subject;
+
+  // whole seconds, like the iat it is compared with
+  @Column(name = "Revoked_At", nullable = false)
+  private Instant revokedAt;
+
+  // after this every token the row covers has expired anyway, so the row can go
+  @Column(name = "Expires_At", nullable = false)
+  private Instant expiresAt;
+}
@@ -1,13 +1,17 @@
 package com.branch.appointment.backend.entity;
 
 import com.branch.appointment.backend.enums.ServiceAdvisorStatusEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@EntityListeners(EntityLoadCountingListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,5 +30,9 @@ public class ServiceAdvisorEntity {
   @Enumerated(EnumType.STRING)
   @Column(name = "SA_Status", nullable = false)
   private ServiceAdvisorStatusEnum status;
-}
 
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
+}
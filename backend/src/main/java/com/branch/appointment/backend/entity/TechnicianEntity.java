@@ -1,13 +1,17 @@
 package com.branch.appointment.backend.entity;
 
 import com.branch.appointment.backend.enums.TechnicianStatusEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@EntityListeners(EntityLoadCountingListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -26,4 +30,9 @@ public class TechnicianEntity {
   @Column(name = "Category_Status")
   @Enumerated(EnumType.STRING)
   private TechnicianStatusEnum status;
+
+  @TenantId
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
 }
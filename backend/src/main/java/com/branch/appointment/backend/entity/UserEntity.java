@@ -1,13 +1,16 @@
 package com.branch.appointment.backend.entity;
 
 import com.branch.appointment.backend.enums.UserRoleEnum;
+import com.branch.appointment.backend.metrics.EntityLoadCountingListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@EntityListeners(EntityLoadCountingListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,5 +35,8 @@ public class UserEntity {
   @Enumerated(EnumType.ORDINAL)  // saves 0,1,2 instead of string
   @Column(name = "Role", nullable = false)
   private UserRoleEnum role;
-}
 
+  @ColumnDefault("'MAIN'")
+  @Column(name = "Branch_Code", nullable = false)
+  private String branchCode;
+}
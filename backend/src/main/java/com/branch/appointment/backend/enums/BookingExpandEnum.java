@@ -0,0 +1,27 @@
+package com.branch.appointment.backend.enums;
+
+// related data a client can embed in each booking with ?expand=
+public enum BookingExpandEnum {
+  HISTORY("history"),
+  SERVICE_ADVISOR("serviceAdvisor"),
+  BAY("bay");
+
+  private final String property;
+
+  BookingExpandEnum(String property) {
+    this.property = property;
+  }
+
+  public String getProperty() {
+    return property;
+  }
+
+  public static BookingExpandEnum fromProperty(String property) {
+    for (BookingExpandEnum expand : BookingExpandEnum.values()) {
+      if (expand.getProperty().equals(property)) {
+        return expand;
+      }
+    }
+    throw new RuntimeException("Unknown booking expansion: " + property);
+  }
+}
@@ -0,0 +1,41 @@
+package com.branch.appointment.backend.enums;
+
+// BookingDto properties a client can pick with ?fields=, and the JPQL path each one is selected from
+public enum BookingFieldEnum {
+  ID("id", "b.id"),
+  CAR_REG_NO("carRegNo", "b.carRegNo"),
+  CHECKIN_DATE("checkinDate", "b.checkinDate"),
+  PROMISE_DATE("promiseDate", "b.promiseDate"),
+  SERVICE_ADVISOR_ID("serviceAdvisorId", "b.serviceAdvisor.id"),
+  BAY_ID("bayId", "b.bay.id"),
+  JOB_TYPE("jobType", "b.jobType"),
+  STATUS("status", "b.status"),
+  JOB_START_TIME("jobStartTime", "b.jobStartTime"),
+  JOB_END_TIME("jobEndTime", "b.jobEndTime"),
+  TECHNICIAN_ID("technicianId", "b.technician.id");
+
+  private final String property;
+  private final String path;
+
+  BookingFieldEnum(String property, String path) {
+    this.property = property;
+    this.path = path;
+  }
+
+  public String getProperty() {
+    return property;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public static BookingFieldEnum fromProperty(String property) {
+    for (BookingFieldEnum field : BookingFieldEnum.values()) {
+      if (field.getProperty().equals(property)) {
+        return field;
+      }
+    }
+    throw new RuntimeException("Unknown booking field: " + property);
+  }
+}
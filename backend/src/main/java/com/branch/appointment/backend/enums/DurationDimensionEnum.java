@@ -0,0 +1,7 @@
+package com.branch.appointment.backend.enums;
+
+public enum DurationDimensionEnum {
+  JOB_TYPE,
+  BAY,
+  TECHNICIAN
+}
@@ -0,0 +1,10 @@
+package com.branch.appointment.backend.enums;
+
+public enum ResourceCollectionEnum {
+  BOOKINGS,
+  BAYS,
+  TECHNICIANS,
+  SERVICE_ADVISORS,
+  // booking process (history) rows; bumped once the audit flusher has inserted them, not when the booking commits
+  PROCESSES
+}
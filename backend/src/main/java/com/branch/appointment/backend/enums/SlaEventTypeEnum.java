@@ -0,0 +1,6 @@
+package com.branch.appointment.backend.enums;
+
+public enum SlaEventTypeEnum {
+  AT_RISK,
+  BREACHED
+}
@@ -0,0 +1,48 @@
+package com.branch.appointment.backend.mapper;
+
+import com.branch.appointment.backend.dto.BayDto;
+import com.branch.appointment.backend.dto.BookingDto;
+import com.branch.appointment.backend.dto.BookingProcessDto;
+import com.branch.appointment.backend.dto.TableResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+public class TableMapper {
+
+  private static final List<String> BOOKING_COLUMNS = List.of(
+      "id", "carRegNo", "checkinDate", "promiseDate", "serviceAdvisorId",
+      "bayId", "jobType", "status", "jobStartTime", "jobEndTime", "technicianId");
+
+  private static final List<String> PROCESS_COLUMNS = List.of(
+      "id", "fromStatus", "toStatus", "fromBayId", "toBayId", "changedAt", "jobStartTime", "jobEndTime");
+
+  public TableResponse toBookingTable(List<BookingDto> bookings) {
+    List<List<Object>> rows = new ArrayList<>(bookings.size());
+    for (BookingDto b : bookings) {
+      rows.add(Arrays.asList(
+          b.getId(), b.getCarRegNo(), b.getCheckinDate(), b.getPromiseDate(), b.getServiceAdvisorId(),
+          b.getBayId(), b.getJobType(), b.getStatus(), b.getJobStartTime(), b.getJobEndTime(),
+          b.getTechnicianId()));
+    }
+    return new TableResponse(BOOKING_COLUMNS, rows);
+  }
+
+  // bays are referenced by id; clients already hold the bay list
+  public TableResponse toHistoryTable(List<BookingProcessDto> history) {
+    List<List<Object>> rows = new ArrayList<>(history.size());
+    for (BookingProcessDto p : history) {
+      rows.add(Arrays.asList(
+          p.getId(), p.getFromStatus(), p.getToStatus(), bayId(p.getFromProcess()), bayId(p.getToProcess()),
+          p.getChangedAt(), p.getJobStartTime(), p.getJobEndTime()));
+    }
+    return new TableResponse(PROCESS_COLUMNS, rows);
+  }
+
+  private Long bayId(BayDto bay) {
+    return bay != null ? bay.getId() : null;
+  }
+}
@@ -0,0 +1,17 @@
+package com.branch.appointment.backend.metrics;
+
+import jakarta.persistence.PostLoad;
+
+/**
+ * JPA entity listener that counts entities hydrated during the current request.
+ */
+public class EntityLoadCountingListener {
+
+  @PostLoad
+  void onLoad(Object entity) {
+    RequestStats stats = RequestStats.current();
+    if (stats != null) {
+      stats.onEntityLoaded();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.branch.appointment.backend.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of Hibernate session statistics at {@code /actuator/hibernate}.
+ * Requires {@code hibernate.generate_statistics}, which follows {@code bas.metrics.enabled}.
+ */
+@Component
+@Endpoint(id = "hibernate")
+@AllArgsConstructor
+public class HibernateStatisticsEndpoint {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  @ReadOperation
+  public Map<String, Object> statistics() {
+    Statistics stats = hibernateStatistics();
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("enabled", stats.isStatisticsEnabled());
+    result.put("sessionsOpened", stats.getSessionOpenCount());
+    result.put("sessionsClosed", stats.getSessionCloseCount());
+    result.put("transactions", stats.getTransactionCount());
+    result.put("flushes", stats.getFlushCount());
+    result.put("preparedStatements", stats.getPrepareStatementCount());
+    result.put("queryExecutions", stats.getQueryExecutionCount());
+    result.put("queryExecutionMaxTimeMs", stats.getQueryExecutionMaxTime());
+    result.put("slowestQuery", stats.getQueryExecutionMaxTimeQueryString());
+    result.put("entitiesLoaded", stats.getEntityLoadCount());
+    result.put("entitiesFetched", stats.getEntityFetchCount());
+    result.put("entitiesInserted", stats.getEntityInsertCount());
+    result.put("entitiesUpdated", stats.getEntityUpdateCount());
+    result.put("entitiesDeleted", stats.getEntityDeleteCount());
+    result.put("collectionsLoaded", stats.getCollectionLoadCount());
+    return result;
+  }
+
+  @DeleteOperation
+  public void reset() {
+    hibernateStatistics().clear();
+  }
+
+  private Statistics hibernateStatistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
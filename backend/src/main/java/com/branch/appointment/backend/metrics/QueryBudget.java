@@ -0,0 +1,16 @@
+package com.branch.appointment.backend.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of JDBC statements a controller method may run per request.
+ * Overridden by {@code bas.query-budget.budgets.<Controller>.<method>}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+  int value();
+}
@@ -0,0 +1,8 @@
+package com.branch.appointment.backend.metrics;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+  public QueryBudgetExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,72 @@
+package com.branch.appointment.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a request's statement count with its budget.
+ * In FAIL mode the statement that overruns throws before it runs, so the request itself fails instead of a
+ * response that is already on its way; in REPORT mode a finished request bumps a counter and logs a sample of the
+ * query shapes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetGuard {
+
+  private final QueryBudgetProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, AtomicLong> violations = new ConcurrentHashMap<>();
+
+  public boolean isEnforcing() {
+    return properties.isEnabled() && properties.getMode() == QueryBudgetProperties.Mode.FAIL;
+  }
+
+  // FAIL mode, from the statement that went over budget
+  void fail(RequestStats stats) {
+    throw new QueryBudgetExceededException(summary(stats) + "\n" + describeShapes(stats));
+  }
+
+  /**
+   * Reports a finished request that went over budget; in FAIL mode it has already failed.
+   */
+  public void check(RequestStats stats) {
+    if (!properties.isEnabled() || properties.getMode() == QueryBudgetProperties.Mode.FAIL
+        || stats.getEndpoint() == null || stats.getStatements() <= stats.getBudget()) {
+      return;
+    }
+
+    String summary = summary(stats);
+
+    Counter.builder("bas.query.budget.exceeded")
+        .description("Requests that ran more JDBC statements than their budget")
+        .tag("endpoint", stats.getEndpoint())
+        .register(meterRegistry)
+        .increment();
+
+    long count = violations.computeIfAbsent(stats.getEndpoint(), e -> new AtomicLong()).incrementAndGet();
+    if ((count - 1) % Math.max(1, properties.getLogSampleRate()) == 0) {
+      log.warn("Query budget exceeded ({} occurrences): {}\n{}", count, summary, describeShapes(stats));
+    }
+  }
+
+  private String summary(RequestStats stats) {
+    return stats.getEndpoint() + " ran " + stats.getStatements() + " statements (budget " + stats.getBudget() + ")";
+  }
+
+  private String describeShapes(RequestStats stats) {
+    return stats.getShapes().entrySet().stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        .limit(properties.getMaxLoggedShapes())
+        .map(e -> "  " + e.getValue() + "x " + e.getKey().replaceAll("\\s+", " ").trim())
+        .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,52 @@
+package com.branch.appointment.backend.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tags the current {@link RequestStats} with the resolved controller method and its statement budget, and in FAIL
+ * mode has it enforced statement by statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+  private final QueryBudgetProperties properties;
+  private final QueryBudgetGuard guard;
+  private final Map<Method, Budget> budgets = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    RequestStats stats = RequestStats.current();
+    if (stats != null && properties.isEnabled() && handler instanceof HandlerMethod handlerMethod) {
+      Budget budget = budgets.computeIfAbsent(handlerMethod.getMethod(), m -> resolve(handlerMethod));
+      stats.setBudget(budget.endpoint(), budget.limit());
+      if (guard.isEnforcing()) {
+        stats.enforceWith(guard);
+      }
+    }
+    return true;
+  }
+
+  private Budget resolve(HandlerMethod handlerMethod) {
+    String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+    Integer configured = properties.getBudgets().get(endpoint);
+    if (configured != null) {
+      return new Budget(endpoint, configured);
+    }
+    QueryBudget annotation = handlerMethod.getMethodAnnotation(QueryBudget.class);
+    return new Budget(endpoint, annotation != null ? annotation.value() : properties.getDefaultBudget());
+  }
+
+  private record Budget(String endpoint, int limit) {
+  }
+}
@@ -0,0 +1,30 @@
+package com.branch.appointment.backend.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bas.query-budget")
+public class QueryBudgetProperties {
+
+  public enum Mode {
+    FAIL,   // throw, so tests go red
+    REPORT  // metric + sampled log
+  }
+
+  private boolean enabled = true;
+  private Mode mode = Mode.REPORT;
+  private int defaultBudget = 30;
+  // keyed by "<Controller>.<method>", e.g. BookingController.getAllBookings
+  private Map<String, Integer> budgets = new HashMap<>();
+  // log one in every N violations per endpoint
+  private int logSampleRate = 20;
+  private int maxLoggedShapes = 10;
+}
@@ -0,0 +1,110 @@
+package com.branch.appointment.backend.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-request counters for JDBC statements and loaded entities.
+ * Bound to the request thread by {@link RequestStatsFilter}; when no request is bound
+ * the Hibernate hooks only pay for a ThreadLocal lookup. Work a request fans out to other threads
+ * can {@link #attach} the same instance, so counters are safe to update concurrently.
+ */
+public final class RequestStats {
+
+  private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+  private static final int MAX_SHAPES = 50;
+
+  private final AtomicInteger statements = new AtomicInteger();
+  private final AtomicInteger entitiesLoaded = new AtomicInteger();
+
+  // set by QueryBudgetInterceptor once the handler is known; shapes are only kept for budgeted requests
+  private volatile String endpoint;
+  private volatile int budget = Integer.MAX_VALUE;
+  private volatile Map<String, Integer> shapes;
+  // set in FAIL mode: the statement that goes over budget fails the request while it is still running
+  private volatile QueryBudgetGuard enforcer;
+
+  private RequestStats() {
+  }
+
+  public static RequestStats begin() {
+    RequestStats stats = new RequestStats();
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  public static RequestStats current() {
+    return CURRENT.get();
+  }
+
+  public static void end() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Binds {@code stats} (possibly null) to the current thread and returns what was bound before, for
+   * {@link #restore}.
+   */
+  public static RequestStats attach(RequestStats stats) {
+    RequestStats previous = CURRENT.get();
+    CURRENT.set(stats);
+    return previous;
+  }
+
+  public static void restore(RequestStats previous) {
+    if (previous != null) {
+      CURRENT.set(previous);
+    } else {
+      CURRENT.remove();
+    }
+  }
+
+  void onStatement(String sql) {
+    int count = statements.incrementAndGet();
+    Map<String, Integer> shapes = this.shapes;
+    if (shapes != null && (shapes.size() < MAX_SHAPES || shapes.containsKey(sql))) {
+      shapes.merge(sql, 1, Integer::sum);
+    }
+    QueryBudgetGuard enforcer = this.enforcer;
+    if (enforcer != null && count > budget) {
+      enforcer.fail(this);
+    }
+  }
+
+  void onEntityLoaded() {
+    entitiesLoaded.incrementAndGet();
+  }
+
+  void setBudget(String endpoint, int budget) {
+    this.endpoint = endpoint;
+    this.budget = budget;
+    this.shapes = new ConcurrentHashMap<>();
+  }
+
+  void enforceWith(QueryBudgetGuard guard) {
+    this.enforcer = guard;
+  }
+
+  public int getStatements() {
+    return statements.get();
+  }
+
+  public int getEntitiesLoaded() {
+    return entitiesLoaded.get();
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  public int getBudget() {
+    return budget;
+  }
+
+  public Map<String, Integer> getShapes() {
+    Map<String, Integer> shapes = this.shapes;
+    return shapes != null ? shapes : Collections.emptyMap();
+  }
+}
@@ -0,0 +1,74 @@
+package com.branch.appointment.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@Component
+public class RequestStatsFilter extends OncePerRequestFilter {
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private QueryBudgetProperties queryBudgetProperties;
+
+  @Autowired
+  private QueryBudgetGuard queryBudgetGuard;
+
+  @Value("${bas.metrics.enabled:true}")
+  private boolean enabled;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    if (!enabled && !queryBudgetProperties.isEnabled()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    RequestStats stats = RequestStats.begin();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestStats.end();
+      if (enabled) {
+        record(request, stats);
+      }
+    }
+    // reporting only; FAIL mode has already failed the request at the statement that went over
+    queryBudgetGuard.check(stats);
+  }
+
+  private void record(HttpServletRequest request, RequestStats stats) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+    DistributionSummary.builder("bas.request.jdbc.statements")
+        .description("JDBC statements prepared per request")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(stats.getStatements());
+
+    DistributionSummary.builder("bas.request.entities.loaded")
+        .description("Entities loaded by Hibernate per request")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(stats.getEntitiesLoaded());
+  }
+}
@@ -0,0 +1,18 @@
+package com.branch.appointment.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares against the current request.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    RequestStats stats = RequestStats.current();
+    if (stats != null) {
+      stats.onStatement(sql);
+    }
+    return sql;
+  }
+}
@@ -0,0 +1,13 @@
+package com.branch.appointment.backend.repository;
+
+import com.branch.appointment.backend.entity.BookingChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingChangeRepository extends JpaRepository<BookingChangeEntity, Long> {
+  List<BookingChangeEntity> findBySeqGreaterThanOrderBySeqAsc(Long since, Pageable pageable);
+}
@@ -2,8 +2,11 @@ package com.branch.appointment.backend.repository;
 
 import com.branch.appointment.backend.entity.BookingProcessEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,5 +16,21 @@ public interface BookingProcessRepository extends JpaRepository<BookingProcessEn
   List<BookingProcessEntity> findByBooking_CarRegNoOrderByChangedAtAsc(String carRegNo);
 
   List<BookingProcessEntity> findAllByOrderByBooking_CarRegNoAscChangedAtAsc();
-}
 
+  @Query("select coalesce(max(p.id), 0) as maxId, count(p) as processCount from BookingProcessEntity p")
+  ProcessWatermark findWatermark();
+
+  @Query("select coalesce(max(p.id), 0) as maxId, count(p) as processCount from BookingProcessEntity p"
+      + " where p.booking.carRegNo = :carRegNo")
+  ProcessWatermark findWatermarkByCarRegNo(@Param("carRegNo") String carRegNo);
+
+  // histories of many bookings in one round trip, grouped by booking; no booking or bay entities are loaded
+  @Query("select p.booking.id as bookingId, p.id as id, p.fromStatus as fromStatus, p.toStatus as toStatus,"
+      + " fb.id as fromBayId, fb.bayName as fromBayName, fb.bayNumber as fromBayNumber, fb.status as fromBayStatus,"
+      + " tb.id as toBayId, tb.bayName as toBayName, tb.bayNumber as toBayNumber, tb.status as toBayStatus,"
+      + " p.changedAt as changedAt, p.jobStartTime as jobStartTime, p.jobEndTime as jobEndTime"
+      + " from BookingProcessEntity p left join p.fromProcess fb left join p.toProcess tb"
+      + " where p.booking.id in :bookingIds"
+      + " order by p.booking.id, p.changedAt, p.id")
+  List<ProcessHistoryRow> findHistoryRows(@Param("bookingIds") Collection<Long> bookingIds);
+}
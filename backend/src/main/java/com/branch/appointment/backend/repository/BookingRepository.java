@@ -1,10 +1,71 @@
 package com.branch.appointment.backend.repository;
 
+import com.branch.appointment.backend.dto.BookingDto;
 import com.branch.appointment.backend.entity.BookingEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
-}
 
+  // native on purpose: spans every branch, which the @TenantId filter on JPQL would not
+  @Query(value = "select distinct b.Branch_Code from BAS_Bookings b", nativeQuery = true)
+  List<String> findBranchCodes();
+
+  // any booking, completed or not: its Technician_Id keeps the technician row from being deleted
+  boolean existsByTechnicianId(Long technicianId);
+
+  @Query("select b.id as id, b.promiseDate as promiseDate, b.branchCode as branchCode from BookingEntity b"
+      + " where b.status <> com.branch.appointment.backend.enums.BookingStatusEnum.REPAIR_COMPLETION"
+      + " and b.promiseDate is not null")
+  List<OpenBookingDeadline> findOpenPromiseDates();
+
+  @Query("select b.id as id, b.bay.id as bayId, b.checkinDate as checkinDate, b.promiseDate as promiseDate,"
+      + " b.jobStartTime as jobStartTime, b.jobEndTime as jobEndTime, b.branchCode as branchCode"
+      + " from BookingEntity b"
+      + " where b.status <> com.branch.appointment.backend.enums.BookingStatusEnum.REPAIR_COMPLETION"
+      + " and b.bay is not null and b.checkinDate is not null"
+      + " and b.jobStartTime is not null and b.jobEndTime is not null")
+  List<OpenJobWindow> findOpenJobWindows();
+
+  @Query("select b.id as id, b.bay.id as bayId, b.status as status, b.jobType as jobType,"
+      + " b.checkinDate as checkinDate, b.promiseDate as promiseDate,"
+      + " b.jobStartTime as jobStartTime, b.jobEndTime as jobEndTime, b.branchCode as branchCode"
+      + " from BookingEntity b"
+      + " where b.status in (com.branch.appointment.backend.enums.BookingStatusEnum.BAY_QUEUE,"
+      + " com.branch.appointment.backend.enums.BookingStatusEnum.NEXT_JOB,"
+      + " com.branch.appointment.backend.enums.BookingStatusEnum.ACTIVE_BOARD,"
+      + " com.branch.appointment.backend.enums.BookingStatusEnum.JOB_STOPPAGE)"
+      + " and b.bay is not null")
+  List<QueuedJob> findQueuedJobs();
+
+  // every bay with the bookings that touch [from, to], names resolved, in one round trip
+  @Query("select bay.id as bayId, bay.bayName as bayName, bay.bayNumber as bayNumber,"
+      + " b.id as bookingId, b.carRegNo as carRegNo, b.status as status, b.jobType as jobType,"
+      + " b.checkinDate as checkinDate, b.promiseDate as promiseDate,"
+      + " b.jobStartTime as jobStartTime, b.jobEndTime as jobEndTime,"
+      + " sa.id as serviceAdvisorId, sa.name as serviceAdvisorName, t.id as technicianId, t.name as technicianName"
+      + " from BayEntity bay"
+      + " left join BookingEntity b on b.bay = bay and b.checkinDate <= :to"
+      + " and coalesce(b.promiseDate, b.checkinDate) >= :from"
+      + " left join b.serviceAdvisor sa left join b.technician t"
+      + " order by bay.bayNumber, bay.id, b.checkinDate, b.jobStartTime, b.id")
+  List<CalendarRow> findCalendarRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query(value = "select b.Booking_Id as id, b.Technician_Id as technicianId, b.Job_Type as jobType,"
+      + " b.Branch_Code as branchCode from BAS_Bookings b"
+      + " where b.Status <> 'REPAIR_COMPLETION' and b.Technician_Id is not null",
+      nativeQuery = true)
+  List<OpenAssignment> findOpenAssignments();
+
+  // straight into DTOs with one IN-list query; findAllById would also load each booking's advisor, bay and technician
+  @Query("select new com.branch.appointment.backend.dto.BookingDto(b.id, b.carRegNo, b.checkinDate, b.promiseDate,"
+      + " b.serviceAdvisor.id, b.bay.id, b.jobType, b.status, b.jobStartTime, b.jobEndTime, b.technician.id)"
+      + " from BookingEntity b where b.id in :ids")
+  List<BookingDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,40 @@
+package com.branch.appointment.backend.repository;
+
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// one row per bay and booking in range; booking columns are null for a bay with nothing booked
+public interface CalendarRow {
+  Long getBayId();
+
+  String getBayName();
+
+  String getBayNumber();
+
+  Long getBookingId();
+
+  String getCarRegNo();
+
+  BookingStatusEnum getStatus();
+
+  JobTypeEnum getJobType();
+
+  LocalDate getCheckinDate();
+
+  LocalDate getPromiseDate();
+
+  LocalTime getJobStartTime();
+
+  LocalTime getJobEndTime();
+
+  Long getServiceAdvisorId();
+
+  String getServiceAdvisorName();
+
+  Long getTechnicianId();
+
+  String getTechnicianName();
+}
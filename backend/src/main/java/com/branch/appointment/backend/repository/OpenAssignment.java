@@ -0,0 +1,11 @@
+package com.branch.appointment.backend.repository;
+
+public interface OpenAssignment {
+  Long getId();
+
+  Long getTechnicianId();
+
+  String getJobType();
+
+  String getBranchCode();
+}
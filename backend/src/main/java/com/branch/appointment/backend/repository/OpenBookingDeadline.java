@@ -0,0 +1,11 @@
+package com.branch.appointment.backend.repository;
+
+import java.time.LocalDate;
+
+public interface OpenBookingDeadline {
+  Long getId();
+
+  LocalDate getPromiseDate();
+
+  String getBranchCode();
+}
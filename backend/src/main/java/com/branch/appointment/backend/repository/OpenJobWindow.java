@@ -0,0 +1,20 @@
+package com.branch.appointment.backend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface OpenJobWindow {
+  Long getId();
+
+  Long getBayId();
+
+  LocalDate getCheckinDate();
+
+  LocalDate getPromiseDate();
+
+  LocalTime getJobStartTime();
+
+  LocalTime getJobEndTime();
+
+  String getBranchCode();
+}
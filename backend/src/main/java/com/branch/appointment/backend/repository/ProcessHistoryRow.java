@@ -0,0 +1,39 @@
+package com.branch.appointment.backend.repository;
+
+import com.branch.appointment.backend.enums.BayStatusEnum;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// one process row with its booking id and both bays resolved; bay columns are null where the row has no bay
+public interface ProcessHistoryRow {
+  Long getBookingId();
+
+  Long getId();
+
+  String getFromStatus();
+
+  String getToStatus();
+
+  Long getFromBayId();
+
+  String getFromBayName();
+
+  String getFromBayNumber();
+
+  BayStatusEnum getFromBayStatus();
+
+  Long getToBayId();
+
+  String getToBayName();
+
+  String getToBayNumber();
+
+  BayStatusEnum getToBayStatus();
+
+  LocalDateTime getChangedAt();
+
+  LocalTime getJobStartTime();
+
+  LocalTime getJobEndTime();
+}
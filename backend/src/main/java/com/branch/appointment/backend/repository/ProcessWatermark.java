@@ -0,0 +1,8 @@
+package com.branch.appointment.backend.repository;
+
+// highest process id and row count in a report's scope; either moves when a process row lands or goes away
+public interface ProcessWatermark {
+  Long getMaxId();
+
+  Long getProcessCount();
+}
@@ -0,0 +1,27 @@
+package com.branch.appointment.backend.repository;
+
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface QueuedJob {
+  Long getId();
+
+  Long getBayId();
+
+  BookingStatusEnum getStatus();
+
+  JobTypeEnum getJobType();
+
+  LocalDate getCheckinDate();
+
+  LocalDate getPromiseDate();
+
+  LocalTime getJobStartTime();
+
+  LocalTime getJobEndTime();
+
+  String getBranchCode();
+}
@@ -0,0 +1,27 @@
+package com.branch.appointment.backend.repository;
+
+import com.branch.appointment.backend.entity.RevokedTokenEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+  List<RevokedTokenEntity> findBySeqGreaterThanOrderBySeqAsc(Long since, Pageable pageable);
+
+  List<RevokedTokenEntity> findByRevokedAtGreaterThanEqual(Instant since);
+
+  boolean existsByTokenId(String tokenId);
+
+  boolean existsBySubjectAndTokenIdIsNullAndRevokedAtGreaterThanEqual(String subject, Instant issuedAt);
+
+  @Modifying
+  @Query("delete from RevokedTokenEntity r where r.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+}
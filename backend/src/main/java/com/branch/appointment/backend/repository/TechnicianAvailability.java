@@ -0,0 +1,9 @@
+package com.branch.appointment.backend.repository;
+
+public interface TechnicianAvailability {
+  Long getId();
+
+  String getStatus();
+
+  String getBranchCode();
+}
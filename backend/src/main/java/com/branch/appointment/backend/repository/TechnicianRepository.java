@@ -2,8 +2,16 @@ package com.branch.appointment.backend.repository;
 
 import com.branch.appointment.backend.entity.TechnicianEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TechnicianRepository extends JpaRepository<TechnicianEntity, Long> {
-}
\ No newline at end of file
+
+  // native on purpose: spans every branch, which the @TenantId filter on JPQL would not
+  @Query(value = "select t.Technician_Id as id, t.Category_Status as status, t.Branch_Code as branchCode"
+      + " from BAS_Technicians t", nativeQuery = true)
+  List<TechnicianAvailability> findAllAvailability();
+}
@@ -1,10 +1,13 @@
 package com.branch.appointment.backend.repository;
 
 import com.branch.appointment.backend.entity.UserEntity;
+import com.branch.appointment.backend.enums.UserRoleEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
   UserEntity findByEmail(String email);
+
+  boolean existsByRole(UserRoleEnum role);
 }
@@ -0,0 +1,69 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.entity.UserEntity;
+import com.branch.appointment.backend.enums.UserRoleEnum;
+import com.branch.appointment.backend.repository.UserRepository;
+import com.branch.appointment.backend.utils.BranchContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the first administrator from {@code bas.auth.bootstrap-admin.*} while no ADMIN exists. Self-registration
+ * only ever creates technicians, so without this nobody could assign a role. An existing account with the configured
+ * email is never promoted: whoever registered it first would otherwise become admin on the next start.
+ */
+@Component
+@Slf4j
+public class AdminBootstrap {
+
+  private final UserRepository userRepository;
+  private final PasswordEncoder passwordEncoder;
+  private final String email;
+  private final String password;
+  private final String name;
+
+  public AdminBootstrap(UserRepository userRepository,
+                        PasswordEncoder passwordEncoder,
+                        @Value("${bas.auth.bootstrap-admin.email:}") String email,
+                        @Value("${bas.auth.bootstrap-admin.password:}") String password,
+                        @Value("${bas.auth.bootstrap-admin.name:Administrator}") String name) {
+    this.userRepository = userRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.email = email;
+    this.password = password;
+    this.name = name;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void seed() {
+    if (email.isBlank()) {
+      return;
+    }
+    // users live in the shared database
+    BranchContext.runAs(BranchContext.DEFAULT_BRANCH, () -> {
+      if (userRepository.existsByRole(UserRoleEnum.ADMIN)) {
+        return;
+      }
+      if (password.isBlank()) {
+        log.warn("No ADMIN exists and bas.auth.bootstrap-admin.password is not set; not creating {}", email);
+        return;
+      }
+      if (userRepository.findByEmail(email) != null) {
+        log.warn("No ADMIN exists, but {} is already registered with another role; not promoting it", email);
+        return;
+      }
+      UserEntity admin = new UserEntity();
+      admin.setName(name);
+      admin.setEmail(email);
+      admin.setPassword(passwordEncoder.encode(password));
+      admin.setRole(UserRoleEnum.ADMIN);
+      admin.setBranchCode(BranchContext.DEFAULT_BRANCH);
+      userRepository.save(admin);
+      log.info("Created bootstrap administrator {}", email);
+    });
+  }
+}
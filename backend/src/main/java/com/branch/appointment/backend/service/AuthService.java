@@ -1,5 +1,6 @@
 package com.branch.appointment.backend.service;
 
+import com.branch.appointment.backend.config.BranchProperties;
 import com.branch.appointment.backend.dto.LoginResponse;
 import com.branch.appointment.backend.dto.LoginUserDto;
 import com.branch.appointment.backend.dto.RegisterResponse;
@@ -7,62 +8,54 @@ import com.branch.appointment.backend.dto.RegisterUserDto;
 import com.branch.appointment.backend.entity.ServiceAdvisorEntity;
 import com.branch.appointment.backend.entity.TechnicianEntity;
 import com.branch.appointment.backend.entity.UserEntity;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
 import com.branch.appointment.backend.enums.ServiceAdvisorStatusEnum;
 import com.branch.appointment.backend.enums.TechnicianStatusEnum;
 import com.branch.appointment.backend.repository.ServiceAdvisorRepository;
 import com.branch.appointment.backend.repository.TechnicianRepository;
 import com.branch.appointment.backend.repository.UserRepository;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.ChangeVersions;
 import com.branch.appointment.backend.utils.TokenGeneration;
 import com.branch.appointment.backend.enums.UserRoleEnum;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
 @AllArgsConstructor
+@Timed("bas.auth.service")
 public class AuthService {
 
   private final UserRepository userRepository;
   private final TechnicianRepository technicianRepository;
   private final ServiceAdvisorRepository serviceAdvisorRepository;
   private final PasswordEncoder passwordEncoder;
+  private final ChangeVersions changeVersions;
+  private final TokenRevocationService tokenRevocationService;
+  private final BranchProperties branchProperties;
   @Autowired
   private TokenGeneration tokenGeneration;
 
   public RegisterResponse registerUser(RegisterUserDto userInfo) {
     log.info("Register request for user: {}", userInfo.getEmail());
 
-    UserEntity existingUser = userRepository.findByEmail(userInfo.getEmail());
+    UserEntity existingUser = onUsers(() -> userRepository.findByEmail(userInfo.getEmail()));
     if (existingUser != null) {
       throw new RuntimeException("User already exists");
     }
 
-    // Create User
-    UserEntity user = new UserEntity();
-    user.setName(userInfo.getName());
-    user.setEmail(userInfo.getEmail());
-    user.setPassword(passwordEncoder.encode(userInfo.getPassword()));
-    user.setRole(UserRoleEnum.fromValue(userInfo.getRole()));
-
-    userRepository.save(user);
-
-    // Extra Logic: Create Technician / Service Advisor entry if role matches
-    if (user.getRole() == UserRoleEnum.TECHNICIAN) {
-      TechnicianEntity technician = new TechnicianEntity();
-      technician.setName(user.getName());
-      technician.setStatus(TechnicianStatusEnum.AVAILABLE);
-      technicianRepository.save(technician);
-    }
-
-    if (user.getRole() == UserRoleEnum.SERVICE_ADVISOR) {
-      ServiceAdvisorEntity advisor = new ServiceAdvisorEntity();
-      advisor.setName(user.getName());
-      advisor.setStatus(ServiceAdvisorStatusEnum.AVAILABLE); // or ACTIVE if you prefer
-      serviceAdvisorRepository.save(advisor);
-    }
+    UserEntity user = newUser(userInfo, passwordEncoder);
+    onUsers(() -> userRepository.save(user));
+    createStaffRecord(user);
 
     return new RegisterResponse(
         user.getUserId(),
@@ -73,10 +66,24 @@ public class AuthService {
     );
   }
 
+  /**
+   * The account a self-registration creates. Role and branch are never taken from the request: it starts with the
+   * least privileged role in the default branch, and an admin changes either with assignRole or assignBranch.
+   */
+  static UserEntity newUser(RegisterUserDto userInfo, PasswordEncoder passwordEncoder) {
+    UserEntity user = new UserEntity();
+    user.setName(userInfo.getName());
+    user.setEmail(userInfo.getEmail());
+    user.setPassword(passwordEncoder.encode(userInfo.getPassword()));
+    user.setRole(UserRoleEnum.TECHNICIAN);
+    user.setBranchCode(BranchContext.DEFAULT_BRANCH);
+    return user;
+  }
+
   public LoginResponse loginUser(LoginUserDto userInfo) {
     log.info("Login attempt for user: {}", userInfo.getEmail());
 
-    UserEntity user = userRepository.findByEmail(userInfo.getEmail());
+    UserEntity user = onUsers(() -> userRepository.findByEmail(userInfo.getEmail()));
     if (user == null || !passwordEncoder.matches(userInfo.getPassword(), user.getPassword())) {
       throw new RuntimeException("Username or Password does not match");
     }
@@ -91,4 +98,87 @@ public class AuthService {
     );
 
   }
+
+  public void logout(String token) {
+    tokenRevocationService.revokeToken(tokenGeneration.parseClaims(token));
+  }
+
+  /**
+   * Moves a user to another branch. Their staff record is created in the new branch, and the tokens they hold are
+   * revoked because they still carry the old branch claim.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  public void assignBranch(Long userId, String branchCode) {
+    if (!branchProperties.isKnown(branchCode)) {
+      throw new RuntimeException("Unknown branch: " + branchCode);
+    }
+    UserEntity user = onUsers(() -> userRepository.findById(userId))
+        .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+    if (branchCode.equals(user.getBranchCode())) {
+      return;
+    }
+    log.info("Moving {} from branch {} to {}", user.getEmail(), user.getBranchCode(), branchCode);
+    user.setBranchCode(branchCode);
+    onUsers(() -> userRepository.save(user));
+    createStaffRecord(user);
+    tokenRevocationService.revokeSubject(user.getEmail());
+  }
+
+  /**
+   * Changes a user's role. A technician or service advisor record is created for the new role in the user's branch;
+   * the old one stays for the bookings that reference it. Outstanding tokens are revoked because they carry the old
+   * role claim.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  public void assignRole(Long userId, UserRoleEnum role) {
+    UserEntity user = onUsers(() -> userRepository.findById(userId))
+        .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+    if (role == user.getRole()) {
+      return;
+    }
+    log.info("Changing role of {} from {} to {}", user.getEmail(), user.getRole(), role);
+    user.setRole(role);
+    onUsers(() -> userRepository.save(user));
+    createStaffRecord(user);
+    tokenRevocationService.revokeSubject(user.getEmail());
+  }
+
+  /**
+   * Invalidates every token the user currently holds; for admins removing or locking out an account.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  public void revokeUserTokens(String email) {
+    String callerEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+    if (onUsers(() -> userRepository.findByEmail(email)) == null) {
+      throw new RuntimeException("User not found with email: " + email);
+    }
+    log.info("Revoking all tokens of {} on behalf of {}", email, callerEmail);
+    tokenRevocationService.revokeSubject(email);
+  }
+
+  // users are not branch-scoped and live in the shared database, whichever branch the caller is in
+  private static <T> T onUsers(Supplier<T> action) {
+    return BranchContext.callAs(BranchContext.DEFAULT_BRANCH, action);
+  }
+
+  // staff rows are branch-scoped, so the inserts run as the user's branch rather than the caller's
+  private void createStaffRecord(UserEntity user) {
+    BranchContext.runAs(user.getBranchCode(), () -> {
+      if (user.getRole() == UserRoleEnum.TECHNICIAN) {
+        TechnicianEntity technician = new TechnicianEntity();
+        technician.setName(user.getName());
+        technician.setStatus(TechnicianStatusEnum.AVAILABLE);
+        technicianRepository.save(technician);
+        changeVersions.bump(ResourceCollectionEnum.TECHNICIANS);
+      }
+
+      if (user.getRole() == UserRoleEnum.SERVICE_ADVISOR) {
+        ServiceAdvisorEntity advisor = new ServiceAdvisorEntity();
+        advisor.setName(user.getName());
+        advisor.setStatus(ServiceAdvisorStatusEnum.AVAILABLE);
+        serviceAdvisorRepository.save(advisor);
+        changeVersions.bump(ResourceCollectionEnum.SERVICE_ADVISORS);
+      }
+    });
+  }
 }
@@ -0,0 +1,373 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.FreeSlotDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.OpenJobWindow;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.BranchScanner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-bay, per-day occupancy bitsets at {@code bas.availability.granularity}. Each day keeps the slot ranges of
+ * whatever occupies it and a bitset rebuilt from them on change, so free windows are found with word-level
+ * {@link BitSet} scans. Owners are booking ids or any other key (e.g. slot holds). State is per instance.
+ */
+@Component
+@Slf4j
+public class BayOccupancyIndex {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private final BookingRepository bookingRepository;
+  private final BranchScanner branchScanner;
+  private final Map<String, BranchOccupancy> branches = new ConcurrentHashMap<>();
+  private volatile boolean rebuilding;
+
+  @Value("${bas.availability.granularity:15m}")
+  private Duration granularity;
+
+  @Value("${bas.availability.opening-time:08:00}")
+  private LocalTime openingTime;
+
+  @Value("${bas.availability.closing-time:18:00}")
+  private LocalTime closingTime;
+
+  public BayOccupancyIndex(BookingRepository bookingRepository, BranchScanner branchScanner) {
+    this.bookingRepository = bookingRepository;
+    this.branchScanner = branchScanner;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    rebuild(() -> branchScanner.collect(bookingRepository::findOpenJobWindows));
+  }
+
+  /**
+   * Bookings placed or released live while the rows were being read keep their live state; a row read before that
+   * change cannot overwrite it.
+   */
+  void rebuild(Supplier<List<OpenJobWindow>> openJobWindows) {
+    rebuilding = true;
+    try {
+      List<OpenJobWindow> open = openJobWindows.get();
+      for (OpenJobWindow row : open) {
+        JobWindow window = JobWindow.of(row.getCheckinDate(), row.getPromiseDate(), row.getJobStartTime(),
+            row.getJobEndTime());
+        if (window != null) {
+          branch(row.getBranchCode()).placeScanned(row.getId(), row.getBayId(), window.start(), window.end());
+        }
+      }
+      log.info("Bay occupancy index rebuilt with {} open jobs", open.size());
+    } finally {
+      rebuilding = false;
+      branches.values().forEach(occupancy -> occupancy.changedDuringRebuild.clear());
+    }
+  }
+
+  /**
+   * Applies a booking's committed bay and job window; completed or unscheduled bookings free the bay.
+   */
+  public void updateBooking(Long bookingId, Long bayId, LocalDate checkinDate, LocalDate promiseDate,
+                            LocalTime jobStartTime, LocalTime jobEndTime, BookingStatusEnum status) {
+    BranchOccupancy occupancy = branch(BranchContext.current());
+    JobWindow window = status == BookingStatusEnum.REPAIR_COMPLETION || bayId == null
+        ? null
+        : JobWindow.of(checkinDate, promiseDate, jobStartTime, jobEndTime);
+    AfterCommit.run(() -> {
+      if (window == null) {
+        occupancy.release(bookingId);
+      } else {
+        occupancy.place(bookingId, bayId, window.start(), window.end());
+      }
+    });
+  }
+
+  public void removeBooking(Long bookingId) {
+    BranchOccupancy occupancy = branch(BranchContext.current());
+    AfterCommit.run(() -> occupancy.release(bookingId));
+  }
+
+  /**
+   * Occupies the window only if nothing else (other than {@code owner} itself) occupies any part of it.
+   */
+  public boolean tryPlace(Object owner, Long bayId, LocalDateTime start, LocalDateTime end) {
+    return branch(BranchContext.current()).tryPlace(owner, bayId, start, end);
+  }
+
+  public boolean isFree(Object owner, Long bayId, LocalDateTime start, LocalDateTime end) {
+    return occupants(owner, bayId, start, end).isEmpty();
+  }
+
+  /**
+   * Everything other than {@code owner} that occupies part of the window.
+   */
+  public List<Object> occupants(Object owner, Long bayId, LocalDateTime start, LocalDateTime end) {
+    return branch(BranchContext.current()).calendar(bayId).occupants(owner, ranges(start, end));
+  }
+
+  public void release(Object owner) {
+    branch(BranchContext.current()).release(owner);
+  }
+
+  /**
+   * Free windows of at least {@code duration} within opening hours, earliest first, for {@code days} days from
+   * {@code from}. Windows never start in the past and do not run past closing time.
+   */
+  public List<FreeSlotDto> freeWindows(Long bayId, LocalDate from, int days, Duration duration, int limit) {
+    int slotMinutes = slotMinutes();
+    int needed = (int) ((duration.toMinutes() + slotMinutes - 1) / slotMinutes);
+    int open = openingTime.toSecondOfDay() / 60 / slotMinutes;
+    int close = closingTime.toSecondOfDay() / 60 / slotMinutes;
+    LocalDateTime now = LocalDateTime.now();
+    BayCalendar calendar = branch(BranchContext.current()).calendar(bayId);
+    List<FreeSlotDto> slots = new ArrayList<>();
+    for (int d = 0; d < days && slots.size() < limit; d++) {
+      LocalDate date = from.plusDays(d);
+      if (date.isBefore(now.toLocalDate())) {
+        continue;
+      }
+      int first = open;
+      if (date.equals(now.toLocalDate())) {
+        first = Math.max(open, (now.toLocalTime().toSecondOfDay() / 60 + slotMinutes - 1) / slotMinutes);
+      }
+      BitSet occupied = calendar.snapshot(date.toEpochDay());
+      int cursor = first;
+      while (cursor < close && slots.size() < limit) {
+        int start = occupied.nextClearBit(cursor);
+        if (start >= close) {
+          break;
+        }
+        int next = occupied.nextSetBit(start);
+        int end = next < 0 || next > close ? close : next;
+        if (end - start >= needed) {
+          slots.add(new FreeSlotDto(date, slotTime(start), slotTime(end)));
+        }
+        cursor = end;
+      }
+    }
+    return slots;
+  }
+
+  // [start, end) split into per-day slot ranges
+  private List<DayRange> ranges(LocalDateTime start, LocalDateTime end) {
+    int slotMinutes = slotMinutes();
+    int slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+    List<DayRange> ranges = new ArrayList<>();
+    for (LocalDate day = start.toLocalDate(); !day.isAfter(end.toLocalDate()); day = day.plusDays(1)) {
+      int from = day.equals(start.toLocalDate()) ? start.toLocalTime().toSecondOfDay() / 60 / slotMinutes : 0;
+      int to = day.equals(end.toLocalDate())
+          ? (end.toLocalTime().toSecondOfDay() / 60 + slotMinutes - 1) / slotMinutes
+          : slotsPerDay;
+      if (to > from) {
+        ranges.add(new DayRange(day.toEpochDay(), from, to));
+      }
+    }
+    return ranges;
+  }
+
+  private int slotMinutes() {
+    return (int) granularity.toMinutes();
+  }
+
+  private LocalTime slotTime(int slot) {
+    int minutes = slot * slotMinutes();
+    return minutes >= MINUTES_PER_DAY ? LocalTime.MAX : LocalTime.of(minutes / 60, minutes % 60);
+  }
+
+  private BranchOccupancy branch(String branch) {
+    return branches.computeIfAbsent(branch, b -> new BranchOccupancy());
+  }
+
+  /**
+   * A job runs from {@code jobStartTime} on the check-in date to {@code jobEndTime} on the promise date, or on the
+   * same day when there is none.
+   */
+  public record JobWindow(LocalDateTime start, LocalDateTime end) {
+
+    // null when the booking is not scheduled
+    public static JobWindow of(LocalDate checkinDate, LocalDate promiseDate, LocalTime jobStartTime,
+                               LocalTime jobEndTime) {
+      if (checkinDate == null || jobStartTime == null || jobEndTime == null) {
+        return null;
+      }
+      LocalDate endDate = promiseDate != null && promiseDate.isAfter(checkinDate) ? promiseDate : checkinDate;
+      LocalDateTime start = checkinDate.atTime(jobStartTime);
+      LocalDateTime end = endDate.atTime(jobEndTime);
+      return end.isAfter(start) ? new JobWindow(start, end) : null;
+    }
+  }
+
+  private record DayRange(long epochDay, int from, int to) {
+  }
+
+  private record Placement(Long bayId, List<DayRange> ranges) {
+  }
+
+  // an owner's placement changes inside compute on its own key, and the calendars it touches are locked while it
+  // does, so a check on a bay never sees an owner half-moved; unrelated bays and owners proceed in parallel
+  private final class BranchOccupancy {
+    private final Map<Long, BayCalendar> bays = new ConcurrentHashMap<>();
+    private final Map<Object, Placement> placements = new ConcurrentHashMap<>();
+    // owners changed live while a rebuild is reading; marked in the same compute as the change itself
+    private final Set<Object> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    BayCalendar calendar(Long bayId) {
+      return bays.computeIfAbsent(bayId, id -> new BayCalendar());
+    }
+
+    void place(Object owner, Long bayId, LocalDateTime start, LocalDateTime end) {
+      List<DayRange> ranges = ranges(start, end);
+      placements.compute(owner, (o, previous) -> {
+        changed(o);
+        move(o, previous, bayId, ranges, false);
+        return new Placement(bayId, ranges);
+      });
+    }
+
+    void placeScanned(Object owner, Long bayId, LocalDateTime start, LocalDateTime end) {
+      List<DayRange> ranges = ranges(start, end);
+      placements.compute(owner, (o, previous) -> {
+        if (changedDuringRebuild.contains(o)) {
+          return previous;
+        }
+        move(o, previous, bayId, ranges, false);
+        return new Placement(bayId, ranges);
+      });
+    }
+
+    boolean tryPlace(Object owner, Long bayId, LocalDateTime start, LocalDateTime end) {
+      List<DayRange> ranges = ranges(start, end);
+      boolean[] placed = {false};
+      placements.compute(owner, (o, previous) -> {
+        placed[0] = move(o, previous, bayId, ranges, true);
+        if (placed[0]) {
+          changed(o);
+        }
+        return placed[0] ? new Placement(bayId, ranges) : previous;
+      });
+      return placed[0];
+    }
+
+    void release(Object owner) {
+      placements.compute(owner, (o, previous) -> {
+        changed(o);
+        if (previous != null) {
+          calendar(previous.bayId()).remove(o, previous.ranges());
+        }
+        return null;
+      });
+    }
+
+    private void changed(Object owner) {
+      if (rebuilding) {
+        changedDuringRebuild.add(owner);
+      }
+    }
+
+    private boolean move(Object owner, Placement previous, Long bayId, List<DayRange> ranges, boolean onlyIfFree) {
+      BayCalendar target = calendar(bayId);
+      BayCalendar source = previous != null ? calendar(previous.bayId()) : target;
+      // both bays in id order, so two owners moving in opposite directions cannot deadlock
+      boolean sourceFirst = previous == null || previous.bayId() <= bayId;
+      BayCalendar first = sourceFirst ? source : target;
+      BayCalendar second = sourceFirst ? target : source;
+      synchronized (first) {
+        synchronized (second) {
+          // the owner's own ranges don't count, so its previous window can still be in place here
+          if (onlyIfFree && !target.occupants(owner, ranges).isEmpty()) {
+            return false;
+          }
+          if (previous != null) {
+            source.remove(owner, previous.ranges());
+          }
+          target.add(owner, ranges);
+          return true;
+        }
+      }
+    }
+  }
+
+  // guarded by its own monitor
+  private static final class BayCalendar {
+    private final Map<Long, Day> days = new HashMap<>();
+
+    synchronized void add(Object owner, List<DayRange> ranges) {
+      for (DayRange range : ranges) {
+        Day day = days.computeIfAbsent(range.epochDay(), d -> new Day());
+        day.ranges.put(owner, range);
+        day.occupied.set(range.from(), range.to());
+      }
+    }
+
+    synchronized void remove(Object owner, List<DayRange> ranges) {
+      for (DayRange range : ranges) {
+        Day day = days.get(range.epochDay());
+        if (day != null && day.ranges.remove(owner) != null) {
+          if (day.ranges.isEmpty()) {
+            days.remove(range.epochDay());
+          } else {
+            day.recompute();
+          }
+        }
+      }
+    }
+
+    synchronized List<Object> occupants(Object owner, List<DayRange> ranges) {
+      List<Object> occupants = new ArrayList<>(0);
+      for (DayRange range : ranges) {
+        Day day = days.get(range.epochDay());
+        if (day == null) {
+          continue;
+        }
+        int hit = day.occupied.nextSetBit(range.from());
+        if (hit < 0 || hit >= range.to()) {
+          continue;
+        }
+        // something overlaps; the owner's own ranges don't count
+        for (Map.Entry<Object, DayRange> e : day.ranges.entrySet()) {
+          if (!e.getKey().equals(owner) && e.getValue().from() < range.to() && range.from() < e.getValue().to()
+              && !occupants.contains(e.getKey())) {
+            occupants.add(e.getKey());
+          }
+        }
+      }
+      return occupants;
+    }
+
+    synchronized BitSet snapshot(long epochDay) {
+      Day day = days.get(epochDay);
+      return day != null ? (BitSet) day.occupied.clone() : new BitSet();
+    }
+  }
+
+  private static final class Day {
+    private final BitSet occupied = new BitSet();
+    private final Map<Object, DayRange> ranges = new HashMap<>(4);
+
+    void recompute() {
+      occupied.clear();
+      for (DayRange range : ranges.values()) {
+        occupied.set(range.from(), range.to());
+      }
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.AssignmentProperties;
+import com.branch.appointment.backend.dto.QueuePositionDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.QueuedJob;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.BranchScanner;
+import com.branch.appointment.backend.utils.OrderStatisticTree;
+import com.branch.appointment.backend.utils.WorkingHours;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-bay waiting lines ({@code NEXT_JOB} first, then {@code BAY_QUEUE} by check-in date) kept in order-statistic
+ * trees weighted by estimated job minutes, so a booking's position and the work ahead of it are O(log n). Estimates
+ * start when the bay's running jobs end and count only opening hours. State is per instance, rebuilt on startup.
+ */
+@Component
+@Slf4j
+public class BayQueueIndex {
+
+  private static final Comparator<QueueKey> QUEUE_ORDER = Comparator
+      .comparingInt(QueueKey::stage)
+      .thenComparing(QueueKey::checkinDate, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparingLong(QueueKey::bookingId);
+
+  private final BookingRepository bookingRepository;
+  private final BranchScanner branchScanner;
+  private final AssignmentProperties assignmentProperties;
+  private final WorkingHours workingHours;
+  private final JobDurationModel jobDurationModel;
+  private final Map<String, BranchQueues> branches = new ConcurrentHashMap<>();
+  private volatile boolean rebuilding;
+
+  public BayQueueIndex(BookingRepository bookingRepository, BranchScanner branchScanner,
+                       AssignmentProperties assignmentProperties, WorkingHours workingHours,
+                       JobDurationModel jobDurationModel) {
+    this.bookingRepository = bookingRepository;
+    this.branchScanner = branchScanner;
+    this.assignmentProperties = assignmentProperties;
+    this.workingHours = workingHours;
+    this.jobDurationModel = jobDurationModel;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    rebuild(() -> branchScanner.collect(bookingRepository::findQueuedJobs));
+  }
+
+  /**
+   * Bookings updated or removed live while the rows were being read keep their live state; a row read before that
+   * change cannot overwrite it.
+   */
+  void rebuild(Supplier<List<QueuedJob>> queuedJobs) {
+    rebuilding = true;
+    try {
+      List<QueuedJob> jobs = queuedJobs.get();
+      for (QueuedJob job : jobs) {
+        BranchQueues queues = queues(job.getBranchCode());
+        // estimates use the branch's own measured durations
+        Entry entry = BranchContext.callAs(job.getBranchCode(), () -> entry(job.getId(), job.getBayId(),
+            job.getStatus(), job.getJobType(), job.getCheckinDate(), job.getPromiseDate(), job.getJobStartTime(),
+            job.getJobEndTime()));
+        synchronized (queues) {
+          if (!queues.changedDuringRebuild.contains(job.getId())) {
+            queues.apply(job.getId(), entry);
+          }
+        }
+      }
+      log.info("Bay queue index rebuilt with {} queued or running jobs", jobs.size());
+    } finally {
+      rebuilding = false;
+      for (BranchQueues queues : branches.values()) {
+        synchronized (queues) {
+          queues.changedDuringRebuild.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies a booking's committed bay and status; anything not waiting for or running on a bay drops out.
+   */
+  public void update(Long bookingId, Long bayId, BookingStatusEnum status, JobTypeEnum jobType,
+                     LocalDate checkinDate, LocalDate promiseDate, LocalTime jobStartTime, LocalTime jobEndTime) {
+    BranchQueues queues = queues(BranchContext.current());
+    Entry next = entry(bookingId, bayId, status, jobType, checkinDate, promiseDate, jobStartTime, jobEndTime);
+    AfterCommit.run(() -> {
+      synchronized (queues) {
+        applyLive(queues, bookingId, next);
+      }
+    });
+  }
+
+  public void remove(Long bookingId) {
+    BranchQueues queues = queues(BranchContext.current());
+    AfterCommit.run(() -> {
+      synchronized (queues) {
+        applyLive(queues, bookingId, null);
+      }
+    });
+  }
+
+  // caller holds the queues' monitor
+  private void applyLive(BranchQueues queues, Long bookingId, Entry next) {
+    if (rebuilding) {
+      queues.changedDuringRebuild.add(bookingId);
+    }
+    queues.apply(bookingId, next);
+  }
+
+  /**
+   * Position and estimated start/completion of a booking waiting in a bay queue; empty if it is not waiting.
+   */
+  public Optional<QueuePositionDto> position(Long bookingId) {
+    return position(bookingId, LocalDateTime.now());
+  }
+
+  Optional<QueuePositionDto> position(Long bookingId, LocalDateTime now) {
+    BranchQueues queues = queues(BranchContext.current());
+    synchronized (queues) {
+      Entry entry = queues.entries.get(bookingId);
+      if (entry == null || entry.queued() == null) {
+        return Optional.empty();
+      }
+      OrderStatisticTree<QueueKey> line = queues.lines.get(entry.bayId());
+      LocalDateTime bayFree = now;
+      for (Running running : queues.running.getOrDefault(entry.bayId(), Map.of()).values()) {
+        LocalDateTime end = running.end() != null ? running.end() : workingHours.plus(now, running.minutes());
+        if (end.isAfter(bayFree)) {
+          bayFree = end;
+        }
+      }
+      LocalDateTime start = workingHours.plus(bayFree, line.weightBefore(entry.queued()));
+      LocalDate checkinDate = entry.queued().checkinDate();
+      if (checkinDate != null && start.isBefore(checkinDate.atTime(workingHours.openingTime()))) {
+        start = checkinDate.atTime(workingHours.openingTime());
+      }
+      return Optional.of(new QueuePositionDto(bookingId, entry.bayId(), entry.status(),
+          line.rank(entry.queued()) + 1, line.size(), start, workingHours.plus(start, entry.minutes())));
+    }
+  }
+
+  private Entry entry(Long bookingId, Long bayId, BookingStatusEnum status, JobTypeEnum jobType,
+                      LocalDate checkinDate, LocalDate promiseDate, LocalTime jobStartTime, LocalTime jobEndTime) {
+    if (bayId == null || status == null) {
+      return null;
+    }
+    long minutes = jobStartTime != null && jobEndTime != null && jobEndTime.isAfter(jobStartTime)
+        ? Duration.between(jobStartTime, jobEndTime).toMinutes()
+        : estimatedMinutes(jobType);
+    return switch (status) {
+      case NEXT_JOB -> new Entry(bayId, status, minutes, new QueueKey(0, checkinDate, bookingId), null);
+      case BAY_QUEUE -> new Entry(bayId, status, minutes, new QueueKey(1, checkinDate, bookingId), null);
+      case ACTIVE_BOARD, JOB_STOPPAGE -> {
+        BayOccupancyIndex.JobWindow window =
+            BayOccupancyIndex.JobWindow.of(checkinDate, promiseDate, jobStartTime, jobEndTime);
+        yield new Entry(bayId, status, minutes, null, new Running(window != null ? window.end() : null, minutes));
+      }
+      default -> null;
+    };
+  }
+
+  // measured median once there is enough history, the configured hours until then
+  private long estimatedMinutes(JobTypeEnum jobType) {
+    return jobDurationModel.medianMinutes(jobType).orElseGet(() -> {
+      double hours = jobType != null ? assignmentProperties.getEstimatedHours().getOrDefault(jobType, 0.0) : 0.0;
+      return Math.round(hours * 60);
+    });
+  }
+
+  private BranchQueues queues(String branch) {
+    return branches.computeIfAbsent(branch, b -> new BranchQueues());
+  }
+
+  private record QueueKey(int stage, LocalDate checkinDate, long bookingId) {
+  }
+
+  // running jobs with no scheduled end are assumed to need their full estimate from now
+  private record Running(LocalDateTime end, long minutes) {
+  }
+
+  // exactly one of queued / running is set
+  private record Entry(Long bayId, BookingStatusEnum status, long minutes, QueueKey queued, Running running) {
+  }
+
+  // guarded by its own monitor
+  private static final class BranchQueues {
+    private final Map<Long, OrderStatisticTree<QueueKey>> lines = new HashMap<>();
+    private final Map<Long, Map<Long, Running>> running = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // bookings changed live while a rebuild is reading; their live state is newer than its rows
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    void apply(Long bookingId, Entry next) {
+      Entry previous = next != null ? entries.put(bookingId, next) : entries.remove(bookingId);
+      if (previous != null) {
+        if (previous.queued() != null) {
+          lines.get(previous.bayId()).remove(previous.queued());
+        } else {
+          running.get(previous.bayId()).remove(bookingId);
+        }
+      }
+      if (next != null) {
+        if (next.queued() != null) {
+          lines.computeIfAbsent(next.bayId(), b -> new OrderStatisticTree<>(QUEUE_ORDER))
+              .put(next.queued(), next.minutes());
+        } else {
+          running.computeIfAbsent(next.bayId(), b -> new HashMap<>()).put(bookingId, next.running());
+        }
+      }
+    }
+  }
+}
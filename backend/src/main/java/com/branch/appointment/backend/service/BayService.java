@@ -1,23 +1,43 @@
 package com.branch.appointment.backend.service;
 
+import com.branch.appointment.backend.config.AssignmentProperties;
+import com.branch.appointment.backend.dto.BayAvailabilityDto;
 import com.branch.appointment.backend.dto.BayDto;
+import com.branch.appointment.backend.dto.FreeSlotDto;
 import com.branch.appointment.backend.entity.BayEntity;
+import com.branch.appointment.backend.enums.BayStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
 import com.branch.appointment.backend.mapper.BayMapper;
 import com.branch.appointment.backend.repository.BayRepository;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
 @AllArgsConstructor
+@Timed("bas.bay.service")
 public class BayService {
 
   private final BayRepository bayRepository;
   private final BayMapper bayMapper;
+  private final ChangeVersions changeVersions;
+  private final BayOccupancyIndex bayOccupancyIndex;
+  private final AssignmentProperties assignmentProperties;
 
+  private static final int MAX_HORIZON_DAYS = 62;
+
+  @Transactional(readOnly = true)
   public List<BayDto> getBays() {
     return bayRepository.findAll()
         .stream()
@@ -28,9 +48,44 @@ public class BayService {
   public BayDto createBay(BayDto bayDto) {
     BayEntity bay = bayMapper.toEntity(bayDto);
     BayEntity savedBay = bayRepository.save(bay);
+    changeVersions.bump(ResourceCollectionEnum.BAYS);
     return bayMapper.toDto(savedBay);
   }
 
+  /**
+   * Free windows on every active bay from {@code date}, for an explicit duration or the job type's estimate.
+   * Bays with the earliest opening come first.
+   */
+  @Transactional(readOnly = true)
+  public List<BayAvailabilityDto> getAvailability(LocalDate date, Integer durationMinutes, JobTypeEnum jobType,
+                                                  int days, int limit) {
+    Duration duration;
+    if (durationMinutes != null) {
+      duration = Duration.ofMinutes(durationMinutes);
+    } else if (jobType != null) {
+      duration = Duration.ofMinutes(Math.round(assignmentProperties.getEstimatedHours().getOrDefault(jobType, 1.0) * 60));
+    } else {
+      throw new RuntimeException("Either duration or jobType is required");
+    }
+    int horizon = Math.max(1, Math.min(days, MAX_HORIZON_DAYS));
+    return bayRepository.findAll()
+        .stream()
+        .filter(bay -> bay.getStatus() == BayStatusEnum.ACTIVE)
+        .map(bay -> new BayAvailabilityDto(bay.getId(), bay.getBayName(), bay.getBayNumber(),
+            bayOccupancyIndex.freeWindows(bay.getId(), date, horizon, duration, limit)))
+        .sorted(Comparator.comparing(BayService::firstFreeAt, Comparator.nullsLast(Comparator.naturalOrder())))
+        .toList();
+  }
+
+  private static LocalDateTime firstFreeAt(BayAvailabilityDto availability) {
+    if (availability.getSlots().isEmpty()) {
+      return null;
+    }
+    FreeSlotDto first = availability.getSlots().get(0);
+    return first.getDate().atTime(first.getStart());
+  }
+
+  @Transactional(readOnly = true)
   public BayDto getBayById(Long id) {
     BayEntity bay = bayRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Bay not found with id: " + id));
@@ -45,6 +100,7 @@ public class BayService {
     existingBay.setStatus(bayDto.getStatus());
 
     BayEntity updatedBay = bayRepository.save(existingBay);
+    changeVersions.bump(ResourceCollectionEnum.BAYS);
     return bayMapper.toDto(updatedBay);
   }
 
@@ -53,6 +109,7 @@ public class BayService {
       throw new RuntimeException("Bay not found with id: " + id);
     }
     bayRepository.deleteById(id);
+    changeVersions.bump(ResourceCollectionEnum.BAYS);
   }
 }
 
@@ -1,42 +1,90 @@
 package com.branch.appointment.backend.service;
 
 import com.branch.appointment.backend.dto.BayDto;
+import com.branch.appointment.backend.dto.BookingChangeDto;
+import com.branch.appointment.backend.dto.BookingChangesResponse;
 import com.branch.appointment.backend.dto.BookingDto;
 import com.branch.appointment.backend.dto.BookingProcessDto;
+import com.branch.appointment.backend.dto.DurationEstimateDto;
+import com.branch.appointment.backend.dto.QueuePositionDto;
 import com.branch.appointment.backend.entity.BayEntity;
+import com.branch.appointment.backend.entity.BookingChangeEntity;
 import com.branch.appointment.backend.entity.BookingEntity;
 import com.branch.appointment.backend.entity.BookingProcessEntity;
 import com.branch.appointment.backend.entity.ServiceAdvisorEntity;
+import com.branch.appointment.backend.entity.TechnicianEntity;
+import com.branch.appointment.backend.enums.BookingChangeTypeEnum;
 import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.DurationDimensionEnum;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
 import com.branch.appointment.backend.repository.BayRepository;
+import com.branch.appointment.backend.repository.BookingChangeRepository;
 import com.branch.appointment.backend.repository.BookingProcessRepository;
 import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.ProcessWatermark;
 import com.branch.appointment.backend.repository.ServiceAdvisorRepository;
-
+import com.branch.appointment.backend.repository.TechnicianRepository;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 @Slf4j
+@Timed("bas.booking.service")
 public class BookingService {
 
   private final BookingRepository bookingRepository;
   private final BookingProcessRepository processRepository;
   private final ServiceAdvisorRepository serviceAdvisorRepository;
   private final BayRepository bayRepository;
+  private final MeterRegistry meterRegistry;
+  private final ChangeVersions changeVersions;
+  private final BookingChangeRepository bookingChangeRepository;
+  private final PromiseDateMonitor promiseDateMonitor;
+  private final TechnicianRepository technicianRepository;
+  private final TechnicianLoadTracker technicianLoadTracker;
+  private final BayOccupancyIndex bayOccupancyIndex;
+  private final ProcessAuditWriter processAuditWriter;
+  private final ProcessReportCache processReportCache;
+  private final BayQueueIndex bayQueueIndex;
+  private final JobDurationModel jobDurationModel;
+  private final BookingViewService bookingViewService;
+
+  private static final int MAX_CHANGES_PAGE = 1000;
+  // longest a booking write may stay uncommitted (plus clock skew between nodes); see settledCursor
+  static final Duration CHANGE_SETTLE_WINDOW = Duration.ofSeconds(30);
+  public static final int MAX_BATCH_IDS = 500;
 
+  @Transactional(readOnly = true)
   public List<BookingDto> getBookings() {
     return bookingRepository.findAll().stream()
         .map(this::mapToDto)
@@ -50,14 +98,52 @@ public class BookingService {
     return mapToDto(booking);
   }
 
+  /**
+   * The bookings among {@code ids} in the order first asked for, duplicates merged; unknown ids are left out.
+   */
+  @Transactional(readOnly = true)
+  public List<BookingDto> getBookingsByIds(List<Long> ids) {
+    Set<Long> distinct = distinctIds(ids);
+    if (distinct.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, BookingDto> found = bookingRepository.findDtosByIdIn(distinct).stream()
+        .collect(Collectors.toMap(BookingDto::getId, Function.identity()));
+    return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Histories of {@code ids} keyed by booking id in the order first asked for; empty for bookings with none.
+   */
+  @Transactional(readOnly = true)
+  public Map<Long, List<BookingProcessDto>> getHistories(List<Long> ids) {
+    Set<Long> distinct = distinctIds(ids);
+    Map<Long, List<BookingProcessDto>> found = bookingViewService.getHistories(distinct);
+    Map<Long, List<BookingProcessDto>> histories = new LinkedHashMap<>();
+    for (Long id : distinct) {
+      histories.put(id, found.getOrDefault(id, List.of()));
+    }
+    return histories;
+  }
 
+  @Transactional
   public BookingDto createBooking(BookingDto dto) {
+    return createBooking(dto, null);
+  }
+
+  /**
+   * Creates the booking on behalf of a slot hold; {@code ownHold} is not treated as a conflict.
+   */
+  @Transactional
+  public BookingDto createBooking(BookingDto dto, SlotHoldService.HoldKey ownHold) {
     BookingEntity booking = new BookingEntity();
     booking.setCarRegNo(dto.getCarRegNo());
     booking.setCheckinDate(dto.getCheckinDate());
     booking.setPromiseDate(dto.getPromiseDate());
     booking.setJobType(dto.getJobType());
     booking.setStatus(BookingStatusEnum.QUEUING);
+    booking.setJobStartTime(dto.getJobStartTime());
+    booking.setJobEndTime(dto.getJobEndTime());
 
     // ✅ Fetch ServiceAdvisorEntity from DB
     ServiceAdvisorEntity advisor = serviceAdvisorRepository.findById(dto.getServiceAdvisorId())
@@ -69,12 +155,19 @@ public class BookingService {
         .orElseThrow(() -> new RuntimeException("Bay not found with id: " + dto.getBayId()));
     booking.setBay(bay);
 
+    if (dto.getTechnicianId() != null) {
+      booking.setTechnician(findTechnician(dto.getTechnicianId()));
+    }
+    checkNotHeld(booking, ownHold);
+
     BookingEntity saved = bookingRepository.save(booking);
+    recordUpsert(saved);
     return mapToDto(saved);
   }
 
   @Transactional
   public BookingDto updateBooking(Long id, BookingDto dto) {
+    Timer.Sample transitionSample = Timer.start(meterRegistry);
     BookingEntity booking = bookingRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Booking not found"));
 
@@ -89,6 +182,9 @@ public class BookingService {
 
     booking.setJobType(dto.getJobType());
 
+    if (dto.getTechnicianId() != null && !dto.getTechnicianId().equals(technicianId(booking))) {
+      booking.setTechnician(findTechnician(dto.getTechnicianId()));
+    }
 
 
     BookingStatusEnum oldStatus = booking.getStatus();
@@ -101,9 +197,6 @@ public class BookingService {
 
     // Update bay if provided
     if (dto.getBayId() != null && !dto.getBayId().equals(oldBayId)) {
-      BayEntity oldBay = oldBayId != null
-          ? bayRepository.findById(oldBayId).orElse(null)
-          : null;
       BayEntity newBay = bayRepository.findById(dto.getBayId())
           .orElseThrow(() -> new RuntimeException("Bay not found with id: " + dto.getBayId()));
       booking.setBay(newBay);
@@ -114,16 +207,9 @@ public class BookingService {
           throw new RuntimeException("Start and End times must be provided when moving an active booking to a new bay");
         }
 
-        // Save booking process log
-        BookingProcessEntity process = new BookingProcessEntity();
-        process.setBooking(booking);
-        process.setFromStatus(oldStatus.toString());
-        process.setToStatus(oldStatus.toString());
-        process.setFromProcess(oldBay);
-        process.setToProcess(newBay);
-        process.setJobStartTime(dto.getJobStartTime());
-        process.setJobEndTime(dto.getJobEndTime());
-        processRepository.save(process);
+        // Booking process log, written behind after commit
+        processAuditWriter.record(booking.getId(), oldStatus.toString(), oldStatus.toString(), oldBayId,
+            newBay.getId(), dto.getJobStartTime(), dto.getJobEndTime());
       }
     }
 
@@ -137,25 +223,130 @@ public class BookingService {
         }
       }
 
-        // Save booking process log
-        BookingProcessEntity process = new BookingProcessEntity();
-        process.setBooking(booking);
-        process.setFromStatus(oldStatus.toString());
-        process.setToStatus(dto.getStatus().toString());
-        process.setJobStartTime(dto.getJobStartTime());
-        process.setJobEndTime(dto.getJobEndTime());
-        processRepository.save(process);
+        // Booking process log, written behind after commit
+        processAuditWriter.record(booking.getId(), oldStatus.toString(), dto.getStatus().toString(), null, null,
+            dto.getJobStartTime(), dto.getJobEndTime());
+        jobDurationModel.onTransition(booking.getId(), oldStatus.toString(), dto.getStatus().toString(),
+            booking.getJobType(), booking.getBay() != null ? booking.getBay().getId() : null, technicianId(booking));
     }
 
+    checkNotHeld(booking, null);
     BookingEntity saved = bookingRepository.save(booking);
+    recordUpsert(saved);
+
+    if (dto.getStatus() != null && dto.getStatus() != oldStatus) {
+      transitionSample.stop(Timer.builder("bas.booking.status.transition")
+          .description("Latency of booking status transitions")
+          .tag("from", String.valueOf(oldStatus))
+          .tag("to", dto.getStatus().name())
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+    }
     return mapToDto(saved);
   }
 
 
+  @Transactional
   public void deleteBooking(Long id) {
     bookingRepository.deleteById(id);
+    recordChange(id, BookingChangeTypeEnum.DELETE);
+    changeVersions.bump(ResourceCollectionEnum.BOOKINGS);
+    promiseDateMonitor.untrack(id);
+    technicianLoadTracker.remove(id);
+    bayOccupancyIndex.removeBooking(id);
+    bayQueueIndex.remove(id);
+    jobDurationModel.forget(id);
+  }
+
+  public List<DurationEstimateDto> getDurationEstimates(DurationDimensionEnum by) {
+    return jobDurationModel.estimates(by);
+  }
+
+  // served from the in-memory bay queues; empty unless the booking is waiting in BAY_QUEUE or NEXT_JOB
+  public Optional<QueuePositionDto> getQueuePosition(Long id) {
+    return bayQueueIndex.position(id);
+  }
+
+  /**
+   * Assigns the booking to the given technician, or to the least-loaded available one when none is given.
+   */
+  @Transactional
+  public BookingDto assignTechnician(Long id, Long technicianId) {
+    BookingEntity booking = bookingRepository.findById(id)
+        .orElseThrow(() -> new RuntimeException("Booking not found"));
+    if (technicianId != null) {
+      findTechnician(technicianId);
+    }
+    long assigned = technicianLoadTracker.reserve(id, booking.getJobType(), technicianId);
+    booking.setTechnician(findTechnician(assigned));
+
+    BookingEntity saved = bookingRepository.save(booking);
+    recordChange(saved.getId(), BookingChangeTypeEnum.UPSERT);
+    changeVersions.bump(ResourceCollectionEnum.BOOKINGS);
+    technicianLoadTracker.update(saved.getId(), assigned, saved.getJobType(), saved.getStatus());
+    return mapToDto(saved);
+  }
+
+  @Transactional(readOnly = true)
+  public BookingChangesResponse getChanges(Long since, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES_PAGE));
+    List<BookingChangeEntity> page = bookingChangeRepository
+        .findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, pageSize + 1));
+
+    boolean hasMore = page.size() > pageSize;
+    if (hasMore) {
+      page = page.subList(0, pageSize);
+    }
+
+    // Only the latest change per booking within the page matters to the client
+    Map<Long, BookingChangeEntity> latest = new LinkedHashMap<>();
+    for (BookingChangeEntity change : page) {
+      latest.remove(change.getBookingId());
+      latest.put(change.getBookingId(), change);
+    }
+
+    List<Long> upsertIds = latest.values().stream()
+        .filter(c -> c.getChangeType() == BookingChangeTypeEnum.UPSERT)
+        .map(BookingChangeEntity::getBookingId)
+        .toList();
+    Map<Long, BookingEntity> bookings = bookingRepository.findAllById(upsertIds).stream()
+        .collect(Collectors.toMap(BookingEntity::getId, Function.identity()));
+
+    List<BookingChangeDto> changes = latest.values().stream()
+        .map(c -> {
+          BookingEntity booking = bookings.get(c.getBookingId());
+          // deleted after this change was logged; its tombstone follows in a later page
+          if (booking == null) {
+            return new BookingChangeDto(c.getSeq(), c.getBookingId(), BookingChangeTypeEnum.DELETE, null);
+          }
+          return new BookingChangeDto(c.getSeq(), c.getBookingId(), c.getChangeType(), mapToDto(booking));
+        })
+        .toList();
+
+    Long nextCursor = settledCursor(page, since, LocalDateTime.now().minus(CHANGE_SETTLE_WINDOW));
+    // a page that is all unsettled comes back unchanged right away; let the client wait for its next poll
+    return new BookingChangesResponse(changes, nextCursor, hasMore && nextCursor > since);
+  }
+
+  /**
+   * How far a client may safely move its cursor past {@code page}. Change_Seq is taken at insert, not at commit,
+   * so a lower seq can still become visible after a higher one was read. The cursor therefore stops before the
+   * first change younger than the settle window: everything inserted before it has committed (or rolled back) by
+   * now. Younger changes are sent anyway and sent again next time; replaying them is harmless, since every change
+   * resolves to the booking's current state or a tombstone.
+   */
+  static Long settledCursor(List<BookingChangeEntity> page, Long since, LocalDateTime settledBefore) {
+    Long cursor = since;
+    for (BookingChangeEntity change : page) {
+      if (!change.getChangedAt().isBefore(settledBefore)) {
+        break;
+      }
+      cursor = change.getSeq();
+    }
+    return cursor;
   }
 
+  @Transactional(readOnly = true)
   public List<BookingProcessDto> getHistory(Long bookingId) {
     return processRepository.findByBookingIdOrderByChangedAtAsc(bookingId)
         .stream()
@@ -171,6 +362,82 @@ public class BookingService {
         )).toList();
   }
 
+  // a slot hold wins over bookings made around it until it is confirmed, released or expires
+  private void checkNotHeld(BookingEntity booking, SlotHoldService.HoldKey ownHold) {
+    if (booking.getBay() == null || booking.getStatus() == BookingStatusEnum.REPAIR_COMPLETION) {
+      return;
+    }
+    BayOccupancyIndex.JobWindow window = BayOccupancyIndex.JobWindow.of(booking.getCheckinDate(),
+        booking.getPromiseDate(), booking.getJobStartTime(), booking.getJobEndTime());
+    if (window == null) {
+      return;
+    }
+    boolean held = bayOccupancyIndex.occupants(booking.getId(), booking.getBay().getId(), window.start(), window.end())
+        .stream()
+        .anyMatch(o -> o instanceof SlotHoldService.HoldKey && !o.equals(ownHold));
+    if (held) {
+      throw new RuntimeException("Bay " + booking.getBay().getBayNumber() + " is held for that time by another advisor");
+    }
+  }
+
+  /**
+   * ETag suffix for a batch request: SHA-256 over the distinct ids in the order first asked for, which is all the
+   * response depends on besides the data versions. Repeated ids leave it unchanged; another order changes it, as the
+   * response follows that order.
+   */
+  public static String batchTag(List<Long> ids) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e); // every JRE ships SHA-256
+    }
+    ByteBuffer id = ByteBuffer.allocate(Long.BYTES);
+    for (Long distinct : distinctIds(ids)) {
+      digest.update(id.clear().putLong(distinct).array());
+    }
+    return HexFormat.of().formatHex(digest.digest(), 0, 16);
+  }
+
+  private static Set<Long> distinctIds(List<Long> ids) {
+    Set<Long> distinct = new LinkedHashSet<>(ids);
+    distinct.remove(null);
+    if (distinct.size() > MAX_BATCH_IDS) {
+      throw new RuntimeException("At most " + MAX_BATCH_IDS + " booking ids per request");
+    }
+    return distinct;
+  }
+
+  private TechnicianEntity findTechnician(Long technicianId) {
+    return technicianRepository.findById(technicianId)
+        .orElseThrow(() -> new RuntimeException("Technician not found with id: " + technicianId));
+  }
+
+  private Long technicianId(BookingEntity booking) {
+    return booking.getTechnician() != null ? booking.getTechnician().getId() : null;
+  }
+
+  // change feed, ETag version and every in-memory index, in the same order for creates and updates
+  private void recordUpsert(BookingEntity saved) {
+    Long bayId = saved.getBay() != null ? saved.getBay().getId() : null;
+    recordChange(saved.getId(), BookingChangeTypeEnum.UPSERT);
+    changeVersions.bump(ResourceCollectionEnum.BOOKINGS);
+    promiseDateMonitor.track(saved.getId(), saved.getBranchCode(), saved.getPromiseDate(), saved.getStatus());
+    technicianLoadTracker.update(saved.getId(), technicianId(saved), saved.getJobType(), saved.getStatus());
+    bayOccupancyIndex.updateBooking(saved.getId(), bayId, saved.getCheckinDate(), saved.getPromiseDate(),
+        saved.getJobStartTime(), saved.getJobEndTime(), saved.getStatus());
+    bayQueueIndex.update(saved.getId(), bayId, saved.getStatus(), saved.getJobType(), saved.getCheckinDate(),
+        saved.getPromiseDate(), saved.getJobStartTime(), saved.getJobEndTime());
+  }
+
+  private void recordChange(Long bookingId, BookingChangeTypeEnum type) {
+    BookingChangeEntity change = new BookingChangeEntity();
+    change.setBookingId(bookingId);
+    change.setChangeType(type);
+    change.setChangedAt(LocalDateTime.now());
+    bookingChangeRepository.save(change);
+  }
+
   private BookingDto mapToDto(BookingEntity entity) {
     return new BookingDto(
         entity.getId(),
@@ -182,7 +449,8 @@ public class BookingService {
         entity.getJobType(),
         entity.getStatus(),
         entity.getJobStartTime(),
-        entity.getJobEndTime()
+        entity.getJobEndTime(),
+        technicianId(entity)
     );
   }
 
@@ -192,10 +460,25 @@ public class BookingService {
     return new BayDto(entity.getId(), entity.getBayName(), entity.getBayNumber(), entity.getStatus());
   }
 
+  @Transactional(readOnly = true)
   public byte[] generateProcessReport(String carRegNo) {
+    String scope = carRegNo != null && !carRegNo.isEmpty() ? carRegNo : null;
+    ProcessWatermark mark = scope != null
+        ? processRepository.findWatermarkByCarRegNo(scope)
+        : processRepository.findWatermark();
+    // Process rows are written behind, after the booking version has already moved, so only the id/count
+    // watermark tells when they land. Bay names, and car numbers in the all-cars report, come from other tables.
+    String versions = scope != null
+        ? changeVersions.etag(ResourceCollectionEnum.BAYS)
+        : changeVersions.etag(ResourceCollectionEnum.BAYS, ResourceCollectionEnum.BOOKINGS);
+    String watermark = mark.getMaxId() + "-" + mark.getProcessCount() + "-" + versions;
+    return processReportCache.get(scope, watermark, () -> renderProcessReport(scope));
+  }
+
+  private byte[] renderProcessReport(String carRegNo) {
     List<BookingProcessEntity> processes;
 
-    if (carRegNo != null && !carRegNo.isEmpty()) {
+    if (carRegNo != null) {
       processes = processRepository.findByBooking_CarRegNoOrderByChangedAtAsc(carRegNo);
     } else {
       processes = processRepository.findAllByOrderByBooking_CarRegNoAscChangedAtAsc();
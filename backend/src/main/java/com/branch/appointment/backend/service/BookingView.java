@@ -0,0 +1,97 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.BookingExpandEnum;
+import com.branch.appointment.backend.enums.BookingFieldEnum;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What a client asked to see of a booking: the {@code fields=} it wants (all of them if none are given; {@code id}
+ * always) and the related data to {@code expand=}. Each distinct view selects only its own columns.
+ */
+public record BookingView(Set<BookingFieldEnum> fields, Set<BookingExpandEnum> expand) {
+
+  /**
+   * @param fields comma-separated BookingDto properties, e.g. {@code id,carRegNo,status,bayId}; null for all
+   * @param expand comma-separated expansions, e.g. {@code history,serviceAdvisor,bay}; null for none
+   */
+  public static BookingView parse(String fields, String expand) {
+    Set<BookingFieldEnum> selected = EnumSet.of(BookingFieldEnum.ID);
+    if (fields == null || fields.isBlank()) {
+      selected = EnumSet.allOf(BookingFieldEnum.class);
+    } else {
+      for (String field : fields.split(",")) {
+        if (!field.isBlank()) {
+          selected.add(BookingFieldEnum.fromProperty(field.trim()));
+        }
+      }
+    }
+    Set<BookingExpandEnum> expanded = EnumSet.noneOf(BookingExpandEnum.class);
+    if (expand != null) {
+      for (String name : expand.split(",")) {
+        if (!name.isBlank()) {
+          expanded.add(BookingExpandEnum.fromProperty(name.trim()));
+        }
+      }
+    }
+    return new BookingView(selected, expanded);
+  }
+
+  public boolean has(BookingExpandEnum expansion) {
+    return expand.contains(expansion);
+  }
+
+  // collections whose versions the response depends on
+  public ResourceCollectionEnum[] collections() {
+    List<ResourceCollectionEnum> collections = new ArrayList<>(List.of(ResourceCollectionEnum.BOOKINGS));
+    if (has(BookingExpandEnum.BAY) || has(BookingExpandEnum.HISTORY)) {
+      collections.add(ResourceCollectionEnum.BAYS);
+    }
+    if (has(BookingExpandEnum.SERVICE_ADVISOR)) {
+      collections.add(ResourceCollectionEnum.SERVICE_ADVISORS);
+    }
+    if (has(BookingExpandEnum.HISTORY)) {
+      collections.add(ResourceCollectionEnum.PROCESSES);
+    }
+    return collections.toArray(ResourceCollectionEnum[]::new);
+  }
+
+  // tells views apart in an ETag, whatever order the client listed them in
+  public String key() {
+    long fieldBits = 0;
+    for (BookingFieldEnum field : fields) {
+      fieldBits |= 1L << field.ordinal();
+    }
+    long expandBits = 0;
+    for (BookingExpandEnum expansion : expand) {
+      expandBits |= 1L << expansion.ordinal();
+    }
+    return "f" + Long.toHexString(fieldBits) + "e" + Long.toHexString(expandBits);
+  }
+
+  /**
+   * Selects the id, then the other fields in enum order, then bay and service advisor columns when expanded.
+   */
+  String jpql(boolean single) {
+    StringBuilder select = new StringBuilder("select b.id");
+    for (BookingFieldEnum field : fields) {
+      if (field != BookingFieldEnum.ID) {
+        select.append(", ").append(field.getPath());
+      }
+    }
+    StringBuilder from = new StringBuilder(" from BookingEntity b");
+    if (has(BookingExpandEnum.BAY)) {
+      select.append(", bay.id, bay.bayName, bay.bayNumber, bay.status");
+      from.append(" left join b.bay bay");
+    }
+    if (has(BookingExpandEnum.SERVICE_ADVISOR)) {
+      select.append(", sa.id, sa.name, sa.status");
+      from.append(" left join b.serviceAdvisor sa");
+    }
+    return select.append(from).append(single ? " where b.id = :id" : " order by b.id").toString();
+  }
+}
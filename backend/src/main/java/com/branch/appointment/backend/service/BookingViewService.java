@@ -0,0 +1,121 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.BayDto;
+import com.branch.appointment.backend.dto.BookingProcessDto;
+import com.branch.appointment.backend.dto.ServiceAdvisorDto;
+import com.branch.appointment.backend.enums.BayStatusEnum;
+import com.branch.appointment.backend.enums.BookingExpandEnum;
+import com.branch.appointment.backend.enums.BookingFieldEnum;
+import com.branch.appointment.backend.enums.ServiceAdvisorStatusEnum;
+import com.branch.appointment.backend.repository.BookingProcessRepository;
+import com.branch.appointment.backend.repository.ProcessHistoryRow;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sparse and expanded booking reads ({@code ?fields=}, {@code ?expand=}). Only the requested columns are selected;
+ * bay and service advisor are joined into the same query, and histories for all returned bookings come from one
+ * batch query per {@value #HISTORY_BATCH} bookings instead of one per booking.
+ */
+@Service
+@Timed("bas.booking.view.service")
+public class BookingViewService {
+
+  static final int HISTORY_BATCH = 500;
+
+  private final EntityManager entityManager;
+  private final BookingProcessRepository processRepository;
+
+  public BookingViewService(EntityManager entityManager, BookingProcessRepository processRepository) {
+    this.entityManager = entityManager;
+    this.processRepository = processRepository;
+  }
+
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getBookings(BookingView view) {
+    List<Tuple> rows = entityManager.createQuery(view.jpql(false), Tuple.class).getResultList();
+    return toMaps(view, rows);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<Map<String, Object>> getBooking(Long id, BookingView view) {
+    TypedQuery<Tuple> query = entityManager.createQuery(view.jpql(true), Tuple.class);
+    List<Tuple> rows = query.setParameter("id", id).getResultList();
+    return toMaps(view, rows).stream().findFirst();
+  }
+
+  /**
+   * Histories of the given bookings keyed by booking id, oldest change first; bookings without history are absent.
+   */
+  @Transactional(readOnly = true)
+  public Map<Long, List<BookingProcessDto>> getHistories(Collection<Long> bookingIds) {
+    Map<Long, List<BookingProcessDto>> histories = new HashMap<>();
+    List<Long> ids = List.copyOf(bookingIds);
+    for (int from = 0; from < ids.size(); from += HISTORY_BATCH) {
+      List<Long> batch = ids.subList(from, Math.min(ids.size(), from + HISTORY_BATCH));
+      for (ProcessHistoryRow row : processRepository.findHistoryRows(batch)) {
+        histories.computeIfAbsent(row.getBookingId(), id -> new ArrayList<>()).add(toDto(row));
+      }
+    }
+    return histories;
+  }
+
+  private List<Map<String, Object>> toMaps(BookingView view, List<Tuple> rows) {
+    List<Map<String, Object>> bookings = new ArrayList<>(rows.size());
+    for (Tuple row : rows) {
+      // same column order as BookingView.jpql
+      Map<String, Object> booking = new LinkedHashMap<>();
+      booking.put(BookingFieldEnum.ID.getProperty(), row.get(0));
+      int column = 1;
+      for (BookingFieldEnum field : view.fields()) {
+        if (field != BookingFieldEnum.ID) {
+          booking.put(field.getProperty(), row.get(column++));
+        }
+      }
+      if (view.has(BookingExpandEnum.BAY)) {
+        Long bayId = (Long) row.get(column);
+        booking.put(BookingExpandEnum.BAY.getProperty(), bayId == null ? null : new BayDto(bayId,
+            (String) row.get(column + 1), (String) row.get(column + 2), (BayStatusEnum) row.get(column + 3)));
+        column += 4;
+      }
+      if (view.has(BookingExpandEnum.SERVICE_ADVISOR)) {
+        Long advisorId = (Long) row.get(column);
+        booking.put(BookingExpandEnum.SERVICE_ADVISOR.getProperty(), advisorId == null ? null
+            : new ServiceAdvisorDto(advisorId, (String) row.get(column + 1),
+            (ServiceAdvisorStatusEnum) row.get(column + 2)));
+        column += 3;
+      }
+      bookings.add(booking);
+    }
+    if (view.has(BookingExpandEnum.HISTORY) && !bookings.isEmpty()) {
+      List<Long> ids = bookings.stream().map(b -> (Long) b.get(BookingFieldEnum.ID.getProperty())).toList();
+      Map<Long, List<BookingProcessDto>> histories = getHistories(ids);
+      for (Map<String, Object> booking : bookings) {
+        booking.put(BookingExpandEnum.HISTORY.getProperty(),
+            histories.getOrDefault((Long) booking.get(BookingFieldEnum.ID.getProperty()), List.of()));
+      }
+    }
+    return bookings;
+  }
+
+  private BookingProcessDto toDto(ProcessHistoryRow row) {
+    BayDto fromBay = row.getFromBayId() == null ? null : new BayDto(row.getFromBayId(), row.getFromBayName(),
+        row.getFromBayNumber(), row.getFromBayStatus());
+    BayDto toBay = row.getToBayId() == null ? null : new BayDto(row.getToBayId(), row.getToBayName(),
+        row.getToBayNumber(), row.getToBayStatus());
+    return new BookingProcessDto(row.getId(), row.getFromStatus(), row.getToStatus(), fromBay, toBay,
+        row.getChangedAt(), row.getJobStartTime(), row.getJobEndTime());
+  }
+}
@@ -0,0 +1,113 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.CalendarBayDto;
+import com.branch.appointment.backend.dto.CalendarBookingDto;
+import com.branch.appointment.backend.dto.CalendarDayDto;
+import com.branch.appointment.backend.dto.CalendarDto;
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.CalendarRow;
+import com.branch.appointment.backend.utils.ExpiringCache;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bay-by-day calendar built from one aggregated query. Results are cached briefly per range and data version
+ * (the calendar ETag), so repeated board refreshes between writes don't reach the database.
+ */
+@Service
+@Timed("bas.calendar.service")
+public class CalendarService {
+
+  public static final int MAX_RANGE_DAYS = 31;
+
+  private final BookingRepository bookingRepository;
+  private final ExpiringCache<CacheKey, CalendarDto> cache;
+
+  public CalendarService(BookingRepository bookingRepository,
+                         @Value("${bas.calendar.cache-ttl:10s}") Duration cacheTtl,
+                         @Value("${bas.calendar.cache-max-entries:256}") int cacheMaxEntries) {
+    this.bookingRepository = bookingRepository;
+    this.cache = new ExpiringCache<>(cacheTtl, cacheMaxEntries);
+  }
+
+  /**
+   * @param version the caller's ETag for the underlying collections; it already carries the branch
+   */
+  @Transactional(readOnly = true)
+  public CalendarDto getCalendar(LocalDate from, LocalDate to, String version) {
+    if (to.isBefore(from) || to.isAfter(from.plusDays(MAX_RANGE_DAYS - 1))) {
+      throw new RuntimeException("Calendar range must be 1 to " + MAX_RANGE_DAYS + " days");
+    }
+    return cache.get(new CacheKey(version, from, to), () -> build(from, to));
+  }
+
+  private CalendarDto build(LocalDate from, LocalDate to) {
+    Map<Long, BayDays> bays = new LinkedHashMap<>();
+    for (CalendarRow row : bookingRepository.findCalendarRows(from, to)) {
+      BayDays bay = bays.computeIfAbsent(row.getBayId(), id -> new BayDays(row));
+      if (row.getBookingId() == null) {
+        continue;
+      }
+      CalendarBookingDto booking = toDto(row);
+      // a multi-day job shows on every day it covers within the range
+      LocalDate first = row.getCheckinDate().isBefore(from) ? from : row.getCheckinDate();
+      LocalDate end = row.getPromiseDate() != null && row.getPromiseDate().isAfter(row.getCheckinDate())
+          ? row.getPromiseDate()
+          : row.getCheckinDate();
+      LocalDate last = end.isAfter(to) ? to : end;
+      for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+        bay.days.computeIfAbsent(day, d -> new ArrayList<>()).add(booking);
+      }
+    }
+    List<CalendarBayDto> result = new ArrayList<>(bays.size());
+    for (BayDays bay : bays.values()) {
+      List<CalendarDayDto> days = new ArrayList<>(bay.days.size());
+      bay.days.forEach((date, bookings) -> days.add(new CalendarDayDto(date, bookings)));
+      result.add(new CalendarBayDto(bay.bayId, bay.bayName, bay.bayNumber, days));
+    }
+    return new CalendarDto(from, to, result);
+  }
+
+  private CalendarBookingDto toDto(CalendarRow row) {
+    return new CalendarBookingDto(
+        row.getBookingId(),
+        row.getCarRegNo(),
+        row.getStatus(),
+        row.getJobType(),
+        row.getCheckinDate(),
+        row.getPromiseDate(),
+        row.getJobStartTime(),
+        row.getJobEndTime(),
+        row.getServiceAdvisorId(),
+        row.getServiceAdvisorName(),
+        row.getTechnicianId(),
+        row.getTechnicianName()
+    );
+  }
+
+  private record CacheKey(String version, LocalDate from, LocalDate to) {
+  }
+
+  private static final class BayDays {
+    private final Long bayId;
+    private final String bayName;
+    private final String bayNumber;
+    private final Map<LocalDate, List<CalendarBookingDto>> days = new TreeMap<>();
+
+    BayDays(CalendarRow row) {
+      this.bayId = row.getBayId();
+      this.bayName = row.getBayName();
+      this.bayNumber = row.getBayNumber();
+    }
+  }
+}
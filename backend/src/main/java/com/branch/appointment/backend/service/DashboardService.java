@@ -0,0 +1,76 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.BayDto;
+import com.branch.appointment.backend.dto.BookingDto;
+import com.branch.appointment.backend.dto.DashboardDto;
+import com.branch.appointment.backend.dto.ServiceAdvisorDto;
+import com.branch.appointment.backend.dto.TechnicianDto;
+import com.branch.appointment.backend.utils.FanOut;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the dashboard's four collections concurrently, each in its own read-only transaction on a virtual thread,
+ * so the response takes as long as the slowest query rather than the sum of all four.
+ */
+@Service
+@Timed("bas.dashboard.service")
+public class DashboardService {
+
+  private final BookingService bookingService;
+  private final BayService bayService;
+  private final TechnicianService technicianService;
+  private final ServiceAdvisorService serviceAdvisorService;
+  // blocked on JDBC most of the time; the connection pool is what bounds real concurrency
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @Value("${bas.dashboard.timeout:10s}")
+  private Duration timeout;
+
+  public DashboardService(BookingService bookingService, BayService bayService, TechnicianService technicianService,
+                          ServiceAdvisorService serviceAdvisorService) {
+    this.bookingService = bookingService;
+    this.bayService = bayService;
+    this.technicianService = technicianService;
+    this.serviceAdvisorService = serviceAdvisorService;
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  public DashboardDto getDashboard() {
+    CompletableFuture<List<BookingDto>> bookings = FanOut.fork(executor, bookingService::getBookings);
+    CompletableFuture<List<BayDto>> bays = FanOut.fork(executor, bayService::getBays);
+    CompletableFuture<List<TechnicianDto>> technicians = FanOut.fork(executor, technicianService::getTechnicians);
+    CompletableFuture<List<ServiceAdvisorDto>> serviceAdvisors = FanOut.fork(executor, serviceAdvisorService::getAll);
+    CompletableFuture<Void> all = CompletableFuture.allOf(bookings, bays, technicians, serviceAdvisors);
+    try {
+      all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading the dashboard", e);
+    } catch (TimeoutException e) {
+      List.of(bookings, bays, technicians, serviceAdvisors).forEach(part -> part.cancel(true));
+      throw new RuntimeException("Dashboard did not load within " + timeout, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException("Failed to load the dashboard", e.getCause());
+    }
+    return new DashboardDto(bookings.join(), bays.join(), technicians.join(), serviceAdvisors.join());
+  }
+}
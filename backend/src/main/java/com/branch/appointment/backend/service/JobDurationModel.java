@@ -0,0 +1,303 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.dto.DurationEstimateDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.DurationDimensionEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.QuantileSketch;
+import com.branch.appointment.backend.utils.WorkingHours;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Measured job durations: working minutes a booking spends on {@code ACTIVE_BOARD} (stoppages excluded) until
+ * {@code REPAIR_COMPLETION}, kept per branch in quantile sketches by job type, bay and technician. Live transitions
+ * are applied after commit; on startup the process history is replayed in one streamed pass per database and merged
+ * in. State is per instance.
+ * <p>
+ * The history pass only reads rows changed before this instance started, and live changes queue up until it has
+ * been merged, so every transition is applied exactly once and in order. Rows without {@code Changed_At} cannot be
+ * placed in time; they are skipped and counted in the log.
+ */
+@Component
+@Slf4j
+public class JobDurationModel {
+
+  private static final String ACTIVE = BookingStatusEnum.ACTIVE_BOARD.name();
+  private static final String COMPLETED = BookingStatusEnum.REPAIR_COMPLETION.name();
+
+  // native on purpose: one pass over every branch in the database, each booking's transitions in order
+  private static final String HISTORY_SQL = "select p.Branch_Code, p.Booking_Id, p.From_Status, p.To_Status,"
+      + " p.Changed_At, b.Job_Type, b.Bay_Id, b.Technician_Id"
+      + " from BAS_Booking_Processes p join BAS_Bookings b on b.Booking_Id = p.Booking_Id"
+      + " where p.Changed_At is null or p.Changed_At < ?"
+      + " order by p.Booking_Id, p.Changed_At, p.Process_Id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final BranchProperties branchProperties;
+  private final WorkingHours workingHours;
+  private final Map<String, BranchDurations> branches = new ConcurrentHashMap<>();
+  // every live transition happens after this, so the history pass stops here
+  private final LocalDateTime startedAt = LocalDateTime.now();
+  private volatile boolean backfilled;
+
+  @Value("${bas.durations.relative-accuracy:0.02}")
+  private double relativeAccuracy;
+
+  // longer jobs count as this long
+  @Value("${bas.durations.max-duration:14d}")
+  private Duration maxDuration;
+
+  // below this many samples a job type's median is not trusted for estimates
+  @Value("${bas.durations.min-samples:20}")
+  private int minSamples;
+
+  @Value("${bas.durations.fetch-size:1000}")
+  private int fetchSize;
+
+  public JobDurationModel(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          BranchProperties branchProperties, WorkingHours workingHours) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.branchProperties = branchProperties;
+    this.workingHours = workingHours;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    Set<String> sources = new LinkedHashSet<>();
+    sources.add(BranchContext.DEFAULT_BRANCH);
+    sources.addAll(branchProperties.getDedicated().keySet());
+    Map<String, BranchDurations> scanned = new HashMap<>();
+    long[] counts = {0, 0}; // rows, skipped
+    try {
+      for (String source : sources) {
+        BranchContext.runAs(source, () -> backfillDatabase(scanned, counts));
+      }
+      scanned.forEach((branch, history) -> {
+        BranchDurations durations = durations(branch);
+        synchronized (durations) {
+          durations.goLive(history);
+        }
+      });
+    } finally {
+      // on failure the model carries on with live transitions only
+      backfilled = true;
+      branches.values().forEach(durations -> {
+        synchronized (durations) {
+          durations.goLive(null);
+        }
+      });
+    }
+    if (counts[1] > 0) {
+      log.warn("Job duration backfill skipped {} process rows without Changed_At", counts[1]);
+    }
+    log.info("Job duration model backfilled from {} process rows", counts[0]);
+  }
+
+  /**
+   * Feeds one status transition of a booking, as of now; a completion records the booking's accumulated time on the
+   * board against its job type, bay and technician.
+   */
+  public void onTransition(Long bookingId, String fromStatus, String toStatus, JobTypeEnum jobType, Long bayId,
+                           Long technicianId) {
+    BranchDurations durations = durations(BranchContext.current());
+    LocalDateTime at = LocalDateTime.now();
+    Subject subject = new Subject(jobType, bayId, technicianId);
+    AfterCommit.run(() -> {
+      synchronized (durations) {
+        durations.apply(d -> d.transition(bookingId, fromStatus, toStatus, at, subject));
+      }
+    });
+  }
+
+  public void forget(Long bookingId) {
+    BranchDurations durations = durations(BranchContext.current());
+    AfterCommit.run(() -> {
+      synchronized (durations) {
+        durations.apply(d -> d.activities.remove(bookingId));
+      }
+    });
+  }
+
+  public List<DurationEstimateDto> estimates(DurationDimensionEnum by) {
+    BranchDurations durations = durations(BranchContext.current());
+    List<DurationEstimateDto> estimates = new ArrayList<>();
+    synchronized (durations) {
+      durations.catchUp();
+      durations.sketches(by).forEach((key, sketch) -> estimates.add(new DurationEstimateDto(String.valueOf(key),
+          sketch.count(), Math.round(sketch.quantile(0.5)), Math.round(sketch.quantile(0.9)))));
+    }
+    estimates.sort(Comparator.comparing(DurationEstimateDto::getKey));
+    return estimates;
+  }
+
+  /**
+   * Median measured minutes for a job type, once there are enough samples to trust it.
+   */
+  public OptionalLong medianMinutes(JobTypeEnum jobType) {
+    if (jobType == null) {
+      return OptionalLong.empty();
+    }
+    BranchDurations durations = durations(BranchContext.current());
+    synchronized (durations) {
+      durations.catchUp();
+      QuantileSketch sketch = durations.byJobType.get(jobType);
+      return sketch != null && sketch.count() >= minSamples
+          ? OptionalLong.of(Math.round(sketch.quantile(0.5)))
+          : OptionalLong.empty();
+    }
+  }
+
+  // builds into private sketches without holding any lock; backfill merges them once every database is read
+  private void backfillDatabase(Map<String, BranchDurations> scanned, long[] counts) {
+    readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+      PreparedStatement statement = con.prepareStatement(HISTORY_SQL);
+      statement.setTimestamp(1, Timestamp.valueOf(startedAt));
+      // streams from a cursor instead of buffering the whole history
+      statement.setFetchSize(fetchSize);
+      return statement;
+    }, (RowCallbackHandler) rs -> {
+      Timestamp changedAt = rs.getTimestamp(5);
+      if (changedAt == null) {
+        counts[1]++;
+        return;
+      }
+      String jobType = rs.getString(6);
+      Subject subject = new Subject(jobType != null ? JobTypeEnum.valueOf(jobType) : null,
+          rs.getObject(7, Long.class), rs.getObject(8, Long.class));
+      scanned.computeIfAbsent(rs.getString(1), b -> new BranchDurations())
+          .transition(rs.getLong(2), rs.getString(3), rs.getString(4), changedAt.toLocalDateTime(), subject);
+      counts[0]++;
+    }));
+  }
+
+  private BranchDurations durations(String branch) {
+    return branches.computeIfAbsent(branch, b -> new BranchDurations());
+  }
+
+  // what a completed job is attributed to
+  private record Subject(JobTypeEnum jobType, Long bayId, Long technicianId) {
+  }
+
+  private static final class Activity {
+    private LocalDateTime activeSince;
+    private long activeMinutes;
+  }
+
+  // guarded by its own monitor
+  private final class BranchDurations {
+    private final Map<JobTypeEnum, QuantileSketch> byJobType = new EnumMap<>(JobTypeEnum.class);
+    private final Map<Long, QuantileSketch> byBay = new HashMap<>();
+    private final Map<Long, QuantileSketch> byTechnician = new HashMap<>();
+    // bookings that have been on the board but are not complete yet
+    private final Map<Long, Activity> activities = new HashMap<>();
+    // live changes waiting for the history to be merged underneath them
+    private final List<Consumer<BranchDurations>> pending = new ArrayList<>();
+    private boolean live;
+
+    void apply(Consumer<BranchDurations> change) {
+      catchUp();
+      if (live) {
+        change.accept(this);
+      } else {
+        pending.add(change);
+      }
+    }
+
+    // a branch the backfill did not get to goes live on its first use afterwards
+    void catchUp() {
+      if (!live && backfilled) {
+        goLive(null);
+      }
+    }
+
+    // history goes underneath, then the queued live changes replay on top in arrival order
+    void goLive(BranchDurations history) {
+      if (live) {
+        return;
+      }
+      if (history != null) {
+        merge(byJobType, history.byJobType);
+        merge(byBay, history.byBay);
+        merge(byTechnician, history.byTechnician);
+        activities.putAll(history.activities);
+      }
+      pending.forEach(change -> change.accept(this));
+      pending.clear();
+      live = true;
+    }
+
+    void transition(Long bookingId, String fromStatus, String toStatus, LocalDateTime at, Subject subject) {
+      Activity activity = activities.get(bookingId);
+      if (ACTIVE.equals(fromStatus) && activity != null && activity.activeSince != null) {
+        activity.activeMinutes += workingHours.minutesBetween(activity.activeSince, at);
+        activity.activeSince = null;
+      }
+      if (ACTIVE.equals(toStatus)) {
+        if (activity == null) {
+          activity = new Activity();
+          activities.put(bookingId, activity);
+        }
+        activity.activeSince = at;
+      } else if (COMPLETED.equals(toStatus)) {
+        activities.remove(bookingId);
+        if (activity != null && activity.activeMinutes > 0) {
+          add(byJobType, subject.jobType(), activity.activeMinutes);
+          add(byBay, subject.bayId(), activity.activeMinutes);
+          add(byTechnician, subject.technicianId(), activity.activeMinutes);
+        }
+      }
+    }
+
+    Map<?, QuantileSketch> sketches(DurationDimensionEnum by) {
+      return switch (by) {
+        case JOB_TYPE -> byJobType;
+        case BAY -> byBay;
+        case TECHNICIAN -> byTechnician;
+      };
+    }
+
+    private <K> void add(Map<K, QuantileSketch> sketches, K key, long minutes) {
+      if (key != null) {
+        sketches.computeIfAbsent(key, k -> newSketch()).add(minutes);
+      }
+    }
+
+    private <K> void merge(Map<K, QuantileSketch> into, Map<K, QuantileSketch> from) {
+      from.forEach((key, sketch) -> into.computeIfAbsent(key, k -> newSketch()).merge(sketch));
+    }
+
+    private QuantileSketch newSketch() {
+      return new QuantileSketch(relativeAccuracy, maxDuration.toMinutes());
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.branch.appointment.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One {@code BAS_Booking_Processes} row as journalled and batch-inserted by {@link ProcessAuditWriter}.
+ * {@code auditKey} makes replays after a crash idempotent.
+ */
+public record ProcessAuditRecord(
+    String auditKey,
+    String branchCode,
+    Long bookingId,
+    String fromStatus,
+    String toStatus,
+    Long fromBayId,
+    Long toBayId,
+    LocalDateTime changedAt,
+    LocalTime jobStartTime,
+    LocalTime jobEndTime) {
+}
@@ -0,0 +1,505 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind pipeline for booking process (audit) rows. Each row is appended to a local journal segment just
+ * before the booking commits, so a failing journal fails the booking rather than losing its row, and is queued once
+ * it has committed; a rollback journals a cancel marker instead. A single flusher inserts queued rows in JDBC
+ * batches; a row that found the queue full is remembered by key and re-read from its segment once the queue drains. Segments are deleted once every row in them is in the database, and whatever is left on startup is
+ * replayed, skipping cancelled rows and rows whose audit key already made it in.
+ */
+@Component
+@Slf4j
+public class ProcessAuditWriter {
+
+  private static final String INSERT = "insert into BAS_Booking_Processes (Booking_Id, From_Status, To_Status,"
+      + " From_Process, To_Process, Changed_At, Job_Start_Time, Job_End_Time, Branch_Code, Audit_Key,"
+      + " Recorded_At) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String SEGMENT_PREFIX = "audit-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final ChangeVersions changeVersions;
+  private final Path directory;
+  private final int batchSize;
+  private final long maxSegmentBytes;
+  private final boolean fsync;
+  private final long enqueueTimeoutMillis;
+  private final BlockingQueue<Entry> queue;
+  private final Counter overflowCounter;
+  private final Map<Long, AtomicInteger> pendingBySegment = new ConcurrentHashMap<>();
+  // audit keys of committed rows that found the queue full, by segment
+  private final Map<Long, Set<String>> overflowBySegment = new ConcurrentHashMap<>();
+  private final Timer flushTimer;
+  private final Object journalLock = new Object();
+
+  private FileChannel segment;
+  private long segmentId;
+  private long segmentBytes;
+  private Thread flusher;
+  private volatile boolean running;
+
+  public ProcessAuditWriter(JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            ChangeVersions changeVersions,
+                            MeterRegistry meterRegistry,
+                            @Value("${bas.audit.journal-dir:./data/audit}") Path directory,
+                            @Value("${bas.audit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${bas.audit.batch-size:500}") int batchSize,
+                            @Value("${bas.audit.max-segment-bytes:16777216}") long maxSegmentBytes,
+                            @Value("${bas.audit.fsync:true}") boolean fsync,
+                            @Value("${bas.audit.enqueue-timeout:100ms}") Duration enqueueTimeout) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.changeVersions = changeVersions;
+    this.directory = directory;
+    this.batchSize = batchSize;
+    this.maxSegmentBytes = maxSegmentBytes;
+    this.fsync = fsync;
+    this.enqueueTimeoutMillis = enqueueTimeout.toMillis();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.overflowCounter = Counter.builder("bas.audit.overflow")
+        .description("Audit rows re-read from the journal because the queue stayed full")
+        .register(meterRegistry);
+    this.flushTimer = Timer.builder("bas.audit.flush")
+        .description("Time to insert one batch of audit rows")
+        .register(meterRegistry);
+    Gauge.builder("bas.audit.queued", queue, BlockingQueue::size)
+        .description("Audit rows waiting for the flusher")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() throws IOException {
+    Files.createDirectories(directory);
+    List<Path> leftovers = segments();
+    segmentId = leftovers.isEmpty() ? 1 : segmentIdOf(leftovers.get(leftovers.size() - 1)) + 1;
+    openSegment();
+    running = true;
+    flusher = new Thread(() -> run(leftovers), "audit-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /**
+   * Stops taking new rows and lets the flusher drain the queue; anything it can't write stays in the journal.
+   */
+  @PreDestroy
+  void stop() throws InterruptedException, IOException {
+    running = false;
+    flusher.join(TimeUnit.SECONDS.toMillis(10));
+    synchronized (journalLock) {
+      segment.close();
+    }
+  }
+
+  /**
+   * Records a status change or bay move for the booking: journalled before the surrounding transaction commits and
+   * queued for the database after it has.
+   */
+  public void record(Long bookingId, String fromStatus, String toStatus, Long fromBayId, Long toBayId,
+                     LocalTime jobStartTime, LocalTime jobEndTime) {
+    ProcessAuditRecord record = new ProcessAuditRecord(UUID.randomUUID().toString(), BranchContext.current(),
+        bookingId, fromStatus, toStatus, fromBayId, toBayId, LocalDateTime.now(), jobStartTime, jobEndTime);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      append(record);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      private long journalled = -1;
+
+      @Override
+      public void beforeCommit(boolean readOnly) {
+        journalled = journal(record); // throwing here rolls the booking back
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        if (journalled < 0) {
+          return;
+        }
+        if (status == STATUS_ROLLED_BACK) {
+          cancel(record, journalled);
+        } else {
+          // committed, or an unknown outcome, which is kept rather than risk losing a committed row
+          enqueue(record, journalled);
+        }
+      }
+    });
+  }
+
+  void append(ProcessAuditRecord record) {
+    enqueue(record, journal(record));
+  }
+
+  /**
+   * Never blocks for long: this runs while the committing request still holds its connection, which the flusher
+   * may be waiting for. A row that can't be queued in time is left for the flusher to re-read from the journal.
+   */
+  private void enqueue(ProcessAuditRecord record, long journalled) {
+    try {
+      if (queue.offer(new Entry(record, journalled), enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+      overflowCounter.increment();
+      log.warn("Audit queue full; row {} for booking {} will be re-read from the journal", record.auditKey(),
+          record.bookingId());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    overflowBySegment.compute(journalled, (id, keys) -> {
+      Set<String> overflowed = keys != null ? keys : new HashSet<>();
+      overflowed.add(record.auditKey());
+      return overflowed;
+    });
+  }
+
+  private void cancel(ProcessAuditRecord record, long journalled) {
+    try {
+      byte[] line = (objectMapper.writeValueAsString(new CancelMarker(record.auditKey())) + "\n")
+          .getBytes(StandardCharsets.UTF_8);
+      synchronized (journalLock) {
+        // normally the row's own segment; replay collects markers from every leftover segment before writing
+        write(line);
+      }
+    } catch (IOException e) {
+      log.error("Could not journal the cancellation of audit row {}; a replay would insert it", record.auditKey(), e);
+      return;
+    }
+    flushed(journalled);
+  }
+
+  private long journal(ProcessAuditRecord record) {
+    if (!running) {
+      throw new IllegalStateException("Audit writer is stopped");
+    }
+    try {
+      byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+      synchronized (journalLock) {
+        if (segmentBytes + line.length > maxSegmentBytes && segmentBytes > 0) {
+          rollSegment();
+        }
+        write(line);
+        pendingBySegment.computeIfAbsent(segmentId, id -> new AtomicInteger()).incrementAndGet();
+        return segmentId;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not journal audit row for booking " + record.bookingId(), e);
+    }
+  }
+
+  // caller holds journalLock
+  private void write(byte[] line) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(line);
+    while (buffer.hasRemaining()) {
+      segment.write(buffer);
+    }
+    if (fsync) {
+      segment.force(false);
+    }
+    segmentBytes += line.length;
+  }
+
+  private void run(List<Path> leftovers) {
+    Set<String> cancelled = new HashSet<>();
+    Map<Path, List<ProcessAuditRecord>> journalled = new LinkedHashMap<>();
+    for (Path leftover : leftovers) {
+      journalled.put(leftover, read(leftover, cancelled));
+    }
+    journalled.forEach((leftover, records) -> replay(leftover, records, cancelled));
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        if (queue.isEmpty()) {
+          recoverOverflow();
+        }
+        Entry first = queue.poll(200, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        writeUntilDone(batch.stream().map(Entry::record).toList(), false);
+        batch.forEach(e -> flushed(e.segmentId()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        // the flusher must outlive any one batch; the rows are still in the journal for the next start
+        log.error("Audit flusher could not write {} rows; they stay in the journal", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  // rows that overflowed the queue, read back from their segments; the segment is kept until they are written
+  private void recoverOverflow() throws InterruptedException {
+    for (Long id : List.copyOf(overflowBySegment.keySet())) {
+      Set<String> keys = overflowBySegment.remove(id);
+      List<ProcessAuditRecord> records = keys != null ? read(segmentPath(id), new HashSet<>()) : null;
+      if (records == null) {
+        continue;
+      }
+      List<ProcessAuditRecord> overflowed = records.stream().filter(r -> keys.contains(r.auditKey())).toList();
+      for (int from = 0; from < overflowed.size(); from += batchSize) {
+        writeUntilDone(overflowed.subList(from, Math.min(from + batchSize, overflowed.size())), true);
+      }
+      if (overflowed.size() < keys.size()) {
+        log.error("{} overflowed audit rows were not found in journal segment {}", keys.size() - overflowed.size(),
+            id);
+      }
+      keys.forEach(key -> flushed(id));
+    }
+  }
+
+  private List<ProcessAuditRecord> read(Path file, Set<String> cancelled) {
+    List<ProcessAuditRecord> records = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          JsonNode node = objectMapper.readTree(line);
+          if (node.has(CancelMarker.FIELD)) {
+            cancelled.add(node.get(CancelMarker.FIELD).asText());
+          } else {
+            records.add(objectMapper.treeToValue(node, ProcessAuditRecord.class));
+          }
+        } catch (IOException e) {
+          // torn last line from a crash mid-append
+          log.warn("Skipping unreadable audit journal line in {}", file);
+        }
+      }
+    } catch (IOException e) {
+      log.error("Could not read audit journal {}; leaving it for the next start", file, e);
+      return null;
+    }
+    return records;
+  }
+
+  private void replay(Path file, List<ProcessAuditRecord> records, Set<String> cancelled) {
+    if (records == null) {
+      return;
+    }
+    List<ProcessAuditRecord> committed = records.stream().filter(r -> !cancelled.contains(r.auditKey())).toList();
+    try {
+      for (int from = 0; from < committed.size(); from += batchSize) {
+        writeUntilDone(committed.subList(from, Math.min(from + batchSize, committed.size())), true);
+      }
+      Files.delete(file);
+      log.info("Replayed audit journal {}", file.getFileName());
+    } catch (IOException e) {
+      log.error("Could not delete replayed audit journal {}", file, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      log.error("Could not replay audit journal {}; leaving it for the next start", file, e);
+    }
+  }
+
+  // keeps retrying while the database is unavailable; rows it rejects outright are logged and dropped
+  private void writeUntilDone(List<ProcessAuditRecord> records, boolean replay) throws InterruptedException {
+    // batches run in auto-commit, so after any failure part of a batch may already be in
+    boolean checkWritten = replay;
+    Map<String, List<ProcessAuditRecord>> byBranch = new LinkedHashMap<>();
+    for (ProcessAuditRecord record : records) {
+      byBranch.computeIfAbsent(record.branchCode(), b -> new ArrayList<>()).add(record);
+    }
+    for (Map.Entry<String, List<ProcessAuditRecord>> branch : byBranch.entrySet()) {
+      long backoff = 100;
+      boolean oneByOne = false;
+      while (true) {
+        try {
+          boolean check = checkWritten;
+          if (oneByOne) {
+            BranchContext.runAs(branch.getKey(), () -> insertOneByOne(branch.getValue()));
+          } else {
+            BranchContext.runAs(branch.getKey(), () -> insert(branch.getValue(), check));
+          }
+        } catch (RuntimeException e) {
+          checkWritten = true;
+          if (e instanceof DataIntegrityViolationException && !oneByOne) {
+            // some row is rejected outright; going row by row drops just that one
+            oneByOne = true;
+            continue;
+          }
+          log.warn("Audit flush failed, retrying in {} ms: {}", backoff, e.getMessage());
+          Thread.sleep(backoff);
+          backoff = Math.min(backoff * 2, 30_000);
+          continue;
+        }
+        // history ETags only move once the rows can actually be read
+        BranchContext.runAs(branch.getKey(), () -> changeVersions.bump(ResourceCollectionEnum.PROCESSES));
+        break;
+      }
+    }
+  }
+
+  private void insert(List<ProcessAuditRecord> records, boolean checkWritten) {
+    List<ProcessAuditRecord> rows = checkWritten ? notYetWritten(records) : records;
+    if (rows.isEmpty()) {
+      return;
+    }
+    flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), this::bind));
+  }
+
+  private void insertOneByOne(List<ProcessAuditRecord> records) {
+    for (ProcessAuditRecord record : notYetWritten(records)) {
+      try {
+        jdbcTemplate.update(INSERT, ps -> bind(ps, record));
+      } catch (DataIntegrityViolationException e) {
+        // e.g. the booking was deleted before its audit row landed
+        log.error("Dropping audit row the database rejects: {}", record, e);
+      }
+    }
+  }
+
+  private List<ProcessAuditRecord> notYetWritten(List<ProcessAuditRecord> records) {
+    MapSqlParameterSource keys = new MapSqlParameterSource("keys",
+        records.stream().map(ProcessAuditRecord::auditKey).toList());
+    Set<String> written = new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+        "select Audit_Key from BAS_Booking_Processes where Audit_Key in (:keys)", keys, String.class));
+    return records.stream().filter(r -> !written.contains(r.auditKey())).toList();
+  }
+
+  private void bind(PreparedStatement ps, ProcessAuditRecord r) throws SQLException {
+    setLong(ps, 1, r.bookingId());
+    ps.setString(2, r.fromStatus());
+    ps.setString(3, r.toStatus());
+    setLong(ps, 4, r.fromBayId());
+    setLong(ps, 5, r.toBayId());
+    ps.setTimestamp(6, r.changedAt() != null ? Timestamp.valueOf(r.changedAt()) : null);
+    ps.setTime(7, r.jobStartTime() != null ? Time.valueOf(r.jobStartTime()) : null);
+    ps.setTime(8, r.jobEndTime() != null ? Time.valueOf(r.jobEndTime()) : null);
+    ps.setString(9, r.branchCode());
+    ps.setString(10, r.auditKey());
+    ps.setTimestamp(11, new Timestamp(System.currentTimeMillis()));
+  }
+
+  private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+    if (value != null) {
+      ps.setLong(index, value);
+    } else {
+      ps.setNull(index, Types.BIGINT);
+    }
+  }
+
+  private void flushed(long id) {
+    AtomicInteger pending = pendingBySegment.get(id);
+    if (pending != null && pending.decrementAndGet() == 0) {
+      synchronized (journalLock) {
+        if (id != segmentId && pending.get() == 0) {
+          pendingBySegment.remove(id);
+          deleteSegment(id);
+        }
+      }
+    }
+  }
+
+  // caller holds journalLock
+  private void rollSegment() throws IOException {
+    segment.close();
+    long previous = segmentId;
+    segmentId++;
+    openSegment();
+    AtomicInteger pending = pendingBySegment.get(previous);
+    if (pending == null || pending.get() == 0) {
+      pendingBySegment.remove(previous);
+      deleteSegment(previous);
+    }
+  }
+
+  private void openSegment() throws IOException {
+    segment = FileChannel.open(segmentPath(segmentId),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    segmentBytes = segment.size();
+  }
+
+  private void deleteSegment(long id) {
+    try {
+      Files.deleteIfExists(segmentPath(id));
+    } catch (IOException e) {
+      log.warn("Could not delete flushed audit journal segment {}", id, e);
+    }
+  }
+
+  private List<Path> segments() throws IOException {
+    Map<Long, Path> sorted = new TreeMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path file : files) {
+        sorted.put(segmentIdOf(file), file);
+      }
+    }
+    return new ArrayList<>(sorted.values());
+  }
+
+  private Path segmentPath(long id) {
+    return directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+  }
+
+  private static long segmentIdOf(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private record Entry(ProcessAuditRecord record, long segmentId) {
+  }
+
+  // journal line voiding an earlier row whose transaction rolled back
+  private record CancelMarker(String cancelled) {
+    static final String FIELD = "cancelled";
+  }
+}
@@ -0,0 +1,220 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.ExportFormatEnum;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams {@code BAS_Booking_Processes} as CSV or NDJSON straight from a server-side cursor: rows are encoded
+ * from the {@link ResultSet} as they arrive, so memory stays flat however large the export is. Exports are bounded
+ * by process id, which doubles as the cursor for incremental ("since last export") pulls.
+ * <p>
+ * Ids are handed out before the inserting statement commits, and several writers insert concurrently, so a lower id
+ * can become visible after a higher one. The cursor therefore only advances to the newest row that was recorded at
+ * least {@code bas.export.settle} ago: anything below it is assumed committed, and the rest is left for the next pull.
+ */
+@Service
+@Timed("bas.export.service")
+public class ProcessExportService {
+
+  private static final String[] COLUMNS = {"processId", "bookingId", "carRegNo", "fromStatus", "toStatus",
+      "fromBayId", "toBayId", "changedAt", "jobStartTime", "jobEndTime"};
+  private static final int CHANGED_AT = 8;
+  private static final int WRITE_BUFFER = 64 * 1024;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration settle;
+
+  public ProcessExportService(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              @Value("${bas.export.fetch-size:1000}") int fetchSize,
+                              @Value("${bas.export.settle:10s}") Duration settle) {
+    // the driver only streams with a fetch size inside a transaction; otherwise PostgreSQL buffers everything
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.objectMapper = objectMapper;
+    this.settle = settle;
+  }
+
+  /**
+   * Highest settled process id in the branch; an export stops there, and the next one passes it as {@code since}.
+   * Rows without {@code Recorded_At} predate the column and count as settled.
+   */
+  @Transactional(readOnly = true)
+  public long currentCursor() {
+    Timestamp settledBefore = new Timestamp(System.currentTimeMillis() - settle.toMillis());
+    // walks the primary key backwards and stops at the first settled row, instead of aggregating the branch
+    List<Long> newest = jdbcTemplate.queryForList("select Process_Id from BAS_Booking_Processes"
+        + " where Branch_Code = ? and (Recorded_At is null or Recorded_At <= ?)"
+        + " order by Process_Id desc fetch first 1 rows only", Long.class, BranchContext.current(), settledBefore);
+    return newest.isEmpty() ? 0 : newest.get(0);
+  }
+
+  /**
+   * Writes every process row with {@code since < id <= until}, optionally limited to changes on
+   * {@code [from, to]}, and returns the number of rows written.
+   */
+  @Transactional(readOnly = true)
+  public long export(ExportFormatEnum format, long since, long until, LocalDate from, LocalDate to,
+                     OutputStream out) throws IOException {
+    StringBuilder sql = new StringBuilder("select p.Process_Id, p.Booking_Id, b.Car_Reg_No, p.From_Status,"
+        + " p.To_Status, p.From_Process, p.To_Process, p.Changed_At, p.Job_Start_Time, p.Job_End_Time"
+        + " from BAS_Booking_Processes p left join BAS_Bookings b on b.Booking_Id = p.Booking_Id"
+        + " where p.Branch_Code = ? and p.Process_Id > ? and p.Process_Id <= ?");
+    List<Object> args = new ArrayList<>(List.of(BranchContext.current(), since, until));
+    if (from != null) {
+      sql.append(" and p.Changed_At >= ?");
+      args.add(Timestamp.valueOf(from.atStartOfDay()));
+    }
+    if (to != null) {
+      sql.append(" and p.Changed_At < ?");
+      args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+    sql.append(" order by p.Process_Id");
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+    RowEncoder encoder = format == ExportFormatEnum.CSV
+        ? new CsvEncoder(writer)
+        : new NdjsonEncoder(objectMapper.getFactory().createGenerator(writer));
+    long[] rows = {0};
+    try {
+      jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+        try {
+          encoder.row(rs);
+          rows[0]++;
+        } catch (IOException e) {
+          // client went away; stop reading
+          throw new UncheckedIOException(e);
+        }
+      }, args.toArray());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    encoder.finish();
+    writer.flush();
+    return rows[0];
+  }
+
+  // ISO-8601 in both formats, rather than whatever text the driver renders timestamps as
+  private static String changedAt(ResultSet rs) throws SQLException {
+    Timestamp changedAt = rs.getTimestamp(CHANGED_AT);
+    return changedAt != null ? changedAt.toLocalDateTime().toString() : null;
+  }
+
+  private interface RowEncoder {
+    void row(ResultSet rs) throws SQLException, IOException;
+
+    void finish() throws IOException;
+  }
+
+  private static final class CsvEncoder implements RowEncoder {
+    private final Writer writer;
+
+    CsvEncoder(Writer writer) throws IOException {
+      this.writer = writer;
+      writer.write(String.join(",", COLUMNS));
+      writer.write('\n');
+    }
+
+    @Override
+    public void row(ResultSet rs) throws SQLException, IOException {
+      for (int i = 1; i <= COLUMNS.length; i++) {
+        if (i > 1) {
+          writer.write(',');
+        }
+        String value = i == CHANGED_AT ? changedAt(rs) : rs.getString(i);
+        if (value != null) {
+          writeEscaped(value);
+        }
+      }
+      writer.write('\n');
+    }
+
+    private void writeEscaped(String value) throws IOException {
+      boolean quote = false;
+      for (int i = 0; i < value.length() && !quote; i++) {
+        char c = value.charAt(i);
+        quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+      if (!quote) {
+        writer.write(value);
+        return;
+      }
+      writer.write('"');
+      writer.write(value.replace("\"", "\"\""));
+      writer.write('"');
+    }
+
+    @Override
+    public void finish() {
+    }
+  }
+
+  private static final class NdjsonEncoder implements RowEncoder {
+    private final JsonGenerator generator;
+
+    NdjsonEncoder(JsonGenerator generator) {
+      this.generator = generator;
+      generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void row(ResultSet rs) throws SQLException, IOException {
+      generator.writeStartObject();
+      writeNumber("processId", rs, 1);
+      writeNumber("bookingId", rs, 2);
+      writeString("carRegNo", rs, 3);
+      writeString("fromStatus", rs, 4);
+      writeString("toStatus", rs, 5);
+      writeNumber("fromBayId", rs, 6);
+      writeNumber("toBayId", rs, 7);
+      generator.writeStringField("changedAt", changedAt(rs));
+      writeString("jobStartTime", rs, 9);
+      writeString("jobEndTime", rs, 10);
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    private void writeNumber(String field, ResultSet rs, int column) throws SQLException, IOException {
+      long value = rs.getLong(column);
+      if (rs.wasNull()) {
+        generator.writeNullField(field);
+      } else {
+        generator.writeNumberField(field, value);
+      }
+    }
+
+    private void writeString(String field, ResultSet rs, int column) throws SQLException, IOException {
+      generator.writeStringField(field, rs.getString(column));
+    }
+
+    @Override
+    public void finish() throws IOException {
+      generator.flush();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.utils.BranchContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Generated process reports, one per branch and scope, kept while the scope's data watermark is unchanged. A
+ * request with a newer watermark regenerates and replaces the entry, so stale reports never outlive the next
+ * download. Least recently used reports are evicted once the cached bytes exceed the limit.
+ */
+@Component
+public class ProcessReportCache {
+
+  private final Map<Scope, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final long maxBytes;
+  private final Counter hits;
+  private final Counter misses;
+  private long bytes;
+
+  public ProcessReportCache(MeterRegistry meterRegistry,
+                            @Value("${bas.reports.cache-max-bytes:33554432}") long maxBytes) {
+    this.maxBytes = maxBytes;
+    this.hits = Counter.builder("bas.reports.cache").tag("result", "hit")
+        .description("Process report downloads by cache outcome")
+        .register(meterRegistry);
+    this.misses = Counter.builder("bas.reports.cache").tag("result", "miss")
+        .description("Process report downloads by cache outcome")
+        .register(meterRegistry);
+    Gauge.builder("bas.reports.cache.bytes", this, ProcessReportCache::bytes)
+        .description("Bytes of generated reports held in memory")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached report for {@code carRegNo} (null for all cars) if it was built at {@code watermark},
+   * otherwise generates it. Generation runs outside the lock; two concurrent misses may both generate.
+   */
+  public byte[] get(String carRegNo, String watermark, Supplier<byte[]> generator) {
+    Scope scope = new Scope(BranchContext.current(), carRegNo);
+    synchronized (this) {
+      Entry entry = entries.get(scope);
+      if (entry != null && entry.watermark.equals(watermark)) {
+        hits.increment();
+        return entry.report;
+      }
+    }
+    misses.increment();
+    byte[] report = generator.get();
+    put(scope, new Entry(watermark, report));
+    return report;
+  }
+
+  private synchronized void put(Scope scope, Entry entry) {
+    if (entry.report.length > maxBytes) {
+      return;
+    }
+    Entry previous = entries.put(scope, entry);
+    if (previous != null) {
+      bytes -= previous.report.length;
+    }
+    bytes += entry.report.length;
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (bytes > maxBytes) {
+      bytes -= eldest.next().report.length;
+      eldest.remove();
+    }
+  }
+
+  synchronized long bytes() {
+    return bytes;
+  }
+
+  private record Scope(String branch, String carRegNo) {
+  }
+
+  private record Entry(String watermark, byte[] report) {
+  }
+}
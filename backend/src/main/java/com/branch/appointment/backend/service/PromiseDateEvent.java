@@ -0,0 +1,11 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.SlaEventTypeEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link PromiseDateMonitor}; listeners can forward it to an outbox, push channel, etc.
+ */
+public record PromiseDateEvent(Long bookingId, String branchCode, SlaEventTypeEnum type, LocalDateTime deadline) {
+}
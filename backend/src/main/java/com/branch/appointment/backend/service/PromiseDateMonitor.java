@@ -0,0 +1,263 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.SlaEventTypeEnum;
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.OpenBookingDeadline;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchScanner;
+import com.branch.appointment.backend.utils.TimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches booking promise dates and publishes {@link PromiseDateEvent}s when one is at risk or breached.
+ * Deadlines sit in a {@link TimerWheel}, so each create, reschedule or completion is O(1) and a tick only
+ * looks at one slot. State is in memory; on startup it is rebuilt from one projection query per branch.
+ */
+@Component
+@Slf4j
+public class PromiseDateMonitor {
+
+  private final BookingRepository bookingRepository;
+  private final BranchScanner branchScanner;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<SlaEventTypeEnum, Counter> eventCounters = new EnumMap<>(SlaEventTypeEnum.class);
+  private final Map<Long, Tracked> tracked = new HashMap<>();
+  // bookings changed live while a rebuild is reading; their live state is newer than its rows
+  private Set<Long> changedDuringRebuild;
+  private TimerWheel<Deadline> wheel;
+  private ScheduledExecutorService ticker;
+
+  @Value("${bas.sla.enabled:true}")
+  private boolean enabled;
+
+  // a booking is promised for the end of the working day on its promise date
+  @Value("${bas.sla.closing-time:18:00}")
+  private LocalTime closingTime;
+
+  @Value("${bas.sla.at-risk-window:2h}")
+  private Duration atRiskWindow;
+
+  @Value("${bas.sla.tick:1m}")
+  private Duration tick;
+
+  @Value("${bas.sla.wheel-size:4096}")
+  private int wheelSize;
+
+  public PromiseDateMonitor(BookingRepository bookingRepository,
+                            BranchScanner branchScanner,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry) {
+    this.bookingRepository = bookingRepository;
+    this.branchScanner = branchScanner;
+    this.eventPublisher = eventPublisher;
+    for (SlaEventTypeEnum type : SlaEventTypeEnum.values()) {
+      eventCounters.put(type, Counter.builder("bas.sla.events")
+          .description("Promise-date SLA events fired")
+          .tag("type", type.name())
+          .register(meterRegistry));
+    }
+    Gauge.builder("bas.sla.tracked", this, PromiseDateMonitor::size)
+        .description("Bookings with a pending promise-date deadline")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  synchronized void init() {
+    wheel = new TimerWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    int count = rebuild();
+    log.info("SLA monitor tracking {} open bookings", count);
+    ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "sla-monitor");
+      t.setDaemon(true);
+      return t;
+    });
+    ticker.scheduleAtFixedRate(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (ticker != null) {
+      ticker.shutdownNow();
+    }
+  }
+
+  /**
+   * (Re)schedules a booking's deadlines once the surrounding transaction commits; completed bookings are dropped.
+   */
+  public void track(Long bookingId, String branchCode, LocalDate promiseDate, BookingStatusEnum status) {
+    if (!enabled) {
+      return;
+    }
+    AfterCommit.run(() -> {
+      if (promiseDate == null || status == BookingStatusEnum.REPAIR_COMPLETION) {
+        remove(bookingId);
+      } else {
+        schedule(bookingId, branchCode, promiseDate, true);
+      }
+    });
+  }
+
+  public void untrack(Long bookingId) {
+    if (enabled) {
+      AfterCommit.run(() -> remove(bookingId));
+    }
+  }
+
+  /**
+   * Loads open bookings without holding the lock, then merges them under it. Bookings tracked or untracked live
+   * since the rebuild began keep their live state, so a row read before that change cannot overwrite it.
+   */
+  private int rebuild() {
+    synchronized (this) {
+      changedDuringRebuild = new HashSet<>();
+    }
+    List<OpenBookingDeadline> open = branchScanner.collect(bookingRepository::findOpenPromiseDates);
+    synchronized (this) {
+      for (OpenBookingDeadline row : open) {
+        if (!changedDuringRebuild.contains(row.getId())) {
+          // deadlines that passed while we were down were either reported before or are stale; don't replay them
+          place(row.getId(), row.getBranchCode(), row.getPromiseDate(), false);
+        }
+      }
+      changedDuringRebuild = null;
+    }
+    return open.size();
+  }
+
+  void tick() {
+    List<Deadline> due;
+    synchronized (this) {
+      due = wheel.advance(System.currentTimeMillis());
+      for (Deadline deadline : due) {
+        if (deadline.type() == SlaEventTypeEnum.BREACHED) {
+          tracked.remove(deadline.bookingId());
+        }
+      }
+    }
+    for (Deadline deadline : due) {
+      fire(deadline);
+    }
+  }
+
+  private void schedule(Long bookingId, String branchCode, LocalDate promiseDate, boolean fireOverdue) {
+    List<Deadline> overdue;
+    synchronized (this) {
+      markChanged(bookingId);
+      overdue = place(bookingId, branchCode, promiseDate, fireOverdue);
+    }
+    overdue.forEach(this::fire);
+  }
+
+  // caller holds the lock; returns the deadlines to fire once it is released
+  private List<Deadline> place(Long bookingId, String branchCode, LocalDate promiseDate, boolean fireOverdue) {
+    LocalDateTime breachAt = promiseDate.atTime(closingTime);
+    LocalDateTime atRiskAt = breachAt.minus(atRiskWindow);
+    long now = System.currentTimeMillis();
+    List<Deadline> overdue = new ArrayList<>();
+    Tracked previous = tracked.remove(bookingId);
+    if (previous != null) {
+      previous.cancel(wheel);
+      if (previous.breachAt().equals(breachAt)) {
+        // unchanged deadline (e.g. a status update): keep whatever already fired from firing again
+        fireOverdue = false;
+      }
+    }
+    List<TimerWheel.Timer<Deadline>> timers = new ArrayList<>(2);
+    for (Deadline deadline : List.of(
+        new Deadline(bookingId, branchCode, SlaEventTypeEnum.AT_RISK, atRiskAt, breachAt),
+        new Deadline(bookingId, branchCode, SlaEventTypeEnum.BREACHED, breachAt, breachAt))) {
+      long at = epochMillis(deadline.at());
+      if (at > now) {
+        timers.add(wheel.schedule(deadline, at));
+      } else if (fireOverdue && (deadline.type() == SlaEventTypeEnum.BREACHED || epochMillis(breachAt) > now)) {
+        // already late: report only the most severe state
+        overdue.add(deadline);
+      }
+    }
+    if (!timers.isEmpty()) {
+      tracked.put(bookingId, new Tracked(breachAt, timers));
+    }
+    return overdue;
+  }
+
+  private void markChanged(Long bookingId) {
+    if (changedDuringRebuild != null) {
+      changedDuringRebuild.add(bookingId);
+    }
+  }
+
+  private void remove(Long bookingId) {
+    synchronized (this) {
+      markChanged(bookingId);
+      Tracked previous = tracked.remove(bookingId);
+      if (previous != null) {
+        previous.cancel(wheel);
+      }
+    }
+  }
+
+  private void fire(Deadline deadline) {
+    if (deadline.type() == SlaEventTypeEnum.BREACHED) {
+      log.warn("Booking {} ({}) missed its promise date {}", deadline.bookingId(), deadline.branchCode(),
+          deadline.promiseAt());
+    } else {
+      log.info("Booking {} ({}) is at risk of missing its promise date {}", deadline.bookingId(),
+          deadline.branchCode(), deadline.promiseAt());
+    }
+    eventCounters.get(deadline.type()).increment();
+    eventPublisher.publishEvent(new PromiseDateEvent(deadline.bookingId(), deadline.branchCode(), deadline.type(),
+        deadline.promiseAt()));
+  }
+
+  private synchronized int size() {
+    return tracked.size();
+  }
+
+  private static long epochMillis(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private record Deadline(Long bookingId, String branchCode, SlaEventTypeEnum type, LocalDateTime at,
+                          LocalDateTime promiseAt) {
+  }
+
+  private record Tracked(LocalDateTime breachAt, List<TimerWheel.Timer<Deadline>> timers) {
+    void cancel(TimerWheel<Deadline> wheel) {
+      timers.forEach(wheel::cancel);
+    }
+  }
+}
@@ -2,18 +2,25 @@ package com.branch.appointment.backend.service;
 
 import com.branch.appointment.backend.dto.ServiceAdvisorDto;
 import com.branch.appointment.backend.entity.ServiceAdvisorEntity;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
 import com.branch.appointment.backend.repository.ServiceAdvisorRepository;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 @AllArgsConstructor
+@Timed("bas.service-advisor.service")
 public class ServiceAdvisorService {
 
   private final ServiceAdvisorRepository repository;
+  private final ChangeVersions changeVersions;
 
+  @Transactional(readOnly = true)
   public List<ServiceAdvisorDto> getAll() {
     return repository.findAll()
         .stream()
@@ -21,6 +28,7 @@ public class ServiceAdvisorService {
         .toList();
   }
 
+  @Transactional(readOnly = true)
   public ServiceAdvisorDto getById(Long id) {
     ServiceAdvisorEntity entity = repository.findById(id)
         .orElseThrow(() -> new RuntimeException("Service Advisor not found"));
@@ -31,7 +39,9 @@ public class ServiceAdvisorService {
     ServiceAdvisorEntity entity = new ServiceAdvisorEntity();
     entity.setName(dto.getName());
     entity.setStatus(dto.getStatus());
-    return toDto(repository.save(entity));
+    ServiceAdvisorEntity saved = repository.save(entity);
+    changeVersions.bump(ResourceCollectionEnum.SERVICE_ADVISORS);
+    return toDto(saved);
   }
 
   public ServiceAdvisorDto update(Long id, ServiceAdvisorDto dto) {
@@ -39,11 +49,14 @@ public class ServiceAdvisorService {
         .orElseThrow(() -> new RuntimeException("Service Advisor not found"));
     entity.setName(dto.getName());
     entity.setStatus(dto.getStatus());
-    return toDto(repository.save(entity));
+    ServiceAdvisorEntity updated = repository.save(entity);
+    changeVersions.bump(ResourceCollectionEnum.SERVICE_ADVISORS);
+    return toDto(updated);
   }
 
   public void delete(Long id) {
     repository.deleteById(id);
+    changeVersions.bump(ResourceCollectionEnum.SERVICE_ADVISORS);
   }
 
   private ServiceAdvisorDto toDto(ServiceAdvisorEntity entity) {
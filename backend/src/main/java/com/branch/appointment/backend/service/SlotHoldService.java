@@ -0,0 +1,243 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.BookingDto;
+import com.branch.appointment.backend.dto.SlotHoldDto;
+import com.branch.appointment.backend.repository.BayRepository;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.TimerWheel;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Short-lived bay holds taken while an advisor fills in a booking. A hold occupies its window in the
+ * {@link BayOccupancyIndex}, so it blocks overlapping holds and bookings, and becomes a booking on confirmation.
+ * Expiry runs off striped {@link TimerWheel}s; holds are per instance and are not persisted.
+ */
+@Service
+@Slf4j
+@Timed("bas.hold.service")
+public class SlotHoldService {
+
+  private static final int ACTIVE = 0;
+  private static final int CONFIRMING = 1;
+  private static final int DONE = 2;
+
+  private final BayOccupancyIndex bayOccupancyIndex;
+  private final BookingService bookingService;
+  private final BayRepository bayRepository;
+  private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+  private final Counter expiredCounter;
+  private TimerWheel<Hold>[] wheels;
+  private ScheduledExecutorService ticker;
+  private Clock clock = Clock.systemDefaultZone();
+
+  @Value("${bas.holds.ttl:5m}")
+  private Duration ttl;
+
+  @Value("${bas.holds.tick:1s}")
+  private Duration tick;
+
+  // independent wheels, each behind its own lock, so concurrent holds rarely contend
+  @Value("${bas.holds.stripes:16}")
+  private int stripes;
+
+  public SlotHoldService(BayOccupancyIndex bayOccupancyIndex, BookingService bookingService,
+                         BayRepository bayRepository, MeterRegistry meterRegistry) {
+    this.bayOccupancyIndex = bayOccupancyIndex;
+    this.bookingService = bookingService;
+    this.bayRepository = bayRepository;
+    this.expiredCounter = Counter.builder("bas.holds.expired")
+        .description("Slot holds released by expiry")
+        .register(meterRegistry);
+    Gauge.builder("bas.holds.active", holds, Map::size)
+        .description("Slot holds currently in place")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  @SuppressWarnings("unchecked")
+  void start() {
+    long now = clock.millis();
+    // one revolution covers the TTL, so a hold is looked at once before it expires
+    int wheelSize = (int) Math.max(2, ttl.toMillis() / tick.toMillis() + 1);
+    wheels = new TimerWheel[stripes];
+    for (int i = 0; i < stripes; i++) {
+      wheels[i] = new TimerWheel<>(tick.toMillis(), wheelSize, now);
+    }
+    ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "slot-hold-expiry");
+      t.setDaemon(true);
+      return t;
+    });
+    ticker.scheduleAtFixedRate(this::expireDue, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    ticker.shutdownNow();
+  }
+
+  /**
+   * Takes a hold on the bay window, or returns empty when a booking or another hold already covers part of it.
+   */
+  public Optional<SlotHoldDto> hold(SlotHoldDto request) {
+    BayOccupancyIndex.JobWindow window = BayOccupancyIndex.JobWindow.of(request.getCheckinDate(),
+        request.getPromiseDate(), request.getJobStartTime(), request.getJobEndTime());
+    if (request.getBayId() == null || window == null) {
+      throw new RuntimeException("A hold needs a bay, a check-in date and job start and end times");
+    }
+    // the occupancy index takes any id; the tenant filter makes this see only the caller's branch
+    if (!bayRepository.existsById(request.getBayId())) {
+      throw new RuntimeException("Bay not found with id: " + request.getBayId());
+    }
+    HoldKey key = new HoldKey(UUID.randomUUID().toString());
+    if (!bayOccupancyIndex.tryPlace(key, request.getBayId(), window.start(), window.end())) {
+      return Optional.empty();
+    }
+    long expiresAt = clock.millis() + ttl.toMillis();
+    Hold hold = new Hold(key, BranchContext.current(), request, expiresAt);
+    holds.put(key.id(), hold);
+    TimerWheel<Hold> wheel = wheel(key);
+    synchronized (wheel) {
+      wheel.schedule(hold, expiresAt);
+    }
+    return Optional.of(toDto(hold));
+  }
+
+  public Optional<SlotHoldDto> getHold(String id) {
+    return find(id).map(this::toDto);
+  }
+
+  public boolean release(String id) {
+    Optional<Hold> hold = find(id);
+    hold.ifPresent(h -> {
+      if (h.state.compareAndSet(ACTIVE, DONE)) {
+        drop(h);
+      }
+    });
+    return hold.isPresent();
+  }
+
+  /**
+   * Turns the hold into a booking for its bay and window; the rest of the booking comes from {@code dto}.
+   * Returns empty when the hold has expired, been released or is already being confirmed.
+   */
+  @Transactional
+  public Optional<BookingDto> confirm(String id, BookingDto dto) {
+    Optional<Hold> found = find(id);
+    if (found.isEmpty() || !found.get().state.compareAndSet(ACTIVE, CONFIRMING)) {
+      return Optional.empty();
+    }
+    Hold hold = found.get();
+    AfterCommit.onRollback(() -> {
+      hold.state.set(ACTIVE);
+      if (clock.millis() >= hold.expiresAt) {
+        expire(hold);
+      }
+    });
+    dto.setBayId(hold.request.getBayId());
+    dto.setCheckinDate(hold.request.getCheckinDate());
+    if (hold.request.getPromiseDate() != null) {
+      dto.setPromiseDate(hold.request.getPromiseDate());
+    }
+    dto.setJobStartTime(hold.request.getJobStartTime());
+    dto.setJobEndTime(hold.request.getJobEndTime());
+    BookingDto booking = bookingService.createBooking(dto, hold.key);
+    // the booking takes over the window after commit; the hold goes right after it
+    AfterCommit.run(() -> {
+      hold.state.set(DONE);
+      drop(hold);
+    });
+    return Optional.of(booking);
+  }
+
+  void expireDue() {
+    long now = clock.millis();
+    for (TimerWheel<Hold> wheel : wheels) {
+      List<Hold> due;
+      synchronized (wheel) {
+        due = wheel.advance(now);
+      }
+      due.forEach(this::expire);
+    }
+  }
+
+  void setClock(Clock clock) {
+    this.clock = clock;
+  }
+
+  private void expire(Hold hold) {
+    // a hold being confirmed is left alone; a rollback expires it if it is overdue by then
+    if (hold.state.compareAndSet(ACTIVE, DONE)) {
+      drop(hold);
+      expiredCounter.increment();
+    }
+  }
+
+  private void drop(Hold hold) {
+    holds.remove(hold.key.id(), hold);
+    BranchContext.runAs(hold.branch, () -> bayOccupancyIndex.release(hold.key));
+  }
+
+  // holds are visible only to the branch that took them
+  private Optional<Hold> find(String id) {
+    Hold hold = holds.get(id);
+    return hold != null && hold.branch.equals(BranchContext.current()) ? Optional.of(hold) : Optional.empty();
+  }
+
+  private TimerWheel<Hold> wheel(HoldKey key) {
+    return wheels[Math.floorMod(key.hashCode(), wheels.length)];
+  }
+
+  private SlotHoldDto toDto(Hold hold) {
+    SlotHoldDto r = hold.request;
+    LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.expiresAt), ZoneId.systemDefault());
+    return new SlotHoldDto(hold.key.id(), r.getBayId(), r.getCheckinDate(), r.getPromiseDate(), r.getJobStartTime(),
+        r.getJobEndTime(), expiresAt);
+  }
+
+  /**
+   * Occupant key of a hold in the {@link BayOccupancyIndex}.
+   */
+  public record HoldKey(String id) {
+  }
+
+  private static final class Hold {
+    private final HoldKey key;
+    private final String branch;
+    private final SlotHoldDto request;
+    private final long expiresAt;
+    private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+    Hold(HoldKey key, String branch, SlotHoldDto request, long expiresAt) {
+      this.key = key;
+      this.branch = branch;
+      this.request = request;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,298 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.AssignmentProperties;
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.dto.TechnicianLoadDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.enums.TechnicianStatusEnum;
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.OpenAssignment;
+import com.branch.appointment.backend.repository.TechnicianAvailability;
+import com.branch.appointment.backend.repository.TechnicianRepository;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Live per-branch technician load: active jobs and estimated remaining hours. Available technicians sit in a
+ * sorted set, so the least-loaded one is found and every change is applied in O(log n) under the branch lock.
+ * State is per instance and rebuilt on startup from one projection query per database.
+ */
+@Component
+@Slf4j
+public class TechnicianLoadTracker {
+
+  private static final Comparator<Load> LEAST_LOADED = Comparator
+      .comparingDouble(Load::hours)
+      .thenComparingInt(Load::jobs)
+      .thenComparingLong(Load::technicianId);
+
+  private final BookingRepository bookingRepository;
+  private final TechnicianRepository technicianRepository;
+  private final BranchProperties branchProperties;
+  private final AssignmentProperties assignmentProperties;
+  private final Map<String, BranchLoads> branches = new ConcurrentHashMap<>();
+  private volatile boolean rebuilding;
+
+  public TechnicianLoadTracker(BookingRepository bookingRepository,
+                               TechnicianRepository technicianRepository,
+                               BranchProperties branchProperties,
+                               AssignmentProperties assignmentProperties) {
+    this.bookingRepository = bookingRepository;
+    this.technicianRepository = technicianRepository;
+    this.branchProperties = branchProperties;
+    this.assignmentProperties = assignmentProperties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    rebuild(source -> BranchContext.callAs(source, technicianRepository::findAllAvailability),
+        source -> BranchContext.callAs(source, bookingRepository::findOpenAssignments));
+  }
+
+  /**
+   * Builds each branch's loads off to the side from one read per database, then swaps them in under the branch
+   * lock. Bookings and technicians changed live while the reads ran keep their live state; everything else comes
+   * from the snapshot, so running it again does not count anything twice.
+   */
+  void rebuild(Function<String, List<? extends TechnicianAvailability>> technicians,
+               Function<String, List<? extends OpenAssignment>> assignments) {
+    rebuilding = true;
+    try {
+      Set<String> sources = new LinkedHashSet<>();
+      sources.add(BranchContext.DEFAULT_BRANCH);
+      sources.addAll(branchProperties.getDedicated().keySet());
+      Map<String, BranchLoads> fresh = new HashMap<>();
+      int count = 0;
+      for (String source : sources) {
+        for (TechnicianAvailability t : technicians.apply(source)) {
+          fresh.computeIfAbsent(t.getBranchCode(), b -> new BranchLoads(false))
+              .technician(t.getId(), TechnicianStatusEnum.valueOf(t.getStatus()));
+        }
+        for (OpenAssignment a : assignments.apply(source)) {
+          JobTypeEnum jobType = a.getJobType() != null ? JobTypeEnum.valueOf(a.getJobType()) : null;
+          fresh.computeIfAbsent(a.getBranchCode(), b -> new BranchLoads(false))
+              .assign(a.getId(), new Assignment(a.getTechnicianId(), hours(jobType)));
+          count++;
+        }
+      }
+      for (String branch : branches.keySet()) {
+        fresh.putIfAbsent(branch, new BranchLoads(false)); // nothing open there any more
+      }
+      fresh.forEach((branch, snapshot) -> {
+        BranchLoads loads = loads(branch);
+        synchronized (loads) {
+          loads.replaceWith(snapshot);
+        }
+      });
+      log.info("Technician load tracker rebuilt with {} open assignments", count);
+    } finally {
+      rebuilding = false;
+      branches.values().forEach(loads -> {
+        synchronized (loads) {
+          loads.changedTechnicians.clear();
+          loads.changedBookings.clear();
+        }
+      });
+    }
+  }
+
+  public Optional<TechnicianLoadDto> leastLoaded() {
+    BranchLoads loads = loads(BranchContext.current());
+    synchronized (loads) {
+      return loads.available.isEmpty() ? Optional.empty() : Optional.of(toDto(loads.available.first()));
+    }
+  }
+
+  /**
+   * Assigns a booking to {@code technicianId}, or to the least-loaded available technician when null. The load
+   * moves immediately so concurrent assignments see it, and moves back if the transaction rolls back.
+   *
+   * @return the assigned technician id
+   */
+  public long reserve(Long bookingId, JobTypeEnum jobType, Long technicianId) {
+    BranchLoads loads = loads(BranchContext.current());
+    Assignment previous;
+    long assigned;
+    synchronized (loads) {
+      if (technicianId != null) {
+        assigned = technicianId;
+      } else if (loads.available.isEmpty()) {
+        throw new RuntimeException("No technician available");
+      } else {
+        assigned = loads.available.first().technicianId();
+      }
+      previous = loads.assign(bookingId, new Assignment(assigned, hours(jobType)));
+    }
+    AfterCommit.onRollback(() -> {
+      synchronized (loads) {
+        loads.assign(bookingId, previous);
+      }
+    });
+    return assigned;
+  }
+
+  /**
+   * Brings a booking's contribution in line with its committed state; completed jobs no longer count.
+   */
+  public void update(Long bookingId, Long technicianId, JobTypeEnum jobType, BookingStatusEnum status) {
+    BranchLoads loads = loads(BranchContext.current());
+    Assignment next = technicianId == null || status == BookingStatusEnum.REPAIR_COMPLETION
+        ? null
+        : new Assignment(technicianId, hours(jobType));
+    AfterCommit.run(() -> {
+      synchronized (loads) {
+        loads.assign(bookingId, next);
+      }
+    });
+  }
+
+  public void remove(Long bookingId) {
+    update(bookingId, null, null, null);
+  }
+
+  public void technicianChanged(Long technicianId, TechnicianStatusEnum status) {
+    BranchLoads loads = loads(BranchContext.current());
+    AfterCommit.run(() -> {
+      synchronized (loads) {
+        loads.technician(technicianId, status);
+      }
+    });
+  }
+
+  public void technicianRemoved(Long technicianId) {
+    technicianChanged(technicianId, null);
+  }
+
+  private double hours(JobTypeEnum jobType) {
+    return jobType != null ? assignmentProperties.getEstimatedHours().getOrDefault(jobType, 0.0) : 0.0;
+  }
+
+  private BranchLoads loads(String branch) {
+    return branches.computeIfAbsent(branch, b -> new BranchLoads(true));
+  }
+
+  private static TechnicianLoadDto toDto(Load load) {
+    return new TechnicianLoadDto(load.technicianId(), load.jobs(), load.hours());
+  }
+
+  private record Load(long technicianId, int jobs, double hours, boolean available) {
+    Load plus(int jobs, double hours) {
+      return new Load(technicianId, this.jobs + jobs, Math.max(0, this.hours + hours), available);
+    }
+  }
+
+  private record Assignment(long technicianId, double hours) {
+  }
+
+  // guarded by its own monitor
+  private final class BranchLoads {
+    private final TreeSet<Load> available = new TreeSet<>(LEAST_LOADED);
+    private final Map<Long, Load> technicians = new HashMap<>();
+    private final Map<Long, Assignment> bookings = new HashMap<>();
+    // live instances remember what changed while a rebuild was reading, so its snapshot does not undo it
+    private final boolean live;
+    private final Set<Long> changedBookings = new HashSet<>();
+    private final Set<Long> changedTechnicians = new HashSet<>();
+
+    BranchLoads(boolean live) {
+      this.live = live;
+    }
+
+    Assignment assign(Long bookingId, Assignment next) {
+      if (live && rebuilding) {
+        changedBookings.add(bookingId);
+      }
+      Assignment previous = next != null ? bookings.put(bookingId, next) : bookings.remove(bookingId);
+      if (previous != null) {
+        adjust(previous.technicianId(), -1, -previous.hours());
+      }
+      if (next != null) {
+        adjust(next.technicianId(), 1, next.hours());
+      }
+      return previous;
+    }
+
+    // null status: technician deleted
+    void technician(Long technicianId, TechnicianStatusEnum status) {
+      if (live && rebuilding) {
+        changedTechnicians.add(technicianId);
+      }
+      Load current = technicians.remove(technicianId);
+      if (current != null) {
+        available.remove(current);
+      }
+      if (status == null) {
+        return;
+      }
+      Load next = current != null
+          ? new Load(technicianId, current.jobs(), current.hours(), status == TechnicianStatusEnum.AVAILABLE)
+          : new Load(technicianId, 0, 0, status == TechnicianStatusEnum.AVAILABLE);
+      put(next);
+    }
+
+    void replaceWith(BranchLoads snapshot) {
+      Map<Long, Boolean> nextTechnicians = new HashMap<>();
+      snapshot.technicians.forEach((id, load) -> nextTechnicians.put(id, load.available()));
+      Map<Long, Assignment> nextBookings = new HashMap<>(snapshot.bookings);
+      for (Long id : changedTechnicians) {
+        Load current = technicians.get(id);
+        if (current != null) {
+          nextTechnicians.put(id, current.available());
+        } else {
+          nextTechnicians.remove(id);
+        }
+      }
+      for (Long id : changedBookings) {
+        Assignment current = bookings.get(id);
+        if (current != null) {
+          nextBookings.put(id, current);
+        } else {
+          nextBookings.remove(id);
+        }
+      }
+      available.clear();
+      technicians.clear();
+      bookings.clear();
+      nextTechnicians.forEach((id, isAvailable) -> put(new Load(id, 0, 0, isAvailable)));
+      nextBookings.forEach((id, assignment) -> {
+        bookings.put(id, assignment);
+        adjust(assignment.technicianId(), 1, assignment.hours());
+      });
+    }
+
+    private void adjust(long technicianId, int jobs, double hours) {
+      Load current = technicians.get(technicianId);
+      if (current == null) {
+        // assigned before the technician row was seen (rebuild order); status arrives later
+        current = new Load(technicianId, 0, 0, false);
+      } else {
+        available.remove(current);
+      }
+      put(current.plus(jobs, hours));
+    }
+
+    private void put(Load load) {
+      technicians.put(load.technicianId(), load);
+      if (load.available()) {
+        available.add(load);
+      }
+    }
+  }
+}
@@ -1,20 +1,33 @@
 package com.branch.appointment.backend.service;
 
 import com.branch.appointment.backend.dto.TechnicianDto;
+import com.branch.appointment.backend.dto.TechnicianLoadDto;
 import com.branch.appointment.backend.entity.TechnicianEntity;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.repository.BookingRepository;
 import com.branch.appointment.backend.repository.TechnicianRepository;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @AllArgsConstructor
+@Timed("bas.technician.service")
 public class TechnicianService {
 
   private final TechnicianRepository technicianRepository;
+  private final BookingRepository bookingRepository;
+  private final ChangeVersions changeVersions;
+  private final TechnicianLoadTracker technicianLoadTracker;
 
+  @Transactional(readOnly = true)
   public List<TechnicianDto> getTechnicians() {
     return technicianRepository.findAll()
         .stream()
@@ -22,6 +35,11 @@ public class TechnicianService {
         .toList();
   }
 
+  public Optional<TechnicianLoadDto> getLeastLoaded() {
+    return technicianLoadTracker.leastLoaded();
+  }
+
+  @Transactional(readOnly = true)
   public TechnicianDto getTechnician(Long id) {
     TechnicianEntity entity = technicianRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Technician not found"));
@@ -33,6 +51,8 @@ public class TechnicianService {
     entity.setName(dto.getName());
     entity.setStatus(dto.getStatus());
     TechnicianEntity saved = technicianRepository.save(entity);
+    changeVersions.bump(ResourceCollectionEnum.TECHNICIANS);
+    technicianLoadTracker.technicianChanged(saved.getId(), saved.getStatus());
     return toDto(saved);
   }
 
@@ -42,11 +62,30 @@ public class TechnicianService {
     entity.setName(dto.getName());
     entity.setStatus(dto.getStatus());
     TechnicianEntity updated = technicianRepository.save(entity);
+    changeVersions.bump(ResourceCollectionEnum.TECHNICIANS);
+    technicianLoadTracker.technicianChanged(updated.getId(), updated.getStatus());
     return toDto(updated);
   }
 
-  public void deleteTechnician(Long id) {
-    technicianRepository.deleteById(id);
+  /**
+   * Deletes a technician no booking refers to. Bookings keep their technician, so one that was ever assigned stays;
+   * setting it ON_LEAVE takes it out of assignment instead.
+   *
+   * @return false if a booking still refers to the technician
+   */
+  public boolean deleteTechnician(Long id) {
+    if (bookingRepository.existsByTechnicianId(id)) {
+      return false;
+    }
+    try {
+      technicianRepository.deleteById(id);
+    } catch (DataIntegrityViolationException e) {
+      // assigned to a booking after the check above
+      return false;
+    }
+    changeVersions.bump(ResourceCollectionEnum.TECHNICIANS);
+    technicianLoadTracker.technicianRemoved(id);
+    return true;
   }
 
   private TechnicianDto toDto(TechnicianEntity entity) {
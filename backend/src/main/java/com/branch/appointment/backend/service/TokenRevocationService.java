@@ -0,0 +1,243 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.entity.RevokedTokenEntity;
+import com.branch.appointment.backend.repository.RevokedTokenRepository;
+import com.branch.appointment.backend.utils.AfterCommit;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.RevocationFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Logout and revocation for stateless JWTs. Revocations are rows in the shared database; every node follows that
+ * table by sequence number and mirrors it into a {@link RevocationFilter}, so a request only pays for an exact
+ * lookup when the filter says its token id or subject might be revoked. Rows and filter buckets drop out once the
+ * tokens they cover have expired.
+ * <p>
+ * JWT times are whole seconds, so revocation times are truncated to seconds as well: a subject revocation at second
+ * {@code S} covers every token with {@code iat <= S}. That includes a token issued later within the same second,
+ * which errs on the side of revoking; a client that signs in again at once may have to do so a second later.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+  private static final String TOKEN_KEY = "jti:";
+  private static final String SUBJECT_KEY = "sub:";
+  private static final int FEED_PAGE = 500;
+
+  private final RevokedTokenRepository revokedTokenRepository;
+  // never read-only: a revocation must not be missed through replica lag
+  private final TransactionTemplate primaryTransaction;
+  private final Counter skipped;
+  private final Counter lookedUp;
+  private final Counter revoked;
+  private RevocationFilter filter;
+  private ScheduledExecutorService poller;
+  private volatile long cursor;
+  private long lastPurge;
+
+  @Value("${jwt.expiration}")
+  private long tokenLifetimeMillis;
+
+  @Value("${bas.auth.revocation.poll-interval:2s}")
+  private Duration pollInterval;
+
+  // rows revoked this recently are read again on every poll, whatever their sequence number
+  @Value("${bas.auth.revocation.reread-window:1m}")
+  private Duration rereadWindow;
+
+  @Value("${bas.auth.revocation.purge-interval:10m}")
+  private Duration purgeInterval;
+
+  @Value("${bas.auth.revocation.bucket:15m}")
+  private Duration bucket;
+
+  @Value("${bas.auth.revocation.expected-per-bucket:10000}")
+  private int expectedPerBucket;
+
+  @Value("${bas.auth.revocation.false-positive-rate:0.001}")
+  private double falsePositiveRate;
+
+  public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+    this.revokedTokenRepository = revokedTokenRepository;
+    this.primaryTransaction = new TransactionTemplate(transactionManager);
+    this.skipped = check(meterRegistry, "skipped");
+    this.lookedUp = check(meterRegistry, "lookup");
+    this.revoked = check(meterRegistry, "revoked");
+  }
+
+  @PostConstruct
+  void init() {
+    filter = new RevocationFilter(bucket.toMillis(), expectedPerBucket, falsePositiveRate);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    int loaded = poll();
+    log.info("Token revocation filter loaded with {} revocations", loaded);
+    poller = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "token-revocation-feed");
+      t.setDaemon(true);
+      return t;
+    });
+    poller.scheduleWithFixedDelay(this::tick, pollInterval.toMillis(), pollInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (poller != null) {
+      poller.shutdownNow();
+    }
+  }
+
+  /**
+   * True if the (already verified) token was logged out, or its subject's tokens were revoked after it was issued.
+   */
+  public boolean isRevoked(Claims claims) {
+    long expiresAt = claims.getExpiration().getTime();
+    String tokenId = claims.getId();
+    String subject = claims.getSubject();
+    boolean tokenHit = tokenId != null && filter.mightContain(TOKEN_KEY + tokenId, expiresAt);
+    boolean subjectHit = subject != null && filter.mightContain(SUBJECT_KEY + subject, expiresAt);
+    if (!tokenHit && !subjectHit) {
+      skipped.increment();
+      return false;
+    }
+    lookedUp.increment();
+    Instant issuedAt = claims.getIssuedAt() != null
+        ? claims.getIssuedAt().toInstant().truncatedTo(ChronoUnit.SECONDS)
+        : Instant.EPOCH;
+    boolean isRevoked = onPrimary(() -> (tokenHit && revokedTokenRepository.existsByTokenId(tokenId))
+        || (subjectHit && revokedTokenRepository
+        .existsBySubjectAndTokenIdIsNullAndRevokedAtGreaterThanEqual(subject, issuedAt)));
+    if (isRevoked) {
+      revoked.increment();
+    }
+    return isRevoked;
+  }
+
+  /**
+   * Revokes one token (logout). Tokens issued without an id can only be revoked with everything their subject holds.
+   */
+  public void revokeToken(Claims claims) {
+    if (claims.getId() == null) {
+      revokeSubject(claims.getSubject());
+      return;
+    }
+    Instant expiresAt = claims.getExpiration().toInstant();
+    String tokenId = claims.getId();
+    onPrimary(() -> revokedTokenRepository.save(
+        new RevokedTokenEntity(null, tokenId, claims.getSubject(), now(), expiresAt)));
+    // this node applies it right away; the others pick it up from the feed
+    AfterCommit.run(() -> filter.add(TOKEN_KEY + tokenId, expiresAt.toEpochMilli()));
+  }
+
+  /**
+   * Revokes every token issued to {@code subject} up to now, e.g. when the user is removed or locked out.
+   */
+  public void revokeSubject(String subject) {
+    Instant now = now();
+    // a token issued late in second `now` expires up to a second after now + lifetime
+    Instant expiresAt = now.plusMillis(tokenLifetimeMillis).plusSeconds(1);
+    onPrimary(() -> revokedTokenRepository.save(new RevokedTokenEntity(null, null, subject, now, expiresAt)));
+    AfterCommit.run(() -> filter.addRange(SUBJECT_KEY + subject, now.toEpochMilli(), expiresAt.toEpochMilli()));
+  }
+
+  void tick() {
+    try {
+      poll();
+      long now = System.currentTimeMillis();
+      filter.expire(now);
+      if (now - lastPurge >= purgeInterval.toMillis()) {
+        lastPurge = now;
+        int purged = onPrimary(() -> revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now)));
+        if (purged > 0) {
+          log.debug("Purged {} expired token revocations", purged);
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("Token revocation feed failed; retrying next tick", e);
+    }
+  }
+
+  // applies every revocation after the cursor, plus the recent ones again; returns how many were read
+  int poll() {
+    int read = 0;
+    long now = System.currentTimeMillis();
+    // identity values can commit out of order, so a row below the cursor may only just have become visible; it was
+    // stamped before it committed, so reading the last few seconds' rows again catches it. Re-adding is harmless.
+    if (cursor > 0) {
+      Instant recent = Instant.ofEpochMilli(now).minus(rereadWindow);
+      List<RevokedTokenEntity> rows = onPrimary(() -> revokedTokenRepository.findByRevokedAtGreaterThanEqual(recent));
+      rows.forEach(row -> apply(row, now));
+      read += rows.size();
+    }
+    long since = cursor;
+    while (true) {
+      long after = since;
+      List<RevokedTokenEntity> page = onPrimary(() -> revokedTokenRepository
+          .findBySeqGreaterThanOrderBySeqAsc(after, PageRequest.of(0, FEED_PAGE)));
+      for (RevokedTokenEntity row : page) {
+        apply(row, now);
+        since = row.getSeq();
+      }
+      cursor = Math.max(cursor, since);
+      read += page.size();
+      if (page.size() < FEED_PAGE) {
+        return read;
+      }
+    }
+  }
+
+  private void apply(RevokedTokenEntity row, long now) {
+    long expiresAt = row.getExpiresAt().toEpochMilli();
+    if (expiresAt < now) {
+      return;
+    }
+    if (row.getTokenId() != null) {
+      filter.add(TOKEN_KEY + row.getTokenId(), expiresAt);
+    } else {
+      filter.addRange(SUBJECT_KEY + row.getSubject(), row.getRevokedAt().toEpochMilli(), expiresAt);
+    }
+  }
+
+  private static Instant now() {
+    return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  // users live in the shared database whatever branch the caller is in
+  private <T> T onPrimary(Supplier<T> action) {
+    return BranchContext.callAs(BranchContext.DEFAULT_BRANCH, () -> primaryTransaction.execute(status -> action.get()));
+  }
+
+  private static Counter check(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("bas.auth.revocation.checks")
+        .description("Token revocation checks by outcome; skipped ones never left the Bloom filter")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,40 @@
+package com.branch.appointment.backend.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write until its transaction commits; runs immediately outside one.
+ * {@link #onRollback} is the counterpart for state that has to change eagerly and be undone on failure.
+ */
+public final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  public static void run(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  public static void onRollback(Runnable undo) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            undo.run();
+          }
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.branch.appointment.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings: no false negatives, false positives at about the configured rate once
+ * {@code expectedInsertions} keys are in. Bits are set atomically, so adds and lookups need no lock.
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bits;
+  private final int hashes;
+
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+    this.bits = words.length() * 64L;
+    this.hashes = Math.max(1, (int) Math.round((double) bits / Math.max(1, expectedInsertions) * Math.log(2)));
+  }
+
+  public void put(String key) {
+    long h1 = hash(key);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bits);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = words.get(word);
+      while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+        current = words.get(word);
+      }
+    }
+  }
+
+  public boolean mightContain(String key) {
+    long h1 = hash(key);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bits);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // 64-bit FNV-1a over the UTF-8 bytes, then a finalizer so nearby keys spread
+  private static long hash(String key) {
+    long h = 0xCBF29CE484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001B3L;
+    }
+    return mix(h);
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,47 @@
+package com.branch.appointment.backend.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Branch (tenant) of the current thread, taken from the JWT {@code branch} claim by
+ * {@code JwtAuthenticationFilter}. Unauthenticated work runs against {@link #DEFAULT_BRANCH}.
+ */
+public final class BranchContext {
+
+  public static final String DEFAULT_BRANCH = "MAIN";
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private BranchContext() {
+  }
+
+  public static String current() {
+    String branch = CURRENT.get();
+    return branch != null ? branch : DEFAULT_BRANCH;
+  }
+
+  public static void set(String branch) {
+    CURRENT.set(branch);
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  public static void runAs(String branch, Runnable action) {
+    callAs(branch, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  public static <T> T callAs(String branch, Supplier<T> action) {
+    String previous = CURRENT.get();
+    CURRENT.set(branch);
+    try {
+      return action.get();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.branch.appointment.backend.utils;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.repository.BookingRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Runs a tenant-filtered query once per branch that has bookings, across the shared and every dedicated
+ * database. Used by the in-memory indexes to rebuild on startup with typed JPQL projections.
+ */
+@Component
+public class BranchScanner {
+
+  private final BranchProperties branchProperties;
+  private final BookingRepository bookingRepository;
+
+  public BranchScanner(BranchProperties branchProperties, BookingRepository bookingRepository) {
+    this.branchProperties = branchProperties;
+    this.bookingRepository = bookingRepository;
+  }
+
+  public <T> List<T> collect(Supplier<List<T>> query) {
+    Set<String> databases = new LinkedHashSet<>();
+    databases.add(BranchContext.DEFAULT_BRANCH);
+    databases.addAll(branchProperties.getDedicated().keySet());
+    Set<String> branches = new LinkedHashSet<>();
+    for (String database : databases) {
+      branches.addAll(BranchContext.callAs(database, bookingRepository::findBranchCodes));
+    }
+    List<T> rows = new ArrayList<>();
+    for (String branch : branches) {
+      rows.addAll(BranchContext.callAs(branch, query));
+    }
+    return rows;
+  }
+}
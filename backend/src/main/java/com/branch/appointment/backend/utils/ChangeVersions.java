@@ -0,0 +1,182 @@
+package com.branch.appointment.backend.utils;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.config.ReplicaProperties;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Change counters per branch and collection, bumped by the service write methods and used as ETags. Each bump
+ * increments the collection's row in {@code BAS_Change_Versions} once the write has committed, and every node
+ * re-reads those rows every {@code bas.etag.sync-interval}, so a write on one node stops the others answering 304 for
+ * the old tag within that interval. A node's own counters only move forward, to the highest value it has seen.
+ */
+@Component
+@Slf4j
+public class ChangeVersions {
+
+  private static final String INCREMENT = "update BAS_Change_Versions set Version = Version + 1"
+      + " where Branch_Code = ? and Collection_Name = ?";
+  private static final String CREATE = "insert into BAS_Change_Versions (Branch_Code, Collection_Name, Version)"
+      + " values (?, ?, 1)";
+  private static final String SELECT = "select Version from BAS_Change_Versions"
+      + " where Branch_Code = ? and Collection_Name = ?";
+  private static final String SELECT_ALL = "select Branch_Code, Collection_Name, Version from BAS_Change_Versions";
+
+  private final Map<String, AtomicLongArray> versionsByBranch = new ConcurrentHashMap<>();
+  private final BranchProperties branchProperties;
+  private final JdbcTemplate jdbcTemplate;
+  // its own short transaction: bumps run after the writer's transaction has committed
+  private final TransactionTemplate newTransaction;
+  private final long syncMillis;
+  private final long settleMillis;
+  private final ScheduledExecutorService scheduler;
+
+  public ChangeVersions(ReplicaProperties replicaProperties,
+                        BranchProperties branchProperties,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${bas.etag.sync-interval:1s}") Duration syncInterval) {
+    this.branchProperties = branchProperties;
+    this.jdbcTemplate = jdbcTemplate;
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.syncMillis = syncInterval.toMillis();
+    // A replica may still serve pre-write rows under the new version for up to max-lag (plus one health
+    // check); bumping again once that window has passed invalidates anything cached in between.
+    this.settleMillis = replicaProperties.getReplicas().isEmpty()
+        ? 0
+        : replicaProperties.getMaxLag().plus(replicaProperties.getHealthCheckInterval()).toMillis();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "change-versions");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    sync();
+    scheduler.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    scheduler.shutdownNow();
+  }
+
+  public long current(ResourceCollectionEnum collection) {
+    return versions(BranchContext.current()).get(collection.ordinal());
+  }
+
+  /**
+   * Bumps after the surrounding transaction commits, so a reader can never pair the new version with old rows.
+   */
+  public void bump(ResourceCollectionEnum collection) {
+    String branch = BranchContext.current();
+    AfterCommit.run(() -> {
+      increment(branch, collection);
+      if (settleMillis > 0) {
+        scheduler.schedule(() -> increment(branch, collection), settleMillis, TimeUnit.MILLISECONDS);
+      }
+    });
+  }
+
+  public String etag(ResourceCollectionEnum... collections) {
+    String branch = BranchContext.current();
+    AtomicLongArray versions = versions(branch);
+    StringBuilder sb = new StringBuilder(branch);
+    for (ResourceCollectionEnum collection : collections) {
+      sb.append('-').append(versions.get(collection.ordinal()));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Catches up with bumps made by other nodes.
+   */
+  void sync() {
+    Set<String> databases = new LinkedHashSet<>();
+    databases.add(BranchContext.DEFAULT_BRANCH);
+    databases.addAll(branchProperties.getDedicated().keySet());
+    for (String database : databases) {
+      try {
+        BranchContext.runAs(database, () -> jdbcTemplate.query(SELECT_ALL, rs -> {
+          ResourceCollectionEnum collection = collection(rs.getString(2));
+          if (collection != null) {
+            advance(rs.getString(1), collection, rs.getLong(3));
+          }
+        }));
+      } catch (DataAccessException e) {
+        log.warn("Could not read change versions from the {} database: {}", database, e.getMessage());
+      }
+    }
+  }
+
+  private void increment(String branch, ResourceCollectionEnum collection) {
+    try {
+      advance(branch, collection, incrementShared(branch, collection));
+    } catch (DataAccessException e) {
+      // other nodes miss this bump until the next one, but this node's tags still move
+      log.warn("Could not share a {} version bump for branch {}: {}", collection, branch, e.getMessage());
+      versions(branch).incrementAndGet(collection.ordinal());
+    }
+  }
+
+  private long incrementShared(String branch, ResourceCollectionEnum collection) {
+    try {
+      return incrementSharedOnce(branch, collection);
+    } catch (DuplicateKeyException e) {
+      // another node created the row first; it is there to update now
+      return incrementSharedOnce(branch, collection);
+    }
+  }
+
+  private long incrementSharedOnce(String branch, ResourceCollectionEnum collection) {
+    return BranchContext.callAs(branch, () -> newTransaction.execute(status -> {
+      if (jdbcTemplate.update(INCREMENT, branch, collection.name()) == 0) {
+        jdbcTemplate.update(CREATE, branch, collection.name());
+      }
+      return jdbcTemplate.queryForObject(SELECT, Long.class, branch, collection.name());
+    }));
+  }
+
+  private void advance(String branch, ResourceCollectionEnum collection, long version) {
+    versions(branch).accumulateAndGet(collection.ordinal(), version, Math::max);
+  }
+
+  private AtomicLongArray versions(String branch) {
+    return versionsByBranch.computeIfAbsent(branch, b -> new AtomicLongArray(ResourceCollectionEnum.values().length));
+  }
+
+  // null for rows written by a build with a collection this one doesn't know
+  private static ResourceCollectionEnum collection(String name) {
+    for (ResourceCollectionEnum collection : ResourceCollectionEnum.values()) {
+      if (collection.name().equals(name)) {
+        return collection;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,100 @@
+package com.branch.appointment.backend.utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Small per-instance cache with a fixed TTL. Concurrent misses on one key share a single load; callers put the data
+ * version into the key, so the TTL only bounds how long superseded entries linger. Every entry lives for the same
+ * TTL, so insertion order is expiry order and a full cache drops its oldest entries first.
+ */
+public class ExpiringCache<K, V> {
+
+  // guarded by this; loads run outside the lock
+  private final Map<K, Entry<V>> entries = new LinkedHashMap<>();
+  private final long ttlMillis;
+  private final int maxEntries;
+
+  public ExpiringCache(Duration ttl, int maxEntries) {
+    this.ttlMillis = ttl.toMillis();
+    this.maxEntries = maxEntries;
+  }
+
+  public V get(K key, Supplier<V> loader) {
+    long now = System.currentTimeMillis();
+    Entry<V> cached;
+    Entry<V> fresh = null;
+    synchronized (this) {
+      cached = entries.get(key);
+      if (cached == null || cached.expiresAt <= now) {
+        fresh = new Entry<>(now + ttlMillis);
+        entries.remove(key); // re-inserted at the tail, where the newest entries are
+        entries.put(key, fresh);
+        evict(now);
+      }
+    }
+    if (fresh == null) {
+      return join(cached);
+    }
+    try {
+      V value = loader.get();
+      fresh.value.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      // don't cache failures; waiters get the same exception, unwrapped
+      synchronized (this) {
+        entries.remove(key, fresh);
+      }
+      fresh.value.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private void evict(long now) {
+    Iterator<Entry<V>> oldestFirst = entries.values().iterator();
+    while (oldestFirst.hasNext()) {
+      Entry<V> oldest = oldestFirst.next();
+      if (entries.size() <= maxEntries && oldest.expiresAt > now) {
+        return;
+      }
+      // a load still in flight finishes for whoever already waits on it
+      oldestFirst.remove();
+    }
+  }
+
+  private static <V> V join(Entry<V> entry) {
+    try {
+      return entry.value.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static final class Entry<V> {
+    private final CompletableFuture<V> value = new CompletableFuture<>();
+    private final long expiresAt;
+
+    Entry(long expiresAt) {
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.branch.appointment.backend.utils;
+
+import com.branch.appointment.backend.metrics.RequestStats;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs part of a request on another thread with the caller's branch, security context and {@link RequestStats}, so
+ * tenant filtering, replica stickiness, method security and the request's query budget behave as they would on the
+ * request thread.
+ */
+public final class FanOut {
+
+  private FanOut() {
+  }
+
+  public static <T> CompletableFuture<T> fork(Executor executor, Supplier<T> task) {
+    String branch = BranchContext.current();
+    SecurityContext security = SecurityContextHolder.getContext();
+    RequestStats stats = RequestStats.current();
+    return CompletableFuture.supplyAsync(() -> {
+      SecurityContext previous = SecurityContextHolder.getContext();
+      SecurityContextHolder.setContext(security);
+      RequestStats previousStats = RequestStats.attach(stats);
+      try {
+        return BranchContext.callAs(branch, task);
+      } finally {
+        RequestStats.restore(previousStats);
+        SecurityContextHolder.setContext(previous);
+      }
+    }, executor);
+  }
+}
@@ -0,0 +1,124 @@
+package com.branch.appointment.backend.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded in-memory store of responses keyed by {@code Idempotency-Key}. The first request for a key owns it;
+ * concurrent duplicates wait on the owner's future and replay its result. Entries are per instance.
+ * <p>
+ * Entries are kept in insertion order, which is also (nearly) expiry order since every entry lives for the same
+ * TTL after it completes; eviction walks from the oldest and stops at the first entry it has to keep.
+ */
+@Component
+public class IdempotencyStore {
+
+  // guarded by this
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+  @Value("${bas.idempotency.ttl:24h}")
+  private Duration ttl;
+
+  @Value("${bas.idempotency.max-entries:10000}")
+  private int maxEntries;
+
+  /**
+   * SHA-256 of the request body; a retry must send the same bytes.
+   */
+  public static byte[] fingerprint(byte[] body) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(body);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e); // every JRE ships SHA-256
+    }
+  }
+
+  public Claim claim(String key, byte[] fingerprint) {
+    return claim(key, fingerprint, System.currentTimeMillis());
+  }
+
+  synchronized Claim claim(String key, byte[] fingerprint, long now) {
+    Entry current = entries.get(key);
+    if (current != null && !current.isExpired(now)) {
+      return new Claim(current, false);
+    }
+    if (current != null) {
+      entries.remove(key);
+    }
+    evict(now);
+    Entry fresh = new Entry(fingerprint);
+    entries.put(key, fresh);
+    return new Claim(fresh, true);
+  }
+
+  public void complete(Entry entry, StoredResponse response) {
+    complete(entry, response, System.currentTimeMillis());
+  }
+
+  void complete(Entry entry, StoredResponse response, long now) {
+    entry.expiresAt = now + ttl.toMillis();
+    entry.result.complete(response);
+  }
+
+  // owner failed: release the key and wake waiters so one of them can retry
+  public void abandon(String key, Entry entry) {
+    synchronized (this) {
+      entries.remove(key, entry);
+    }
+    entry.result.complete(null);
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  // makes room for one more entry; in-flight entries are never dropped, so a burst of them can exceed the bound
+  private void evict(long now) {
+    Iterator<Entry> oldestFirst = entries.values().iterator();
+    while (oldestFirst.hasNext()) {
+      Entry oldest = oldestFirst.next();
+      boolean full = entries.size() >= maxEntries;
+      if (oldest.isExpired(now) || (full && oldest.result.isDone())) {
+        oldestFirst.remove();
+      } else if (!full && oldest.result.isDone()) {
+        return; // later entries were claimed after it and rarely expire sooner; their own claim replaces them if they do
+      }
+    }
+  }
+
+  public record Claim(Entry entry, boolean owner) {
+  }
+
+  public record StoredResponse(int status, String contentType, byte[] body) {
+  }
+
+  public static final class Entry {
+    private final byte[] fingerprint;
+    private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+    private volatile long expiresAt = Long.MAX_VALUE; // in-flight entries never expire
+
+    private Entry(byte[] fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+
+    public boolean matches(byte[] otherFingerprint) {
+      return MessageDigest.isEqual(fingerprint, otherFingerprint);
+    }
+
+    public CompletableFuture<StoredResponse> getResult() {
+      return result;
+    }
+
+    private boolean isExpired(long now) {
+      return now > expiresAt;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.branch.appointment.backend.utils;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted set (a treap) whose nodes also track subtree size and summed weight, so the rank of a key and the total
+ * weight of everything before it come out in O(log n) alongside insert and remove. Not thread-safe.
+ */
+public class OrderStatisticTree<K> {
+
+  private final Comparator<? super K> order;
+  private final SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+  private Node<K> root;
+
+  public OrderStatisticTree(Comparator<? super K> order) {
+    this.order = order;
+  }
+
+  /**
+   * Adds {@code key}, or updates its weight if already present.
+   */
+  public void put(K key, long weight) {
+    remove(key);
+    Node<K>[] parts = split(root, key);
+    root = merge(merge(parts[0], new Node<>(key, weight, random.nextInt())), parts[1]);
+  }
+
+  public boolean remove(K key) {
+    Node<K>[] parts = split(root, key);
+    Node<K> rest = parts[1];
+    boolean found = rest != null && order.compare(first(rest).key, key) == 0;
+    if (found) {
+      rest = removeFirst(rest);
+    }
+    root = merge(parts[0], rest);
+    return found;
+  }
+
+  /**
+   * Number of keys ordered strictly before {@code key}; the key itself need not be present.
+   */
+  public int rank(K key) {
+    int rank = 0;
+    for (Node<K> node = root; node != null; ) {
+      if (order.compare(key, node.key) <= 0) {
+        node = node.left;
+      } else {
+        rank += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    return rank;
+  }
+
+  /**
+   * Summed weight of the keys ordered strictly before {@code key}.
+   */
+  public long weightBefore(K key) {
+    long weight = 0;
+    for (Node<K> node = root; node != null; ) {
+      if (order.compare(key, node.key) <= 0) {
+        node = node.left;
+      } else {
+        weight += weight(node.left) + node.weight;
+        node = node.right;
+      }
+    }
+    return weight;
+  }
+
+  public int size() {
+    return size(root);
+  }
+
+  // [keys < key, keys >= key]
+  @SuppressWarnings("unchecked")
+  private Node<K>[] split(Node<K> node, K key) {
+    if (node == null) {
+      return new Node[] {null, null};
+    }
+    if (order.compare(node.key, key) < 0) {
+      Node<K>[] parts = split(node.right, key);
+      node.right = parts[0];
+      parts[0] = node.update();
+      return parts;
+    }
+    Node<K>[] parts = split(node.left, key);
+    node.left = parts[1];
+    parts[1] = node.update();
+    return parts;
+  }
+
+  // every key in a orders before every key in b
+  private static <K> Node<K> merge(Node<K> a, Node<K> b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    if (a.priority > b.priority) {
+      a.right = merge(a.right, b);
+      return a.update();
+    }
+    b.left = merge(a, b.left);
+    return b.update();
+  }
+
+  private static <K> Node<K> first(Node<K> node) {
+    while (node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  private static <K> Node<K> removeFirst(Node<K> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeFirst(node.left);
+    return node.update();
+  }
+
+  private static int size(Node<?> node) {
+    return node != null ? node.size : 0;
+  }
+
+  private static long weight(Node<?> node) {
+    return node != null ? node.totalWeight : 0;
+  }
+
+  private static final class Node<K> {
+    private final K key;
+    private final long weight;
+    private final int priority;
+    private Node<K> left;
+    private Node<K> right;
+    private int size = 1;
+    private long totalWeight;
+
+    Node(K key, long weight, int priority) {
+      this.key = key;
+      this.weight = weight;
+      this.priority = priority;
+      this.totalWeight = weight;
+    }
+
+    Node<K> update() {
+      size = 1 + size(left) + size(right);
+      totalWeight = weight + weight(left) + weight(right);
+      return this;
+    }
+  }
+}
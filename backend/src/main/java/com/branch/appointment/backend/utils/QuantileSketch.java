@@ -0,0 +1,69 @@
+package com.branch.appointment.backend.utils;
+
+/**
+ * Streaming quantile sketch over positive values with log-spaced buckets (DDSketch style): every quantile comes back
+ * within {@code relativeAccuracy} of a true sample value. Adding is O(1), memory is fixed by the accuracy and the
+ * largest value tracked (larger values count in the top bucket), and sketches with the same settings merge by adding
+ * counts. Not thread-safe.
+ */
+public class QuantileSketch {
+
+  private final double relativeAccuracy;
+  private final double gamma;
+  private final double logGamma;
+  private final long[] counts;
+  private long count;
+
+  public QuantileSketch(double relativeAccuracy, double maxValue) {
+    if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+      throw new IllegalArgumentException("Relative accuracy must be in (0, 1)");
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+    this.counts = new long[bucket(Math.max(maxValue, 1)) + 1];
+  }
+
+  // values up to 1 share bucket 0
+  public void add(double value) {
+    counts[Math.min(bucket(value), counts.length - 1)]++;
+    count++;
+  }
+
+  public void merge(QuantileSketch other) {
+    if (other.relativeAccuracy != relativeAccuracy || other.counts.length != counts.length) {
+      throw new IllegalArgumentException("Sketches differ in accuracy or range");
+    }
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+  }
+
+  /**
+   * Value at quantile {@code q} in [0, 1], or NaN when empty.
+   */
+  public double quantile(double q) {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = Math.max(1, (long) Math.ceil(q * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        // bucket i holds (gamma^(i-1), gamma^i]; this point is within the accuracy of both ends
+        return i == 0 ? 1 : 2 * Math.pow(gamma, i) / (gamma + 1);
+      }
+    }
+    return 2 * Math.pow(gamma, counts.length - 1) / (gamma + 1);
+  }
+
+  public long count() {
+    return count;
+  }
+
+  private int bucket(double value) {
+    return value <= 1 ? 0 : (int) Math.ceil(Math.log(value) / logGamma);
+  }
+}
@@ -0,0 +1,57 @@
+package com.branch.appointment.backend.utils;
+
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Bloom filters bucketed by token expiry time. A revoked key only matters until the tokens it covers expire, so it
+ * goes into the bucket(s) of those expiry times, a lookup checks the one bucket of the token's own expiry, and
+ * whole buckets are dropped once their time has passed, so entries age out without deletes.
+ */
+public class RevocationFilter {
+
+  private final long bucketMillis;
+  private final int expectedPerBucket;
+  private final double falsePositiveRate;
+  private final ConcurrentNavigableMap<Long, BloomFilter> buckets = new ConcurrentSkipListMap<>();
+
+  public RevocationFilter(long bucketMillis, int expectedPerBucket, double falsePositiveRate) {
+    this.bucketMillis = bucketMillis;
+    this.expectedPerBucket = expectedPerBucket;
+    this.falsePositiveRate = falsePositiveRate;
+  }
+
+  /**
+   * Covers tokens expiring at {@code expiresAtMillis} (one token id).
+   */
+  public void add(String key, long expiresAtMillis) {
+    addRange(key, expiresAtMillis, expiresAtMillis);
+  }
+
+  /**
+   * Covers tokens expiring anywhere in {@code [fromMillis, toMillis]} (e.g. everything a user holds).
+   */
+  public void addRange(String key, long fromMillis, long toMillis) {
+    for (long bucket = bucket(fromMillis); bucket <= bucket(toMillis); bucket++) {
+      buckets.computeIfAbsent(bucket, b -> new BloomFilter(expectedPerBucket, falsePositiveRate)).put(key);
+    }
+  }
+
+  public boolean mightContain(String key, long expiresAtMillis) {
+    BloomFilter filter = buckets.get(bucket(expiresAtMillis));
+    return filter != null && filter.mightContain(key);
+  }
+
+  // buckets wholly in the past only cover tokens that are already expired
+  public void expire(long nowMillis) {
+    buckets.headMap(bucket(nowMillis)).clear();
+  }
+
+  public int buckets() {
+    return buckets.size();
+  }
+
+  private long bucket(long millis) {
+    return Math.floorDiv(millis, bucketMillis);
+  }
+}
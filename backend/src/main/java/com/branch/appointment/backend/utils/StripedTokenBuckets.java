@@ -0,0 +1,100 @@
+package com.branch.appointment.backend.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets spread over lock stripes: callers only contend when their keys hash to the same stripe,
+ * and each critical section is a map lookup plus a few arithmetic operations. Each stripe holds at most
+ * {@code maxBucketsPerStripe} buckets and drops its least recently used one to admit a new key.
+ */
+public class StripedTokenBuckets {
+
+  public static final int DEFAULT_MAX_BUCKETS_PER_STRIPE = 4096;
+
+  private final Stripe[] stripes;
+  private final int mask;
+
+  public StripedTokenBuckets(int concurrency) {
+    this(concurrency, DEFAULT_MAX_BUCKETS_PER_STRIPE);
+  }
+
+  public StripedTokenBuckets(int concurrency, int maxBucketsPerStripe) {
+    int size = concurrency <= 1 ? 1 : Integer.highestOneBit(concurrency - 1) << 1; // next power of two
+    this.stripes = new Stripe[size];
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe(maxBucketsPerStripe);
+    }
+  }
+
+  /**
+   * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+   */
+  public long tryAcquire(String key, int capacity, double refillPerSecond) {
+    int h = key.hashCode();
+    Stripe stripe = stripes[(h ^ (h >>> 16)) & mask];
+    long now = System.nanoTime();
+    synchronized (stripe) {
+      Bucket bucket = stripe.buckets.get(key);
+      if (bucket == null) {
+        bucket = new Bucket(capacity, refillPerSecond, now);
+        stripe.buckets.put(key, bucket);
+      }
+      return bucket.tryTake(now);
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.buckets.size();
+      }
+    }
+    return size;
+  }
+
+  private static final class Stripe {
+    private final Map<String, Bucket> buckets;
+
+    // access order: get() moves a key to the tail, so the head is the caller idle the longest, whose bucket has
+    // most likely refilled and would be indistinguishable from a new one
+    private Stripe(int maxBuckets) {
+      this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+          return size() > maxBuckets;
+        }
+      };
+    }
+  }
+
+  private static final class Bucket {
+    private final int capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    private Bucket(int capacity, double refillPerSecond, long now) {
+      this.capacity = capacity;
+      this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+      this.tokens = capacity;
+      this.lastRefill = now;
+    }
+
+    private double available(long now) {
+      return Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+    }
+
+    private long tryTake(long now) {
+      tokens = available(now);
+      lastRefill = now;
+      if (tokens >= 1) {
+        tokens -= 1;
+        return 0;
+      }
+      return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+    }
+  }
+}
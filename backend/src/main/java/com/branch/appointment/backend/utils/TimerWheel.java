@@ -0,0 +1,95 @@
+package com.branch.appointment.backend.utils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hashed timer wheel: schedule and cancel are O(1); advancing one tick scans one slot.
+ * Deadlines beyond one revolution stay in their slot and are skipped until their tick comes round.
+ * Not thread-safe; callers synchronize.
+ */
+public class TimerWheel<T> {
+
+  private final long tickMillis;
+  private final int mask;
+  private final List<Set<Timer<T>>> slots;
+  private long lastTick;
+  private int size;
+
+  public TimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+    int slotCount = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1; // next power of two
+    this.tickMillis = tickMillis;
+    this.mask = slotCount - 1;
+    this.slots = new ArrayList<>(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      slots.add(new HashSet<>());
+    }
+    this.lastTick = nowMillis / tickMillis;
+  }
+
+  public Timer<T> schedule(T payload, long deadlineMillis) {
+    // anything already due fires on the next advance
+    long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+    Timer<T> timer = new Timer<>(payload, tick);
+    slot(tick).add(timer);
+    size++;
+    return timer;
+  }
+
+  public void cancel(Timer<T> timer) {
+    if (slot(timer.tick).remove(timer)) {
+      size--;
+    }
+  }
+
+  /**
+   * Moves the wheel to {@code nowMillis} and returns the payloads whose deadline has passed.
+   */
+  public List<T> advance(long nowMillis) {
+    long nowTick = nowMillis / tickMillis;
+    List<T> expired = new ArrayList<>();
+    if (nowTick <= lastTick) {
+      return expired;
+    }
+    // after a long pause every slot is due for a look, but only once
+    long ticks = Math.min(nowTick - lastTick, slots.size());
+    for (long t = lastTick + 1; t <= lastTick + ticks; t++) {
+      Iterator<Timer<T>> it = slot(t).iterator();
+      while (it.hasNext()) {
+        Timer<T> timer = it.next();
+        if (timer.tick <= nowTick) {
+          it.remove();
+          size--;
+          expired.add(timer.payload);
+        }
+      }
+    }
+    lastTick = nowTick;
+    return expired;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private Set<Timer<T>> slot(long tick) {
+    return slots.get((int) (tick & mask));
+  }
+
+  public static final class Timer<T> {
+    private final T payload;
+    private final long tick;
+
+    private Timer(T payload, long tick) {
+      this.payload = payload;
+      this.tick = tick;
+    }
+
+    public T getPayload() {
+      return payload;
+    }
+  }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class TokenGeneration {
@@ -33,10 +34,12 @@ public class TokenGeneration {
 
   public String generateToken(UserEntity user) {
     return Jwts.builder()
+        .id(UUID.randomUUID().toString()) // lets a single token be revoked on logout
         .subject(user.getEmail()) // or userId if you prefer
         .claim("id", user.getUserId())
         .claim("role", user.getRole().name())
         .claim("name", user.getName())
+        .claim("branch", user.getBranchCode())
         .issuedAt(new Date())
         .expiration(new Date(System.currentTimeMillis() + expiration))
         .signWith(key)
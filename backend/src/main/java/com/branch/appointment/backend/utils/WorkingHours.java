@@ -0,0 +1,83 @@
+package com.branch.appointment.backend.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Workshop clock: arithmetic over opening hours only ({@code bas.availability.opening-time} to
+ * {@code closing-time}, every day), so job estimates and measured durations skip nights.
+ */
+@Component
+public class WorkingHours {
+
+  private final LocalTime openingTime;
+  private final LocalTime closingTime;
+  private final long minutesPerDay;
+
+  public WorkingHours(@Value("${bas.availability.opening-time:08:00}") LocalTime openingTime,
+                      @Value("${bas.availability.closing-time:18:00}") LocalTime closingTime) {
+    if (!closingTime.isAfter(openingTime)) {
+      throw new IllegalArgumentException("Closing time must be after opening time");
+    }
+    long minutesPerDay = Duration.between(openingTime, closingTime).toMinutes();
+    if (minutesPerDay <= 0) {
+      throw new IllegalArgumentException("Working day must be at least one minute long");
+    }
+    this.openingTime = openingTime;
+    this.closingTime = closingTime;
+    this.minutesPerDay = minutesPerDay;
+  }
+
+  public LocalTime openingTime() {
+    return openingTime;
+  }
+
+  /**
+   * {@code from} moved forward by {@code minutes} of working time, rolling past closing into the next opening.
+   */
+  public LocalDateTime plus(LocalDateTime from, long minutes) {
+    LocalDateTime t = from;
+    if (t.toLocalTime().isBefore(openingTime)) {
+      t = t.toLocalDate().atTime(openingTime);
+    } else if (!t.toLocalTime().isBefore(closingTime)) {
+      t = t.toLocalDate().plusDays(1).atTime(openingTime);
+    }
+    long today = Duration.between(t, t.toLocalDate().atTime(closingTime)).toMinutes();
+    if (minutes <= today) {
+      return t.plusMinutes(minutes);
+    }
+    // whole working days in one step, so a huge estimate costs the same as a small one
+    long remaining = minutes - today;
+    long fullDays = (remaining - 1) / minutesPerDay;
+    return t.toLocalDate().plusDays(1 + fullDays).atTime(openingTime)
+        .plusMinutes(remaining - fullDays * minutesPerDay);
+  }
+
+  /**
+   * Working minutes between {@code from} and {@code to}; zero if {@code to} is not after {@code from}.
+   */
+  public long minutesBetween(LocalDateTime from, LocalDateTime to) {
+    long minutes = 0;
+    for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+      LocalDateTime start = max(from, day.atTime(openingTime));
+      LocalDateTime end = min(to, day.atTime(closingTime));
+      if (end.isAfter(start)) {
+        minutes += Duration.between(start, end).toMinutes();
+      }
+    }
+    return minutes;
+  }
+
+  private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+    return a.isAfter(b) ? a : b;
+  }
+
+  private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+    return a.isBefore(b) ? a : b;
+  }
+}
@@ -0,0 +1,147 @@
+package com.branch.appointment.backend.config;
+
+import com.branch.appointment.backend.utils.BranchContext;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MAIN lives in the primary H2 database and NORTH in a dedicated one; EAST is a known branch sharing the primary.
+ */
+class BranchTenancyTest {
+
+  private static final String TABLE_COUNT = "select count(*) from information_schema.tables where table_name = ?";
+
+  private final DataSource primary = database();
+  private final DataSource north = database();
+  private final BranchRoutingDataSource routing = new BranchRoutingDataSource();
+  private SessionFactory sessionFactory;
+
+  @BeforeEach
+  void setUp() {
+    routing.setDefaultTargetDataSource(primary);
+    routing.setTargetDataSources(Map.of("NORTH", north));
+    routing.afterPropertiesSet();
+
+    Configuration configuration = new Configuration()
+        .addAnnotatedClass(Ticket.class)
+        .addAnnotatedClass(Account.class)
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "update");
+    configuration.getProperties().put(AvailableSettings.DATASOURCE, routing);
+    configuration.getProperties().put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new BranchTenantResolver());
+    // like the application: the tables are created while no branch is bound, i.e. on the primary only
+    sessionFactory = configuration.buildSessionFactory();
+
+    BranchProperties properties = new BranchProperties();
+    properties.getDedicated().put("NORTH", new BranchProperties.DedicatedDataSource());
+    new BranchSchemaInitializer(properties, routing, sessionFactory).initialize();
+  }
+
+  @AfterEach
+  void tearDown() {
+    BranchContext.clear();
+    sessionFactory.close();
+  }
+
+  @Test
+  void dedicatedBranchGetsTheSchemaAndItsOwnRows() {
+    BranchContext.runAs("NORTH", () -> persist("north job"));
+    persist("main job");
+
+    assertEquals(List.of("north job"), new JdbcTemplate(north).queryForList("select title from ticket", String.class));
+    assertEquals(List.of("main job"), new JdbcTemplate(primary).queryForList("select title from ticket", String.class));
+  }
+
+  @Test
+  void entitiesWithoutATenantStayInTheSharedDatabase() {
+    assertEquals(1, new JdbcTemplate(primary).queryForObject(TABLE_COUNT, Integer.class, "ACCOUNT"));
+    assertEquals(0, new JdbcTemplate(north).queryForObject(TABLE_COUNT, Integer.class, "ACCOUNT"));
+    assertEquals(1, new JdbcTemplate(north).queryForObject(TABLE_COUNT, Integer.class, "TICKET"));
+  }
+
+  @Test
+  void sharedBranchesAreFilteredByTenantColumn() {
+    persist("main job");
+    BranchContext.runAs("EAST", () -> persist("east job"));
+
+    assertEquals(List.of("main job"), titles());
+    assertEquals(List.of("east job"), BranchContext.callAs("EAST", this::titles));
+    // both rows share the primary; only the Branch_Code column tells them apart
+    assertEquals(List.of("EAST", "MAIN"), new JdbcTemplate(primary)
+        .queryForList("select branch_code from ticket order by branch_code", String.class));
+  }
+
+  @Test
+  void onlyConfiguredBranchesAreKnown() {
+    BranchProperties properties = new BranchProperties();
+    properties.getCodes().add("EAST");
+    properties.getDedicated().put("NORTH", new BranchProperties.DedicatedDataSource());
+
+    assertTrue(properties.isKnown(BranchContext.DEFAULT_BRANCH));
+    assertTrue(properties.isKnown("EAST"));
+    assertTrue(properties.isKnown("NORTH"));
+    assertFalse(properties.isKnown("WEST"));
+  }
+
+  private void persist(String title) {
+    sessionFactory.inTransaction(session -> session.persist(new Ticket(title)));
+  }
+
+  private List<String> titles() {
+    return sessionFactory.fromTransaction(session ->
+        session.createSelectionQuery("select title from Ticket", String.class).getResultList());
+  }
+
+  private static DataSource database() {
+    return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+  }
+
+  @Entity(name = "Ticket")
+  static class Ticket {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String title;
+
+    @TenantId
+    @Column(name = "Branch_Code")
+    private String branchCode;
+
+    Ticket() {
+    }
+
+    Ticket(String title) {
+      this.title = title;
+    }
+  }
+
+  // like users: not branch-scoped
+  @Entity(name = "Account")
+  static class Account {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String email;
+  }
+}
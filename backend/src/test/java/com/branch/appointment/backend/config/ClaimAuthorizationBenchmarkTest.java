@@ -0,0 +1,83 @@
+package com.branch.appointment.backend.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * What role-based authorization adds to a request once the token is verified: building the authentication from its
+ * claims and deciding an admin-only and an advisor rule. The average is logged at debug; the bound is deliberately
+ * loose.
+ */
+@Slf4j
+class ClaimAuthorizationBenchmarkTest {
+
+  private static final int ROUNDS = 200_000;
+
+  private final AuthorityAuthorizationManager<Object> adminOnly =
+      AuthorityAuthorizationManager.hasRole(ClaimAuthorities.ADMIN);
+  private final AuthorityAuthorizationManager<Object> advisors =
+      AuthorityAuthorizationManager.hasAnyRole(ClaimAuthorities.ADMIN, ClaimAuthorities.SERVICE_ADVISOR);
+
+  @Test
+  void authoritiesFollowTheRoleClaim() {
+    Authentication admin = ClaimAuthorities.authenticate(claims("ADMIN"));
+    Authentication technician = ClaimAuthorities.authenticate(claims("TECHNICIAN"));
+    Authentication advisor = ClaimAuthorities.authenticate(claims("SERVICE_ADVISOR"));
+
+    assertTrue(admin.isAuthenticated());
+    assertEquals("user@branch.test", admin.getName());
+    assertEquals(7L, ((TokenPrincipal) admin.getPrincipal()).userId());
+    assertTrue(adminOnly.authorize(() -> admin, null).isGranted());
+    assertFalse(adminOnly.authorize(() -> advisor, null).isGranted());
+    assertTrue(advisors.authorize(() -> advisor, null).isGranted());
+    assertFalse(advisors.authorize(() -> technician, null).isGranted());
+    assertEquals(1, ClaimAuthorities.authenticate(claims("SOMETHING_ELSE")).getAuthorities().size());
+    // shared, not rebuilt per request; the token itself keeps its own copy
+    assertSame(ClaimAuthorities.forRole("ADMIN"), ClaimAuthorities.forRole("ADMIN"));
+    assertEquals(ClaimAuthorities.forRole("ADMIN"), List.copyOf(admin.getAuthorities()));
+  }
+
+  @Test
+  void costPerRequestIsMicroseconds() {
+    Claims[] claims = {claims("ADMIN"), claims("TECHNICIAN"), claims("SERVICE_ADVISOR")};
+    int granted = 0;
+    for (int i = 0; i < ROUNDS; i++) {
+      granted += authorize(claims[i % claims.length]); // warm up
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      granted += authorize(claims[i % claims.length]);
+    }
+    double avgMicros = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+
+    log.debug("claim authorization {} us/request", String.format("%.3f", avgMicros));
+    assertTrue(granted > 0);
+    assertTrue(avgMicros < 50, "authorization took " + avgMicros + " us per request");
+  }
+
+  private int authorize(Claims claims) {
+    Authentication authentication = ClaimAuthorities.authenticate(claims);
+    int granted = adminOnly.authorize(() -> authentication, null).isGranted() ? 1 : 0;
+    return granted + (advisors.authorize(() -> authentication, null).isGranted() ? 1 : 0);
+  }
+
+  private static Claims claims(String role) {
+    return Jwts.claims()
+        .subject("user@branch.test")
+        .add("id", 7)
+        .add("role", role)
+        .add("branch", "MAIN")
+        .build();
+  }
+}
@@ -0,0 +1,95 @@
+package com.branch.appointment.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes against two local H2 databases, each holding a marker row naming itself.
+ */
+class ReadWriteRoutingTest {
+
+  private final DataSource primary = database("primary");
+  private final DataSource replica = database("replica");
+  private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(10).toNanos());
+
+  private ReplicaRoutingDataSource replicaRouting;
+  private TransactionTemplate tx;
+  private JdbcTemplate jdbc;
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    replicaRouting.close();
+  }
+
+  @Test
+  void readOnlyTransactionsGoToReplica() {
+    wire(List.of(replica));
+    assertEquals("replica", servedBy(true));
+  }
+
+  @Test
+  void writeTransactionsStayOnPrimary() {
+    wire(List.of(replica));
+    assertEquals("primary", servedBy(false));
+  }
+
+  @Test
+  void unhealthyReplicaFallsBackToPrimary() {
+    wire(List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable")));
+    replicaRouting.checkHealth();
+
+    assertEquals("primary", servedBy(true));
+  }
+
+  @Test
+  void writerReadsOwnWritesFromPrimary() {
+    wire(List.of(replica));
+
+    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("advisor@branch", null));
+    servedBy(false);
+    assertEquals("primary", servedBy(true));
+
+    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("other@branch", null));
+    assertEquals("replica", servedBy(true));
+  }
+
+  private void wire(List<DataSource> replicas) {
+    replicaRouting = new ReplicaRoutingDataSource(primary, replicas, tracker, Duration.ofSeconds(5));
+
+    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+    proxy.setReadOnlyDataSource(replicaRouting);
+
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+    transactionManager.addListener(tracker);
+    tx = new TransactionTemplate(transactionManager);
+    jdbc = new JdbcTemplate(proxy);
+  }
+
+  private String servedBy(boolean readOnly) {
+    tx.setReadOnly(readOnly);
+    return tx.execute(status -> jdbc.queryForObject("select name from marker", String.class));
+  }
+
+  private static DataSource database(String name) {
+    DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbc = new JdbcTemplate(ds);
+    jdbc.execute("create table if not exists marker(name varchar(20))");
+    jdbc.execute("delete from marker");
+    jdbc.update("insert into marker values (?)", name);
+    return ds;
+  }
+}
@@ -0,0 +1,26 @@
+package com.branch.appointment.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VaryAcceptFilterTest {
+
+  @Test
+  void responsesVaryOnAccept() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings");
+    request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+
+    new VaryAcceptFilter().doFilter(request, response, new MockFilterChain());
+
+    assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    // added alongside, not instead of, what CORS and compression put there
+    assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ORIGIN));
+  }
+}
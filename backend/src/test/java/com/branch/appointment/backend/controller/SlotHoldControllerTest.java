@@ -0,0 +1,106 @@
+package com.branch.appointment.backend.controller;
+
+import com.branch.appointment.backend.config.BranchTenantResolver;
+import com.branch.appointment.backend.dto.SlotHoldDto;
+import com.branch.appointment.backend.entity.BayEntity;
+import com.branch.appointment.backend.enums.BayStatusEnum;
+import com.branch.appointment.backend.metrics.QueryBudgetGuard;
+import com.branch.appointment.backend.metrics.QueryBudgetInterceptor;
+import com.branch.appointment.backend.metrics.QueryBudgetProperties;
+import com.branch.appointment.backend.metrics.RequestStats;
+import com.branch.appointment.backend.metrics.StatementCountingInspector;
+import com.branch.appointment.backend.repository.BayRepository;
+import com.branch.appointment.backend.service.BayOccupancyIndex;
+import com.branch.appointment.backend.service.BookingService;
+import com.branch.appointment.backend.service.SlotHoldService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * POST /holds as the test profile runs it: FAIL mode, the endpoint's own budget, statements counted by Hibernate.
+ */
+class SlotHoldControllerTest {
+
+  private final QueryBudgetProperties properties = new QueryBudgetProperties();
+  private final QueryBudgetInterceptor interceptor =
+      new QueryBudgetInterceptor(properties, new QueryBudgetGuard(properties, new SimpleMeterRegistry()));
+  private SessionFactory sessionFactory;
+  private EntityManager entityManager;
+  private SlotHoldService holds;
+  private SlotHoldController controller;
+  private Long bayId;
+
+  @BeforeEach
+  void setUp() {
+    properties.setMode(QueryBudgetProperties.Mode.FAIL);
+    Configuration configuration = new Configuration()
+        .addAnnotatedClass(BayEntity.class)
+        .setProperty(AvailableSettings.URL, "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "create");
+    configuration.getProperties().put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    configuration.getProperties().put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new BranchTenantResolver());
+    sessionFactory = configuration.buildSessionFactory();
+    bayId = sessionFactory.fromTransaction(session -> {
+      BayEntity bay = new BayEntity(null, "Bay 1", "1", BayStatusEnum.ACTIVE, null);
+      session.persist(bay);
+      return bay.getId();
+    });
+
+    entityManager = sessionFactory.createEntityManager();
+    BayRepository bays = new JpaRepositoryFactory(entityManager).getRepository(BayRepository.class);
+    BayOccupancyIndex index = new BayOccupancyIndex(null, null);
+    ReflectionTestUtils.setField(index, "granularity", Duration.ofMinutes(15));
+    holds = new SlotHoldService(index, mock(BookingService.class), bays, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(holds, "ttl", Duration.ofMinutes(5));
+    ReflectionTestUtils.setField(holds, "tick", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(holds, "stripes", 4);
+    ReflectionTestUtils.invokeMethod(holds, "start");
+    controller = new SlotHoldController(holds);
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestStats.end();
+    ReflectionTestUtils.invokeMethod(holds, "stop");
+    entityManager.close();
+    sessionFactory.close();
+  }
+
+  @Test
+  void createHoldFitsItsBudgetInFailMode() throws Exception {
+    RequestStats stats = RequestStats.begin();
+    interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+        new HandlerMethod(controller, "createHold", SlotHoldDto.class));
+
+    SlotHoldDto request = new SlotHoldDto();
+    request.setBayId(bayId);
+    request.setCheckinDate(LocalDate.now().plusDays(3));
+    request.setJobStartTime(LocalTime.of(10, 0));
+    request.setJobEndTime(LocalTime.of(11, 0));
+    ResponseEntity<SlotHoldDto> response = controller.createHold(request);
+
+    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    assertEquals(1, stats.getStatements());
+  }
+}
@@ -0,0 +1,112 @@
+package com.branch.appointment.backend.mapper;
+
+import com.branch.appointment.backend.config.WireFormatConfig;
+import com.branch.appointment.backend.dto.BookingDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Size and serialization time of a 10k-booking list in each wire format, using the mappers the application
+ * serves with ({@link WireFormatConfig}). Numbers are logged at debug for comparison; the assertions guard that
+ * every format carries the same data and the size ordering.
+ */
+@Slf4j
+class WireFormatBenchmarkTest {
+
+  private static final int BOOKINGS = 10_000;
+  private static final int ROUNDS = 20;
+
+  private final TableMapper tableMapper = new TableMapper();
+
+  @Test
+  void compareWireFormats() throws IOException {
+    List<BookingDto> bookings = bookings();
+
+    WireFormatConfig config = new WireFormatConfig();
+    ObjectMapper json = bootBuilder().build();
+    ObjectMapper smile = config.smileHttpMessageConverter(bootBuilder()).getObjectMapper();
+    ObjectMapper cbor = config.cborHttpMessageConverter(bootBuilder()).getObjectMapper();
+
+    // the binary encodings decode to exactly what JSON sends
+    JsonNode expected = json.readTree(json.writeValueAsBytes(bookings));
+    assertEquals(expected, smile.readTree(smile.writeValueAsBytes(bookings)));
+    assertEquals(expected, cbor.readTree(cbor.writeValueAsBytes(bookings)));
+
+    long jsonSize = report("json", json, bookings);
+    long smileSize = report("smile", smile, bookings);
+    report("cbor", cbor, bookings);
+    long tableJsonSize = report("json table", json, tableMapper.toBookingTable(bookings));
+    report("smile table", smile, tableMapper.toBookingTable(bookings));
+
+    assertTrue(smileSize < jsonSize);
+    assertTrue(tableJsonSize < jsonSize);
+  }
+
+  private long report(String name, ObjectMapper mapper, Object payload) throws IOException {
+    byte[] bytes = mapper.writeValueAsBytes(payload);
+    for (int i = 0; i < ROUNDS; i++) {
+      mapper.writeValueAsBytes(payload); // warm up
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      mapper.writeValueAsBytes(payload);
+    }
+    double avgMs = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+
+    log.debug(String.format("%-12s %9d bytes  %8d gzip  %7.2f ms", name, bytes.length, gzip(bytes), avgMs));
+    return bytes.length;
+  }
+
+  // what Boot hands the converters: its defaults leave dates as ISO strings
+  private Jackson2ObjectMapperBuilder bootBuilder() {
+    return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  private int gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+      gz.write(bytes);
+    }
+    return bos.size();
+  }
+
+  private List<BookingDto> bookings() {
+    BookingStatusEnum[] statuses = BookingStatusEnum.values();
+    JobTypeEnum[] jobTypes = JobTypeEnum.values();
+    LocalDate today = LocalDate.of(2025, 1, 1);
+
+    List<BookingDto> bookings = new ArrayList<>(BOOKINGS);
+    for (int i = 0; i < BOOKINGS; i++) {
+      bookings.add(new BookingDto(
+          (long) i,
+          "WXY" + (1000 + i),
+          today.plusDays(i % 30),
+          today.plusDays(i % 30 + 2),
+          (long) (i % 12),
+          (long) (i % 40),
+          jobTypes[i % jobTypes.length],
+          statuses[i % statuses.length],
+          LocalTime.of(8 + i % 8, 0),
+          LocalTime.of(10 + i % 8, 30),
+          (long) (i % 20)));
+    }
+    return bookings;
+  }
+}
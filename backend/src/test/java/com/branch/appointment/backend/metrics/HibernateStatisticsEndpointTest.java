@@ -0,0 +1,66 @@
+package com.branch.appointment.backend.metrics;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HibernateStatisticsEndpointTest {
+
+  private final SessionFactory sessionFactory = new Configuration()
+      .addAnnotatedClass(Widget.class)
+      .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+      .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+      .setProperty("hibernate.generate_statistics", "true")
+      .buildSessionFactory();
+  private final HibernateStatisticsEndpoint endpoint = new HibernateStatisticsEndpoint(sessionFactory);
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Test
+  void reportsSessionActivity() {
+    sessionFactory.inTransaction(session -> session.persist(new Widget(1L)));
+    sessionFactory.inTransaction(session -> session.find(Widget.class, 1L));
+
+    Map<String, Object> stats = endpoint.statistics();
+
+    assertEquals(true, stats.get("enabled"));
+    assertEquals(1L, stats.get("entitiesInserted"));
+    assertEquals(1L, stats.get("entitiesLoaded"));
+    assertTrue((Long) stats.get("transactions") >= 2);
+  }
+
+  @Test
+  void resetClearsCounters() {
+    sessionFactory.inTransaction(session -> session.persist(new Widget(2L)));
+
+    endpoint.reset();
+
+    assertEquals(0L, endpoint.statistics().get("entitiesInserted"));
+    assertEquals(0L, endpoint.statistics().get("transactions"));
+  }
+
+  @Entity
+  static class Widget {
+    @Id
+    private Long id;
+
+    Widget() {
+    }
+
+    Widget(Long id) {
+      this.id = id;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.branch.appointment.backend.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryBudgetGuardTest {
+
+  private final QueryBudgetProperties properties = new QueryBudgetProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final QueryBudgetGuard guard = new QueryBudgetGuard(properties, meterRegistry);
+
+  @AfterEach
+  void tearDown() {
+    RequestStats.end();
+  }
+
+  @Test
+  void failModeThrowsAtTheStatementOverBudgetWithQueryShapes() {
+    properties.setMode(QueryBudgetProperties.Mode.FAIL);
+    String sql = "select b1_0.Bay_Id from BAS_Bays b1_0 where b1_0.Bay_Id=?";
+    RequestStats stats = runStatements(2, sql);
+
+    // still inside the request, before anything has been written
+    QueryBudgetExceededException ex = assertThrows(QueryBudgetExceededException.class,
+        () -> new StatementCountingInspector().inspect(sql));
+    assertTrue(ex.getMessage().contains("3x select b1_0.Bay_Id"));
+    assertDoesNotThrow(() -> guard.check(stats));
+  }
+
+  @Test
+  void statementsFromOtherThreadsCountAgainstTheSameRequest() throws InterruptedException {
+    properties.setMode(QueryBudgetProperties.Mode.REPORT);
+    RequestStats stats = runStatements(1, "select 1");
+
+    Thread worker = new Thread(() -> {
+      RequestStats previous = RequestStats.attach(stats);
+      try {
+        new StatementCountingInspector().inspect("select 2");
+        new StatementCountingInspector().inspect("select 2");
+      } finally {
+        RequestStats.restore(previous);
+      }
+    });
+    worker.start();
+    worker.join();
+
+    assertEquals(3, stats.getStatements());
+    guard.check(stats);
+    assertEquals(1.0, meterRegistry.get("bas.query.budget.exceeded").counter().count());
+  }
+
+  @Test
+  void reportModeCountsViolations() {
+    properties.setMode(QueryBudgetProperties.Mode.REPORT);
+    RequestStats stats = runStatements(3, "select 1");
+
+    assertDoesNotThrow(() -> guard.check(stats));
+    assertEquals(1.0, meterRegistry.get("bas.query.budget.exceeded").counter().count());
+  }
+
+  @Test
+  void withinBudgetIsIgnored() {
+    properties.setMode(QueryBudgetProperties.Mode.FAIL);
+    RequestStats stats = runStatements(2, "select 1");
+
+    assertDoesNotThrow(() -> guard.check(stats));
+  }
+
+  private RequestStats runStatements(int count, String sql) {
+    RequestStats stats = RequestStats.begin();
+    stats.setBudget("BayController.getBays", 2);
+    if (guard.isEnforcing()) {
+      stats.enforceWith(guard);
+    }
+    StatementCountingInspector inspector = new StatementCountingInspector();
+    for (int i = 0; i < count; i++) {
+      inspector.inspect(sql);
+    }
+    return stats;
+  }
+}
@@ -0,0 +1,60 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.entity.UserEntity;
+import com.branch.appointment.backend.enums.UserRoleEnum;
+import com.branch.appointment.backend.repository.UserRepository;
+import com.branch.appointment.backend.utils.BranchContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminBootstrapTest {
+
+  private final UserRepository users = mock(UserRepository.class);
+  private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+  @Test
+  void createsTheConfiguredAdminWhenThereIsNone() {
+    bootstrap("admin@bas.test", "s3cret").seed();
+
+    ArgumentCaptor<UserEntity> saved = ArgumentCaptor.forClass(UserEntity.class);
+    verify(users).save(saved.capture());
+    assertEquals("admin@bas.test", saved.getValue().getEmail());
+    assertEquals(UserRoleEnum.ADMIN, saved.getValue().getRole());
+    assertEquals(BranchContext.DEFAULT_BRANCH, saved.getValue().getBranchCode());
+    assertTrue(passwordEncoder.matches("s3cret", saved.getValue().getPassword()));
+  }
+
+  @Test
+  void doesNothingOnceAnAdminExists() {
+    when(users.existsByRole(UserRoleEnum.ADMIN)).thenReturn(true);
+
+    bootstrap("admin@bas.test", "s3cret").seed();
+
+    verify(users, never()).save(any());
+  }
+
+  @Test
+  void neverPromotesAnAccountRegisteredWithTheEmail() {
+    when(users.findByEmail("admin@bas.test")).thenReturn(
+        new UserEntity(5L, "Mallory", "admin@bas.test", "hash", UserRoleEnum.TECHNICIAN, "MAIN"));
+
+    bootstrap("admin@bas.test", "s3cret").seed();
+    bootstrap("", "").seed();
+
+    verify(users, never()).save(any());
+  }
+
+  private AdminBootstrap bootstrap(String email, String password) {
+    return new AdminBootstrap(users, passwordEncoder, email, password, "Administrator");
+  }
+}
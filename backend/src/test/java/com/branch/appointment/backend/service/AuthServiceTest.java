@@ -0,0 +1,82 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.config.ClaimAuthorities;
+import com.branch.appointment.backend.config.TokenPrincipal;
+import com.branch.appointment.backend.dto.RegisterUserDto;
+import com.branch.appointment.backend.entity.UserEntity;
+import com.branch.appointment.backend.enums.UserRoleEnum;
+import com.branch.appointment.backend.repository.ServiceAdvisorRepository;
+import com.branch.appointment.backend.repository.TechnicianRepository;
+import com.branch.appointment.backend.repository.UserRepository;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import com.branch.appointment.backend.utils.TokenGeneration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+  // configured like the application's: unknown properties such as a stale "role" are ignored
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @Test
+  void selfRegistrationCannotAskForAdmin() throws Exception {
+    RegisterUserDto request = objectMapper.readValue(
+        "{\"name\":\"Mallory\",\"email\":\"mallory@bas.test\",\"password\":\"secret\",\"role\":0,"
+            + "\"branchCode\":\"NORTH\"}", RegisterUserDto.class);
+
+    UserEntity user = AuthService.newUser(request, new BCryptPasswordEncoder(4));
+    user.setUserId(42L);
+    TokenGeneration tokenGeneration = new TokenGeneration();
+    ReflectionTestUtils.setField(tokenGeneration, "secretKey",
+        Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8)));
+    ReflectionTestUtils.setField(tokenGeneration, "expiration", 60_000L);
+    ReflectionTestUtils.invokeMethod(tokenGeneration, "init");
+    Authentication caller = ClaimAuthorities.authenticate(
+        tokenGeneration.parseClaims(tokenGeneration.generateToken(user)));
+
+    TokenPrincipal principal = (TokenPrincipal) caller.getPrincipal();
+    assertEquals(UserRoleEnum.TECHNICIAN.name(), principal.role());
+    assertEquals(BranchContext.DEFAULT_BRANCH, principal.branch());
+    assertFalse(caller.getAuthorities().stream()
+        .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + ClaimAuthorities.ADMIN)));
+  }
+
+  @Test
+  void adminInADedicatedBranchReadsAndWritesUsersInTheSharedDatabase() {
+    UserRepository users = mock(UserRepository.class);
+    List<String> branches = new ArrayList<>();
+    UserEntity user = new UserEntity(7L, "Tech", "tech@bas.test", "hash", UserRoleEnum.TECHNICIAN, "NORTH");
+    when(users.findById(7L)).thenAnswer(invocation -> {
+      branches.add(BranchContext.current());
+      return Optional.of(user);
+    });
+    when(users.save(user)).thenAnswer(invocation -> {
+      branches.add(BranchContext.current());
+      return user;
+    });
+    AuthService authService = new AuthService(users, mock(TechnicianRepository.class),
+        mock(ServiceAdvisorRepository.class), new BCryptPasswordEncoder(4), mock(ChangeVersions.class),
+        mock(TokenRevocationService.class), new BranchProperties(), new TokenGeneration());
+
+    BranchContext.runAs("NORTH", () -> authService.assignRole(7L, UserRoleEnum.SERVICE_ADVISOR));
+
+    assertEquals(List.of(BranchContext.DEFAULT_BRANCH, BranchContext.DEFAULT_BRANCH), branches);
+  }
+}
@@ -0,0 +1,158 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.FreeSlotDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.repository.OpenJobWindow;
+import com.branch.appointment.backend.utils.BranchContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BayOccupancyIndexTest {
+
+  private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+  private final BayOccupancyIndex index = newIndex();
+
+  @Test
+  void freeWindowsSkipOccupiedSlots() {
+    index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(10, 0), LocalTime.of(12, 10), BookingStatusEnum.ACTIVE_BOARD);
+
+    List<FreeSlotDto> slots = index.freeWindows(7L, DAY, 1, Duration.ofHours(2), 10);
+
+    assertEquals(List.of(
+        new FreeSlotDto(DAY, LocalTime.of(8, 0), LocalTime.of(10, 0)),
+        new FreeSlotDto(DAY, LocalTime.of(12, 15), LocalTime.of(18, 0))), slots);
+  }
+
+  @Test
+  void multiDayJobBlocksWholeDaysInBetween() {
+    index.updateBooking(1L, 7L, DAY, DAY.plusDays(2), LocalTime.of(9, 0), LocalTime.of(11, 0),
+        BookingStatusEnum.ACTIVE_BOARD);
+
+    List<FreeSlotDto> slots = index.freeWindows(7L, DAY, 3, Duration.ofMinutes(30), 10);
+
+    assertEquals(List.of(
+        new FreeSlotDto(DAY, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+        new FreeSlotDto(DAY.plusDays(2), LocalTime.of(11, 0), LocalTime.of(18, 0))), slots);
+  }
+
+  @Test
+  void completionFreesTheBay() {
+    index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(8, 0), LocalTime.of(18, 0), BookingStatusEnum.ACTIVE_BOARD);
+    assertTrue(index.freeWindows(7L, DAY, 1, Duration.ofHours(1), 10).isEmpty());
+
+    index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(8, 0), LocalTime.of(18, 0),
+        BookingStatusEnum.REPAIR_COMPLETION);
+    assertEquals(1, index.freeWindows(7L, DAY, 1, Duration.ofHours(10), 10).size());
+  }
+
+  @Test
+  void tryPlaceRejectsOverlapButNotOwnWindow() {
+    index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(10, 0), LocalTime.of(12, 0), BookingStatusEnum.ACTIVE_BOARD);
+
+    assertFalse(index.tryPlace("hold", 7L, DAY.atTime(11, 0), DAY.atTime(13, 0)));
+    assertTrue(index.tryPlace("hold", 7L, DAY.atTime(12, 0), DAY.atTime(13, 0)));
+    assertTrue(index.tryPlace("hold", 7L, DAY.atTime(12, 30), DAY.atTime(14, 0)));
+    assertTrue(index.isFree("other", 7L, DAY.atTime(12, 0), DAY.atTime(12, 30)));
+  }
+
+  @Test
+  void holdNeverSlipsIntoABookingBeingReapplied() throws InterruptedException {
+    index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(10, 0), LocalTime.of(12, 0), BookingStatusEnum.ACTIVE_BOARD);
+    Thread updates = new Thread(() -> {
+      for (int i = 0; i < 20_000; i++) {
+        // e.g. a status change: same window, applied again
+        index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(10, 0), LocalTime.of(12, 0),
+            BookingStatusEnum.ACTIVE_BOARD);
+      }
+    });
+
+    updates.start();
+    int granted = 0;
+    while (updates.isAlive()) {
+      if (index.tryPlace("hold", 7L, DAY.atTime(11, 0), DAY.atTime(11, 30))) {
+        granted++;
+        index.release("hold");
+      }
+    }
+    updates.join();
+
+    assertEquals(0, granted);
+  }
+
+  @Test
+  void changesMadeDuringRebuildWinOverItsRows() {
+    index.rebuild(() -> {
+      // both happen after the rows below were read
+      index.updateBooking(1L, 7L, DAY, DAY, LocalTime.of(8, 0), LocalTime.of(9, 0), BookingStatusEnum.ACTIVE_BOARD);
+      index.removeBooking(2L);
+      return List.of(window(1L, 7L, LocalTime.of(14, 0), LocalTime.of(16, 0)),
+          window(2L, 7L, LocalTime.of(10, 0), LocalTime.of(12, 0)),
+          window(3L, 8L, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+    });
+
+    assertEquals(List.of(new FreeSlotDto(DAY, LocalTime.of(9, 0), LocalTime.of(18, 0))),
+        index.freeWindows(7L, DAY, 1, Duration.ofHours(1), 10));
+    assertFalse(index.isFree("hold", 8L, DAY.atTime(11, 0), DAY.atTime(11, 30)));
+
+    // the next rebuild trusts its rows again
+    index.rebuild(() -> List.of(window(1L, 7L, LocalTime.of(14, 0), LocalTime.of(16, 0))));
+    assertFalse(index.isFree("hold", 7L, DAY.atTime(14, 0), DAY.atTime(14, 30)));
+  }
+
+  private static OpenJobWindow window(Long id, Long bayId, LocalTime start, LocalTime end) {
+    return new OpenJobWindow() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Long getBayId() {
+        return bayId;
+      }
+
+      @Override
+      public LocalDate getCheckinDate() {
+        return DAY;
+      }
+
+      @Override
+      public LocalDate getPromiseDate() {
+        return DAY;
+      }
+
+      @Override
+      public LocalTime getJobStartTime() {
+        return start;
+      }
+
+      @Override
+      public LocalTime getJobEndTime() {
+        return end;
+      }
+
+      @Override
+      public String getBranchCode() {
+        return BranchContext.DEFAULT_BRANCH;
+      }
+    };
+  }
+
+  private static BayOccupancyIndex newIndex() {
+    BayOccupancyIndex index = new BayOccupancyIndex(null, null);
+    ReflectionTestUtils.setField(index, "granularity", Duration.ofMinutes(15));
+    ReflectionTestUtils.setField(index, "openingTime", LocalTime.of(8, 0));
+    ReflectionTestUtils.setField(index, "closingTime", LocalTime.of(18, 0));
+    return index;
+  }
+}
@@ -0,0 +1,141 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.AssignmentProperties;
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.dto.QueuePositionDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.repository.QueuedJob;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.branch.appointment.backend.utils.WorkingHours;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BayQueueIndexTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+  private static final LocalDateTime NOW = DAY.atTime(9, 0);
+
+  private final BayQueueIndex index = newIndex();
+
+  @Test
+  void nextJobGoesFirstAndQueueFollowsCheckinOrder() {
+    queue(10L, BookingStatusEnum.BAY_QUEUE, DAY, JobTypeEnum.MEDIUM);
+    queue(11L, BookingStatusEnum.BAY_QUEUE, DAY.minusDays(1), JobTypeEnum.LIGHT);
+    queue(12L, BookingStatusEnum.NEXT_JOB, DAY, JobTypeEnum.LIGHT);
+
+    QueuePositionDto position = index.position(10L, NOW).orElseThrow();
+
+    assertEquals(3, position.getPosition());
+    assertEquals(3, position.getQueueLength());
+    // two light jobs ahead
+    assertEquals(DAY.atTime(11, 0), position.getEstimatedStart());
+    assertEquals(DAY.atTime(14, 0), position.getEstimatedCompletion());
+  }
+
+  @Test
+  void waitsForRunningJobAndRollsOverClosingTime() {
+    index.update(1L, 7L, BookingStatusEnum.ACTIVE_BOARD, JobTypeEnum.HEAVY, DAY, DAY,
+        LocalTime.of(8, 0), LocalTime.of(16, 0));
+    queue(10L, BookingStatusEnum.NEXT_JOB, DAY, JobTypeEnum.MEDIUM);
+
+    QueuePositionDto position = index.position(10L, NOW).orElseThrow();
+
+    assertEquals(1, position.getPosition());
+    assertEquals(DAY.atTime(16, 0), position.getEstimatedStart());
+    assertEquals(DAY.plusDays(1).atTime(9, 0), position.getEstimatedCompletion());
+  }
+
+  @Test
+  void movingOnLeavesTheQueue() {
+    queue(10L, BookingStatusEnum.BAY_QUEUE, DAY, JobTypeEnum.LIGHT);
+    queue(11L, BookingStatusEnum.BAY_QUEUE, DAY, JobTypeEnum.LIGHT);
+
+    index.update(10L, 7L, BookingStatusEnum.ACTIVE_BOARD, JobTypeEnum.LIGHT, DAY, DAY, null, null);
+    index.remove(11L);
+
+    assertTrue(index.position(10L, NOW).isEmpty());
+    assertTrue(index.position(11L, NOW).isEmpty());
+  }
+
+  @Test
+  void changesMadeDuringRebuildWinOverItsRows() {
+    index.rebuild(() -> {
+      // both happen after the rows below were read
+      index.update(10L, 7L, BookingStatusEnum.ACTIVE_BOARD, JobTypeEnum.LIGHT, DAY, DAY, null, null);
+      queue(11L, BookingStatusEnum.NEXT_JOB, DAY, JobTypeEnum.LIGHT);
+      return List.of(queued(10L, BookingStatusEnum.NEXT_JOB), queued(11L, BookingStatusEnum.BAY_QUEUE),
+          queued(12L, BookingStatusEnum.BAY_QUEUE));
+    });
+
+    assertTrue(index.position(10L, NOW).isEmpty());
+    assertEquals(1, index.position(11L, NOW).orElseThrow().getPosition());
+    assertEquals(2, index.position(12L, NOW).orElseThrow().getPosition());
+  }
+
+  private static QueuedJob queued(Long bookingId, BookingStatusEnum status) {
+    return new QueuedJob() {
+      @Override
+      public Long getId() {
+        return bookingId;
+      }
+
+      @Override
+      public Long getBayId() {
+        return 7L;
+      }
+
+      @Override
+      public BookingStatusEnum getStatus() {
+        return status;
+      }
+
+      @Override
+      public JobTypeEnum getJobType() {
+        return JobTypeEnum.LIGHT;
+      }
+
+      @Override
+      public LocalDate getCheckinDate() {
+        return DAY;
+      }
+
+      @Override
+      public LocalDate getPromiseDate() {
+        return null;
+      }
+
+      @Override
+      public LocalTime getJobStartTime() {
+        return null;
+      }
+
+      @Override
+      public LocalTime getJobEndTime() {
+        return null;
+      }
+
+      @Override
+      public String getBranchCode() {
+        return BranchContext.DEFAULT_BRANCH;
+      }
+    };
+  }
+
+  private void queue(Long bookingId, BookingStatusEnum status, LocalDate checkinDate, JobTypeEnum jobType) {
+    index.update(bookingId, 7L, status, jobType, checkinDate, null, null, null);
+  }
+
+  private static BayQueueIndex newIndex() {
+    WorkingHours workingHours = new WorkingHours(LocalTime.of(8, 0), LocalTime.of(18, 0));
+    return new BayQueueIndex(null, null, new AssignmentProperties(), workingHours,
+        new JobDurationModel(null, null, new BranchProperties(), workingHours));
+  }
+}
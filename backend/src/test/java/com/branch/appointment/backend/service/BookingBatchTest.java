@@ -0,0 +1,70 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.BookingDto;
+import com.branch.appointment.backend.dto.BookingProcessDto;
+import com.branch.appointment.backend.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingBatchTest {
+
+  private final BookingRepository bookings = mock(BookingRepository.class);
+  private final BookingViewService views = mock(BookingViewService.class);
+  private final BookingService service = new BookingService(bookings, null, null, null, null, null, null, null, null,
+      null, null, null, null, null, null, views);
+
+  @Test
+  void tagIgnoresRepeatsButFollowsOrder() {
+    assertEquals(BookingService.batchTag(List.of(4L, 8L)), BookingService.batchTag(List.of(4L, 8L, 4L)));
+    assertEquals(BookingService.batchTag(List.of(4L, 8L)), BookingService.batchTag(Arrays.asList(4L, null, 8L)));
+    // the response lists bookings in the order asked for, so the tag must tell these apart
+    assertNotEquals(BookingService.batchTag(List.of(4L, 8L)), BookingService.batchTag(List.of(8L, 4L)));
+    // List.hashCode collides here; the digest must not
+    assertNotEquals(BookingService.batchTag(List.of(0L, 31L)), BookingService.batchTag(List.of(1L, 0L)));
+    assertEquals(32, BookingService.batchTag(List.of(4L)).length());
+  }
+
+  @Test
+  void atMostFiveHundredDistinctIds() {
+    List<Long> limit = LongStream.rangeClosed(1, BookingService.MAX_BATCH_IDS).boxed().toList();
+    List<Long> repeated = LongStream.rangeClosed(1, 2L * BookingService.MAX_BATCH_IDS)
+        .map(i -> i % BookingService.MAX_BATCH_IDS + 1).boxed().toList();
+    List<Long> tooMany = LongStream.rangeClosed(1, BookingService.MAX_BATCH_IDS + 1).boxed().toList();
+
+    BookingService.batchTag(limit);
+    BookingService.batchTag(repeated);
+    assertThrows(RuntimeException.class, () -> BookingService.batchTag(tooMany));
+    assertThrows(RuntimeException.class, () -> service.getBookingsByIds(tooMany));
+  }
+
+  @Test
+  void unknownIdsAreLeftOutAndDuplicatesMerged() {
+    when(bookings.findDtosByIdIn(any())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0)
+        .stream().filter(id -> id != 99L).map(BookingBatchTest::booking).toList());
+    when(views.getHistories(any())).thenReturn(Map.of(8L, List.of(new BookingProcessDto())));
+
+    assertEquals(List.of(8L, 4L), service.getBookingsByIds(List.of(8L, 99L, 4L, 8L)).stream()
+        .map(BookingDto::getId).toList());
+    Map<Long, List<BookingProcessDto>> histories = service.getHistories(List.of(8L, 99L, 8L));
+    assertEquals(List.of(8L, 99L), List.copyOf(histories.keySet()));
+    assertEquals(List.of(), histories.get(99L));
+  }
+
+  private static BookingDto booking(Long id) {
+    BookingDto booking = new BookingDto();
+    booking.setId(id);
+    return booking;
+  }
+}
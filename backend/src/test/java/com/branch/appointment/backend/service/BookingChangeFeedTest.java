@@ -0,0 +1,55 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.entity.BookingChangeEntity;
+import com.branch.appointment.backend.enums.BookingChangeTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingChangeFeedTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 3, 10, 0);
+  private static final LocalDateTime SETTLED_BEFORE = NOW.minus(BookingService.CHANGE_SETTLE_WINDOW);
+
+  @Test
+  void lateCommitBehindTheCursorIsStillDelivered() {
+    // seq 4 was inserted before 5 but has not committed yet, so the first read only sees 3 and 5
+    BookingChangeEntity three = change(3, NOW.minusMinutes(5));
+    BookingChangeEntity four = change(4, NOW.minusSeconds(2));
+    BookingChangeEntity five = change(5, NOW.minusSeconds(1));
+
+    Long cursor = BookingService.settledCursor(List.of(three, five), 0L, SETTLED_BEFORE);
+    assertEquals(3L, cursor);
+
+    // 4 commits; the next read from the cursor gets it, along with 5 again
+    List<BookingChangeEntity> next = List.of(four, five);
+    assertEquals(3L, BookingService.settledCursor(next, cursor, SETTLED_BEFORE));
+
+    // once both have settled the cursor moves past them
+    LocalDateTime later = NOW.plus(BookingService.CHANGE_SETTLE_WINDOW);
+    assertEquals(5L, BookingService.settledCursor(next, cursor, later));
+  }
+
+  @Test
+  void settledPagesAdvanceToTheirLastChange() {
+    List<BookingChangeEntity> page = List.of(change(7, NOW.minusMinutes(3)), change(9, NOW.minusMinutes(2)));
+
+    assertEquals(9L, BookingService.settledCursor(page, 6L, SETTLED_BEFORE));
+    assertEquals(6L, BookingService.settledCursor(List.of(), 6L, SETTLED_BEFORE));
+  }
+
+  @Test
+  void cursorStopsAtTheFirstUnsettledChange() {
+    List<BookingChangeEntity> page = List.of(change(7, NOW.minusMinutes(3)), change(8, NOW.minusSeconds(1)),
+        change(9, NOW.minusMinutes(2)));
+
+    assertEquals(7L, BookingService.settledCursor(page, 6L, SETTLED_BEFORE));
+  }
+
+  private BookingChangeEntity change(long seq, LocalDateTime changedAt) {
+    return new BookingChangeEntity(seq, seq * 10, BookingChangeTypeEnum.UPSERT, changedAt, "MAIN");
+  }
+}
@@ -0,0 +1,65 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.BookingExpandEnum;
+import com.branch.appointment.backend.enums.BookingFieldEnum;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingViewTest {
+
+  @Test
+  void boardViewSelectsOnlyItsColumns() {
+    BookingView view = BookingView.parse("carRegNo, status,bayId", null);
+
+    assertEquals(EnumSet.of(BookingFieldEnum.ID, BookingFieldEnum.CAR_REG_NO, BookingFieldEnum.BAY_ID,
+        BookingFieldEnum.STATUS), view.fields());
+    assertEquals("select b.id, b.carRegNo, b.bay.id, b.status from BookingEntity b order by b.id", view.jpql(false));
+    assertArrayEquals(new ResourceCollectionEnum[] {ResourceCollectionEnum.BOOKINGS}, view.collections());
+  }
+
+  @Test
+  void expansionsJoinInTheSameQuery() {
+    BookingView view = BookingView.parse("id", "bay,serviceAdvisor");
+
+    assertEquals("select b.id, bay.id, bay.bayName, bay.bayNumber, bay.status, sa.id, sa.name, sa.status"
+        + " from BookingEntity b left join b.bay bay left join b.serviceAdvisor sa where b.id = :id", view.jpql(true));
+    assertEquals(List.of(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.BAYS,
+        ResourceCollectionEnum.SERVICE_ADVISORS), List.of(view.collections()));
+  }
+
+  @Test
+  void expandAloneKeepsEveryField() {
+    BookingView view = BookingView.parse(null, "history");
+
+    assertEquals(EnumSet.allOf(BookingFieldEnum.class), view.fields());
+    assertTrue(view.has(BookingExpandEnum.HISTORY));
+    assertEquals(List.of(ResourceCollectionEnum.BOOKINGS, ResourceCollectionEnum.BAYS,
+        ResourceCollectionEnum.PROCESSES), List.of(view.collections()));
+    // history is batched separately, never joined into the booking query
+    assertFalse(view.jpql(false).contains("join"));
+  }
+
+  @Test
+  void keyIgnoresOrderButTellsViewsApart() {
+    assertEquals(BookingView.parse("status,carRegNo", "bay,history").key(),
+        BookingView.parse("carRegNo,status", "history,bay").key());
+    assertNotEquals(BookingView.parse("status", null).key(), BookingView.parse("status", "bay").key());
+    assertNotEquals(BookingView.parse("status", null).key(), BookingView.parse("carRegNo", null).key());
+  }
+
+  @Test
+  void unknownNamesAreRejected() {
+    assertThrows(RuntimeException.class, () -> BookingView.parse("password", null));
+    assertThrows(RuntimeException.class, () -> BookingView.parse(null, "technician"));
+  }
+}
@@ -0,0 +1,73 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.CalendarBayDto;
+import com.branch.appointment.backend.dto.CalendarDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.CalendarRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CalendarServiceTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 10, 20);
+
+  private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+  private final BookingRepository bookingRepository = mock(BookingRepository.class);
+  private final CalendarService calendarService = new CalendarService(bookingRepository, Duration.ofSeconds(10), 16);
+
+  @Test
+  void groupsByBayAndSpreadsMultiDayJobsOverTheRange() {
+    when(bookingRepository.findCalendarRows(MONDAY, MONDAY.plusDays(6))).thenReturn(List.of(
+        row(1L, "B1", 10L, MONDAY.minusDays(1), MONDAY.plusDays(1)),
+        row(1L, "B1", 11L, MONDAY.plusDays(1), null),
+        row(2L, "B2", null, null, null)));
+
+    CalendarDto calendar = calendarService.getCalendar(MONDAY, MONDAY.plusDays(6), "v1");
+
+    assertEquals(2, calendar.getBays().size());
+    CalendarBayDto first = calendar.getBays().get(0);
+    assertEquals(2, first.getDays().size());
+    assertEquals(MONDAY, first.getDays().get(0).getDate());
+    assertEquals(List.of(10L), first.getDays().get(0).getBookings().stream().map(b -> b.getId()).toList());
+    assertEquals(List.of(10L, 11L), first.getDays().get(1).getBookings().stream().map(b -> b.getId()).toList());
+    assertTrue(calendar.getBays().get(1).getDays().isEmpty());
+  }
+
+  @Test
+  void sameVersionIsServedFromCache() {
+    when(bookingRepository.findCalendarRows(MONDAY, MONDAY)).thenReturn(List.of());
+
+    CalendarDto first = calendarService.getCalendar(MONDAY, MONDAY, "v1");
+    assertSame(first, calendarService.getCalendar(MONDAY, MONDAY, "v1"));
+    calendarService.getCalendar(MONDAY, MONDAY, "v2");
+
+    verify(bookingRepository, times(2)).findCalendarRows(MONDAY, MONDAY);
+  }
+
+  private CalendarRow row(Long bayId, String bayNumber, Long bookingId, LocalDate checkin, LocalDate promise) {
+    Map<String, Object> values = new HashMap<>();
+    values.put("bayId", bayId);
+    values.put("bayNumber", bayNumber);
+    values.put("bayName", "Bay " + bayNumber);
+    values.put("bookingId", bookingId);
+    values.put("checkinDate", checkin);
+    values.put("promiseDate", promise);
+    values.put("status", bookingId != null ? BookingStatusEnum.ACTIVE_BOARD : null);
+    return projections.createProjection(CalendarRow.class, values);
+  }
+}
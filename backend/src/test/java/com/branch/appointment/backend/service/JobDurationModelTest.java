@@ -0,0 +1,119 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.dto.DurationEstimateDto;
+import com.branch.appointment.backend.enums.DurationDimensionEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.utils.WorkingHours;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobDurationModelTest {
+
+  private final DataSource dataSource =
+      new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+  private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+  private final JobDurationModel model = new JobDurationModel(jdbc, new DataSourceTransactionManager(dataSource),
+      new BranchProperties(), new WorkingHours(LocalTime.of(8, 0), LocalTime.of(18, 0)));
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(model, "relativeAccuracy", 0.01);
+    ReflectionTestUtils.setField(model, "maxDuration", Duration.ofDays(14));
+    ReflectionTestUtils.setField(model, "minSamples", 2);
+    ReflectionTestUtils.setField(model, "fetchSize", 2);
+    jdbc.execute("create table BAS_Bookings (Booking_Id bigint primary key, Job_Type varchar(16), Bay_Id bigint,"
+        + " Technician_Id bigint, Branch_Code varchar(32))");
+    jdbc.execute("create table BAS_Booking_Processes (Process_Id bigint auto_increment primary key,"
+        + " Booking_Id bigint, From_Status varchar(32), To_Status varchar(32), Changed_At timestamp,"
+        + " Branch_Code varchar(32))");
+  }
+
+  @Test
+  void backfillMeasuresBoardTimeWithoutStoppagesOrNights() {
+    jdbc.update("insert into BAS_Bookings values (1, 'HEAVY', 7, 3, 'MAIN')");
+    transition(1, "NEXT_JOB", "ACTIVE_BOARD", "2025-03-03 16:00:00");
+    transition(1, "ACTIVE_BOARD", "JOB_STOPPAGE", "2025-03-04 09:00:00");
+    transition(1, "JOB_STOPPAGE", "ACTIVE_BOARD", "2025-03-04 13:00:00");
+    transition(1, "ACTIVE_BOARD", "REPAIR_COMPLETION", "2025-03-04 15:00:00");
+
+    model.backfill();
+
+    // 2h before closing, 1h next morning, 2h after the stoppage
+    List<DurationEstimateDto> byJobType = model.estimates(DurationDimensionEnum.JOB_TYPE);
+    assertEquals(1, byJobType.size());
+    assertEquals("HEAVY", byJobType.get(0).getKey());
+    assertEquals(1, byJobType.get(0).getSamples());
+    assertEquals(300, byJobType.get(0).getP50Minutes(), 3);
+    assertEquals("7", model.estimates(DurationDimensionEnum.BAY).get(0).getKey());
+    assertEquals("3", model.estimates(DurationDimensionEnum.TECHNICIAN).get(0).getKey());
+  }
+
+  @Test
+  void jobStillOnTheBoardAfterBackfillCompletesLive() {
+    jdbc.update("insert into BAS_Bookings values (1, 'LIGHT', 7, null, 'MAIN')");
+    jdbc.update("insert into BAS_Bookings values (2, 'LIGHT', 7, null, 'MAIN')");
+    transition(1, "NEXT_JOB", "ACTIVE_BOARD", "2025-03-03 09:00:00");
+    transition(1, "ACTIVE_BOARD", "REPAIR_COMPLETION", "2025-03-03 10:00:00");
+    transition(2, "NEXT_JOB", "ACTIVE_BOARD", "2000-01-03 09:00:00");
+    model.backfill();
+    assertTrue(model.medianMinutes(JobTypeEnum.LIGHT).isEmpty());
+
+    model.onTransition(2L, "ACTIVE_BOARD", "REPAIR_COMPLETION", JobTypeEnum.LIGHT, 7L, null);
+
+    assertEquals(2, model.estimates(DurationDimensionEnum.JOB_TYPE).get(0).getSamples());
+    assertTrue(model.medianMinutes(JobTypeEnum.LIGHT).isPresent());
+    assertTrue(model.estimates(DurationDimensionEnum.TECHNICIAN).isEmpty());
+  }
+
+  @Test
+  void liveChangesDuringBackfillApplyOnceOnTopOfHistory() {
+    jdbc.update("insert into BAS_Bookings values (1, 'LIGHT', 7, null, 'MAIN')");
+    transition(1, "NEXT_JOB", "ACTIVE_BOARD", "2025-03-03 09:00:00");
+    // completed live before the history was merged; its audit row is already in as well
+    model.onTransition(1L, "ACTIVE_BOARD", "REPAIR_COMPLETION", JobTypeEnum.LIGHT, 7L, null);
+    jdbc.update("insert into BAS_Booking_Processes (Booking_Id, From_Status, To_Status, Changed_At, Branch_Code)"
+        + " values (1, 'ACTIVE_BOARD', 'REPAIR_COMPLETION', ?, 'MAIN')", Timestamp.valueOf(LocalDateTime.now()));
+    assertTrue(model.estimates(DurationDimensionEnum.JOB_TYPE).isEmpty());
+
+    model.backfill();
+    assertEquals(1, model.estimates(DurationDimensionEnum.JOB_TYPE).get(0).getSamples());
+
+    // the finished job stays finished
+    model.onTransition(1L, "ACTIVE_BOARD", "REPAIR_COMPLETION", JobTypeEnum.LIGHT, 7L, null);
+    assertEquals(1, model.estimates(DurationDimensionEnum.JOB_TYPE).get(0).getSamples());
+  }
+
+  @Test
+  void rowsWithoutChangedAtAreSkipped() {
+    jdbc.update("insert into BAS_Bookings values (1, 'LIGHT', 7, null, 'MAIN')");
+    transition(1, "NEXT_JOB", "ACTIVE_BOARD", "2025-03-03 09:00:00");
+    jdbc.update("insert into BAS_Booking_Processes (Booking_Id, From_Status, To_Status, Branch_Code)"
+        + " values (1, 'ACTIVE_BOARD', 'JOB_STOPPAGE', 'MAIN')");
+    transition(1, "ACTIVE_BOARD", "REPAIR_COMPLETION", "2025-03-03 10:00:00");
+
+    model.backfill();
+
+    assertEquals(60, model.estimates(DurationDimensionEnum.JOB_TYPE).get(0).getP50Minutes(), 1);
+  }
+
+  private void transition(long bookingId, String from, String to, String at) {
+    jdbc.update("insert into BAS_Booking_Processes (Booking_Id, From_Status, To_Status, Changed_At, Branch_Code)"
+        + " values (?, ?, ?, timestamp '" + at + "', 'MAIN')", bookingId, from, to);
+  }
+}
@@ -0,0 +1,197 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.config.ReplicaProperties;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessAuditWriterTest {
+
+  @TempDir
+  Path journal;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final JdbcTemplate jdbc = new JdbcTemplate(
+      new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+  private final ChangeVersions changeVersions = new ChangeVersions(new ReplicaProperties(), new BranchProperties(),
+      jdbc, new DataSourceTransactionManager(jdbc.getDataSource()), Duration.ofSeconds(1));
+
+  @BeforeEach
+  void createTable() {
+    jdbc.execute("create table BAS_Booking_Processes (Process_Id bigint auto_increment primary key,"
+        + " Booking_Id bigint, From_Status varchar(32), To_Status varchar(32), From_Process bigint,"
+        + " To_Process bigint, Changed_At timestamp, Job_Start_Time time, Job_End_Time time,"
+        + " Branch_Code varchar(32) not null, Audit_Key varchar(36) unique,"
+        + " Recorded_At timestamp)");
+    jdbc.execute("create table BAS_Change_Versions (Change_Version_Id bigint auto_increment primary key,"
+        + " Collection_Name varchar(32) not null, Version bigint not null, Branch_Code varchar(32) not null,"
+        + " constraint UK_Change_Versions_Collection unique (Branch_Code, Collection_Name))");
+  }
+
+  @Test
+  void queuedRowsAreBatchedIntoTheTable() throws Exception {
+    ProcessAuditWriter writer = writer();
+    writer.start();
+    for (int i = 0; i < 25; i++) {
+      writer.append(record(UUID.randomUUID().toString(), (long) i));
+    }
+    writer.stop();
+
+    assertEquals(25, count());
+    assertTrue(changeVersions.current(ResourceCollectionEnum.PROCESSES) > 0);
+  }
+
+  @Test
+  void leftoverJournalIsReplayedWithoutDuplicates() throws Exception {
+    ProcessAuditRecord written = record(UUID.randomUUID().toString(), 1L);
+    ProcessAuditRecord lost = record(UUID.randomUUID().toString(), 2L);
+    jdbc.update("insert into BAS_Booking_Processes (Booking_Id, Branch_Code, Audit_Key) values (1, 'MAIN', ?)",
+        written.auditKey());
+    // simulated crash: both rows journalled, only the first flushed, last line torn
+    Path leftover = journal.resolve("audit-3.log");
+    Files.writeString(leftover, objectMapper.writeValueAsString(written) + "\n"
+        + objectMapper.writeValueAsString(lost) + "\n{\"auditKey\":\"tor");
+
+    ProcessAuditWriter writer = writer();
+    writer.start();
+    writer.stop();
+
+    assertEquals(2, count());
+    assertEquals(List.of(2L), jdbc.queryForList(
+        "select Booking_Id from BAS_Booking_Processes where Audit_Key = ?", Long.class, lost.auditKey()));
+    assertFalse(Files.exists(leftover));
+  }
+
+  @Test
+  void rowIsJournalledBeforeCommitAndDroppedOnRollback() throws Exception {
+    ProcessAuditWriter writer = writer();
+    writer.start();
+    TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+
+    tx.executeWithoutResult(status -> writer.record(1L, "QUEUING", "BAY_QUEUE", null, null, null, null));
+    tx.executeWithoutResult(status -> {
+      writer.record(2L, "QUEUING", "BAY_QUEUE", null, null, null, null);
+      status.setRollbackOnly();
+    });
+    writer.stop();
+
+    assertEquals(List.of(1L), jdbc.queryForList("select Booking_Id from BAS_Booking_Processes", Long.class));
+  }
+
+  @Test
+  void replaySkipsCancelledRows() throws Exception {
+    ProcessAuditRecord kept = record(UUID.randomUUID().toString(), 1L);
+    ProcessAuditRecord rolledBack = record(UUID.randomUUID().toString(), 2L);
+    Files.writeString(journal.resolve("audit-1.log"), objectMapper.writeValueAsString(rolledBack) + "\n"
+        + objectMapper.writeValueAsString(kept) + "\n");
+    // the marker may land in a later segment than its row
+    Files.writeString(journal.resolve("audit-2.log"), "{\"cancelled\":\"" + rolledBack.auditKey() + "\"}\n");
+
+    ProcessAuditWriter writer = writer();
+    writer.start();
+    writer.stop();
+
+    assertEquals(List.of(1L), jdbc.queryForList("select Booking_Id from BAS_Booking_Processes", Long.class));
+  }
+
+  @Test
+  void rowByRowFallbackRetriesThroughTransientFailures() throws Exception {
+    AtomicInteger failures = new AtomicInteger(1);
+    JdbcTemplate flaky = new JdbcTemplate(jdbc.getDataSource()) {
+      @Override
+      public int update(String sql, PreparedStatementSetter pss) {
+        if (failures.getAndDecrement() > 0) {
+          throw new TransientDataAccessResourceException("connection reset");
+        }
+        return super.update(sql, pss);
+      }
+    };
+    ProcessAuditWriter writer = writer(flaky);
+    writer.start();
+    writer.append(record(UUID.randomUUID().toString(), 1L));
+    // too long for To_Status, so the batch is rejected and the fallback goes row by row
+    writer.append(new ProcessAuditRecord(UUID.randomUUID().toString(), "MAIN", 2L, "QUEUING", "X".repeat(40), null,
+        null, LocalDateTime.now(), null, null));
+    writer.append(record(UUID.randomUUID().toString(), 3L));
+    Thread.sleep(500);
+    writer.append(record(UUID.randomUUID().toString(), 4L));
+    writer.stop();
+
+    assertEquals(List.of(1L, 3L, 4L),
+        jdbc.queryForList("select Booking_Id from BAS_Booking_Processes order by Booking_Id", Long.class));
+  }
+
+  @Test
+  void rowsThatOverflowTheQueueAreReadBackFromTheJournal() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    JdbcTemplate slow = new JdbcTemplate(jdbc.getDataSource()) {
+      @Override
+      public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                     ParameterizedPreparedStatementSetter<T> pss) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.batchUpdate(sql, batchArgs, batchSize, pss);
+      }
+    };
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ProcessAuditWriter writer = new ProcessAuditWriter(slow, objectMapper, changeVersions, registry, journal,
+        1, 10, 1 << 20, false, Duration.ofMillis(1));
+    writer.start();
+    for (int i = 0; i < 10; i++) {
+      writer.append(record(UUID.randomUUID().toString(), (long) i));
+    }
+    release.countDown();
+    Thread.sleep(1000);
+    writer.stop();
+
+    assertTrue(registry.counter("bas.audit.overflow").count() > 0);
+    assertEquals(10, count());
+  }
+
+  private ProcessAuditWriter writer() {
+    return writer(jdbc);
+  }
+
+  private ProcessAuditWriter writer(JdbcTemplate jdbc) {
+    return new ProcessAuditWriter(jdbc, objectMapper, changeVersions, new SimpleMeterRegistry(), journal,
+        100, 10, 1024, false, Duration.ofMillis(100));
+  }
+
+  private int count() {
+    return jdbc.queryForObject("select count(*) from BAS_Booking_Processes", Integer.class);
+  }
+
+  private static ProcessAuditRecord record(String key, Long bookingId) {
+    return new ProcessAuditRecord(key, "MAIN", bookingId, "QUEUING", "BAY_QUEUE", null, null,
+        LocalDateTime.now(), null, null);
+  }
+}
@@ -0,0 +1,93 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.enums.ExportFormatEnum;
+import com.branch.appointment.backend.utils.BranchContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProcessExportServiceTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final DataSource dataSource =
+      new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+  private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+  private final ProcessExportService service =
+      new ProcessExportService(dataSource, objectMapper, 2, Duration.ofMinutes(1));
+
+  @BeforeEach
+  void createTables() {
+    jdbc.execute("create table BAS_Bookings (Booking_Id bigint primary key, Car_Reg_No varchar(32))");
+    jdbc.execute("create table BAS_Booking_Processes (Process_Id bigint auto_increment primary key,"
+        + " Booking_Id bigint, From_Status varchar(32), To_Status varchar(32), From_Process bigint,"
+        + " To_Process bigint, Changed_At timestamp, Job_Start_Time time, Job_End_Time time,"
+        + " Branch_Code varchar(32) not null, Recorded_At timestamp)");
+    jdbc.update("insert into BAS_Bookings values (1, 'WXY, 123')");
+    for (int i = 0; i < 5; i++) {
+      jdbc.update("insert into BAS_Booking_Processes (Booking_Id, From_Status, To_Status, To_Process, Changed_At,"
+          + " Branch_Code) values (1, 'QUEUING', 'BAY_QUEUE', 7, timestamp '2025-03-0" + (i + 1) + " 09:30:00', ?)",
+          i == 4 ? "OTHER" : BranchContext.DEFAULT_BRANCH);
+    }
+  }
+
+  @AfterEach
+  void clearBranch() {
+    BranchContext.clear();
+  }
+
+  @Test
+  void csvQuotesValuesAndSkipsOtherBranches() throws Exception {
+    String csv = export(ExportFormatEnum.CSV, 0);
+
+    String[] lines = csv.split("\n");
+    assertEquals(5, lines.length);
+    assertEquals("1,1,\"WXY, 123\",QUEUING,BAY_QUEUE,,7,2025-03-01T09:30,,", lines[1]);
+  }
+
+  @Test
+  void ndjsonResumesAfterTheCursor() throws Exception {
+    String ndjson = export(ExportFormatEnum.NDJSON, 2);
+
+    String[] lines = ndjson.split("\n");
+    assertEquals(2, lines.length);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertEquals(3, first.get("processId").asLong());
+    assertEquals("2025-03-03T09:30", first.get("changedAt").asText());
+    assertEquals(true, first.get("fromBayId").isNull());
+  }
+
+  @Test
+  void cursorStaysBehindRowsThatMayStillHaveLowerIdsInFlight() {
+    jdbc.update("insert into BAS_Booking_Processes (Booking_Id, To_Status, Branch_Code, Recorded_At)"
+        + " values (1, 'IN_PROGRESS', ?, ?)", BranchContext.DEFAULT_BRANCH, Timestamp.from(Instant.now()));
+    jdbc.update("insert into BAS_Booking_Processes (Booking_Id, To_Status, Branch_Code, Recorded_At)"
+        + " values (1, 'COMPLETED', ?, ?)", BranchContext.DEFAULT_BRANCH,
+        Timestamp.from(Instant.now().minus(Duration.ofMinutes(2))));
+
+    // 6 is too recent to vouch for the ids below it; 7 was recorded long enough ago that 6 must have landed
+    assertEquals(7, service.currentCursor());
+    jdbc.update("delete from BAS_Booking_Processes where Process_Id = 7");
+    assertEquals(4, service.currentCursor());
+  }
+
+  private String export(ExportFormatEnum format, long since) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long until = service.currentCursor();
+    service.export(format, since, until, null, null, out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,54 @@
+package com.branch.appointment.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProcessReportCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ProcessReportCache cache = new ProcessReportCache(meterRegistry, 100);
+  private final AtomicInteger generated = new AtomicInteger();
+
+  @Test
+  void sameWatermarkIsServedFromCache() {
+    byte[] first = cache.get("WXY123", "7-3", () -> report(10));
+    byte[] second = cache.get("WXY123", "7-3", () -> report(10));
+
+    assertArrayEquals(first, second);
+    assertEquals(1, generated.get());
+    assertEquals(1.0, meterRegistry.get("bas.reports.cache").tag("result", "hit").counter().count());
+  }
+
+  @Test
+  void newWatermarkRegeneratesAndReplaces() {
+    cache.get("WXY123", "7-3", () -> report(10));
+    cache.get("WXY123", "8-4", () -> report(20));
+
+    assertEquals(2, generated.get());
+    assertEquals(20, cache.bytes());
+  }
+
+  @Test
+  void leastRecentlyUsedIsEvictedPastTheByteLimit() {
+    cache.get(null, "1-1", () -> report(40));
+    cache.get("A", "1-1", () -> report(40));
+    cache.get(null, "1-1", () -> report(40));
+    cache.get("B", "1-1", () -> report(40));
+
+    assertEquals(80, cache.bytes());
+    cache.get(null, "1-1", () -> report(40));
+    assertEquals(3, generated.get());
+    cache.get("A", "1-1", () -> report(40));
+    assertEquals(4, generated.get());
+  }
+
+  private byte[] report(int size) {
+    generated.incrementAndGet();
+    return new byte[size];
+  }
+}
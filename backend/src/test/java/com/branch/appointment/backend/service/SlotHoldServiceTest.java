@@ -0,0 +1,112 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.dto.SlotHoldDto;
+import com.branch.appointment.backend.repository.BayRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotHoldServiceTest {
+
+  private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+  private final BayOccupancyIndex index = new BayOccupancyIndex(null, null);
+  private final BayRepository bays = mock(BayRepository.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SlotHoldService holds = new SlotHoldService(index, mock(BookingService.class), bays, meterRegistry);
+  private final TestClock clock = new TestClock();
+
+  @BeforeEach
+  void setUp() {
+    when(bays.existsById(7L)).thenReturn(true);
+    ReflectionTestUtils.setField(index, "granularity", Duration.ofMinutes(15));
+    ReflectionTestUtils.setField(holds, "ttl", Duration.ofMinutes(5));
+    // the background ticker never fires during a test; expiry is driven by expireDue below
+    ReflectionTestUtils.setField(holds, "tick", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(holds, "stripes", 4);
+    holds.setClock(clock);
+    holds.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    holds.stop();
+  }
+
+  @Test
+  void overlappingHoldsAreRejectedUntilReleased() {
+    SlotHoldDto first = holds.hold(request(10, 12)).orElseThrow();
+
+    assertTrue(holds.hold(request(11, 13)).isEmpty());
+    assertTrue(holds.hold(request(12, 13)).isPresent());
+
+    assertTrue(holds.release(first.getId()));
+    assertTrue(holds.hold(request(11, 12)).isPresent());
+  }
+
+  @Test
+  void expiredHoldsFreeTheWindow() {
+    SlotHoldDto hold = holds.hold(request(10, 12)).orElseThrow();
+
+    clock.advance(Duration.ofMinutes(4));
+    holds.expireDue();
+    assertTrue(holds.getHold(hold.getId()).isPresent());
+
+    clock.advance(Duration.ofMinutes(2));
+    holds.expireDue();
+
+    assertTrue(holds.getHold(hold.getId()).isEmpty());
+    assertTrue(holds.hold(request(10, 12)).isPresent());
+    assertEquals(1.0, meterRegistry.get("bas.holds.expired").counter().count());
+  }
+
+  @Test
+  void bayMustBelongToTheBranch() {
+    SlotHoldDto otherBranchBay = new SlotHoldDto(null, 8L, DAY, null, LocalTime.of(10, 0), LocalTime.of(12, 0), null);
+
+    assertThrows(RuntimeException.class, () -> holds.hold(otherBranchBay));
+    assertTrue(index.isFree("probe", 8L, DAY.atTime(10, 0), DAY.atTime(12, 0)));
+  }
+
+  private static SlotHoldDto request(int fromHour, int toHour) {
+    return new SlotHoldDto(null, 7L, DAY, null, LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0), null);
+  }
+
+  private static final class TestClock extends Clock {
+    private Instant now = Instant.now();
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneId.systemDefault();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
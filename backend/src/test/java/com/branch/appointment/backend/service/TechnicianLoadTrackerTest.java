@@ -0,0 +1,141 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.config.AssignmentProperties;
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.dto.TechnicianLoadDto;
+import com.branch.appointment.backend.enums.BookingStatusEnum;
+import com.branch.appointment.backend.enums.JobTypeEnum;
+import com.branch.appointment.backend.enums.TechnicianStatusEnum;
+import com.branch.appointment.backend.repository.OpenAssignment;
+import com.branch.appointment.backend.repository.TechnicianAvailability;
+import com.branch.appointment.backend.utils.BranchContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TechnicianLoadTrackerTest {
+
+  private final TechnicianLoadTracker tracker =
+      new TechnicianLoadTracker(null, null, new BranchProperties(), new AssignmentProperties());
+
+  @BeforeEach
+  void setUp() {
+    tracker.technicianChanged(1L, TechnicianStatusEnum.AVAILABLE);
+    tracker.technicianChanged(2L, TechnicianStatusEnum.AVAILABLE);
+    tracker.technicianChanged(3L, TechnicianStatusEnum.ON_LEAVE);
+  }
+
+  @Test
+  void autoAssignmentSpreadsByEstimatedHours() {
+    assertEquals(1L, tracker.reserve(10L, JobTypeEnum.HEAVY, null));
+    assertEquals(2L, tracker.reserve(11L, JobTypeEnum.LIGHT, null));
+    assertEquals(2L, tracker.reserve(12L, JobTypeEnum.MEDIUM, null));
+
+    TechnicianLoadDto best = tracker.leastLoaded().orElseThrow();
+    assertEquals(2L, best.getTechnicianId());
+    assertEquals(2, best.getActiveJobs());
+    assertEquals(4.0, best.getRemainingHours());
+  }
+
+  @Test
+  void completionAndReassignmentReleaseLoad() {
+    tracker.reserve(10L, JobTypeEnum.HEAVY, 1L);
+    tracker.reserve(11L, JobTypeEnum.LIGHT, 2L);
+
+    tracker.update(10L, 1L, JobTypeEnum.HEAVY, BookingStatusEnum.REPAIR_COMPLETION);
+    assertEquals(1L, tracker.leastLoaded().orElseThrow().getTechnicianId());
+
+    tracker.update(11L, 1L, JobTypeEnum.LIGHT, BookingStatusEnum.ACTIVE_BOARD);
+    TechnicianLoadDto best = tracker.leastLoaded().orElseThrow();
+    assertEquals(2L, best.getTechnicianId());
+    assertEquals(0, best.getActiveJobs());
+  }
+
+  @Test
+  void techniciansOnLeaveAreNeverPicked() {
+    tracker.technicianChanged(1L, TechnicianStatusEnum.ON_LEAVE);
+    tracker.technicianRemoved(2L);
+
+    assertTrue(tracker.leastLoaded().isEmpty());
+  }
+
+  @Test
+  void rebuildReplacesStateInsteadOfAddingToIt() {
+    tracker.reserve(10L, JobTypeEnum.HEAVY, 1L);
+
+    tracker.rebuild(source -> List.of(technician(1L, "AVAILABLE"), technician(2L, "AVAILABLE")),
+        source -> List.of(assignment(10L, 1L, "HEAVY")));
+    tracker.rebuild(source -> List.of(technician(1L, "AVAILABLE"), technician(2L, "AVAILABLE")),
+        source -> List.of(assignment(10L, 1L, "HEAVY")));
+
+    tracker.technicianChanged(2L, TechnicianStatusEnum.ON_LEAVE);
+    TechnicianLoadDto only = tracker.leastLoaded().orElseThrow();
+    assertEquals(1L, only.getTechnicianId());
+    assertEquals(1, only.getActiveJobs());
+  }
+
+  @Test
+  void changesMadeDuringRebuildWinOverItsSnapshot() {
+    tracker.rebuild(source -> {
+      // both happen after the snapshot below was read
+      tracker.update(10L, 1L, JobTypeEnum.HEAVY, BookingStatusEnum.REPAIR_COMPLETION);
+      tracker.technicianChanged(2L, TechnicianStatusEnum.ON_LEAVE);
+      return List.of(technician(1L, "AVAILABLE"), technician(2L, "AVAILABLE"));
+    }, source -> List.of(assignment(10L, 1L, "HEAVY"), assignment(11L, 2L, "LIGHT")));
+
+    TechnicianLoadDto only = tracker.leastLoaded().orElseThrow();
+    assertEquals(1L, only.getTechnicianId());
+    assertEquals(0, only.getActiveJobs());
+
+    tracker.technicianChanged(2L, TechnicianStatusEnum.AVAILABLE);
+    tracker.technicianChanged(1L, TechnicianStatusEnum.ON_LEAVE);
+    assertEquals(1, tracker.leastLoaded().orElseThrow().getActiveJobs()); // booking 11 came from the snapshot
+  }
+
+  private static TechnicianAvailability technician(Long id, String status) {
+    return new TechnicianAvailability() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public String getStatus() {
+        return status;
+      }
+
+      @Override
+      public String getBranchCode() {
+        return BranchContext.DEFAULT_BRANCH;
+      }
+    };
+  }
+
+  private static OpenAssignment assignment(Long bookingId, Long technicianId, String jobType) {
+    return new OpenAssignment() {
+      @Override
+      public Long getId() {
+        return bookingId;
+      }
+
+      @Override
+      public Long getTechnicianId() {
+        return technicianId;
+      }
+
+      @Override
+      public String getJobType() {
+        return jobType;
+      }
+
+      @Override
+      public String getBranchCode() {
+        return BranchContext.DEFAULT_BRANCH;
+      }
+    };
+  }
+}
@@ -0,0 +1,48 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.repository.BookingRepository;
+import com.branch.appointment.backend.repository.TechnicianRepository;
+import com.branch.appointment.backend.utils.ChangeVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TechnicianServiceTest {
+
+  private final TechnicianRepository technicians = mock(TechnicianRepository.class);
+  private final BookingRepository bookings = mock(BookingRepository.class);
+  private final TechnicianLoadTracker tracker = mock(TechnicianLoadTracker.class);
+  private final TechnicianService service = new TechnicianService(technicians, bookings, mock(ChangeVersions.class),
+      tracker);
+
+  @Test
+  void technicianWithBookingsIsKept() {
+    when(bookings.existsByTechnicianId(3L)).thenReturn(true);
+
+    assertFalse(service.deleteTechnician(3L));
+    verify(technicians, never()).deleteById(3L);
+    verify(tracker, never()).technicianRemoved(3L);
+  }
+
+  @Test
+  void assignmentRacingTheDeleteIsAConflictToo() {
+    doThrow(new DataIntegrityViolationException("FK_Technician_Id")).when(technicians).deleteById(3L);
+
+    assertFalse(service.deleteTechnician(3L));
+    verify(tracker, never()).technicianRemoved(3L);
+  }
+
+  @Test
+  void unassignedTechnicianIsDeleted() {
+    assertTrue(service.deleteTechnician(3L));
+    verify(technicians).deleteById(3L);
+    verify(tracker).technicianRemoved(3L);
+  }
+}
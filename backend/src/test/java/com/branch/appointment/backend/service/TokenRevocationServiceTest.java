@@ -0,0 +1,149 @@
+package com.branch.appointment.backend.service;
+
+import com.branch.appointment.backend.entity.RevokedTokenEntity;
+import com.branch.appointment.backend.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two nodes sharing one revocation table, kept in a list behind a mocked repository.
+ */
+class TokenRevocationServiceTest {
+
+  private static final long LIFETIME = Duration.ofHours(1).toMillis();
+
+  private final List<RevokedTokenEntity> table = new ArrayList<>();
+  private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final TokenRevocationService node = service();
+  private final TokenRevocationService otherNode = service();
+  private long nextSeq = 1;
+
+  @BeforeEach
+  void setUp() {
+    when(repository.save(any(RevokedTokenEntity.class))).thenAnswer(invocation -> {
+      RevokedTokenEntity row = invocation.getArgument(0);
+      row.setSeq(nextSeq++);
+      table.add(row);
+      return row;
+    });
+    when(repository.existsByTokenId(anyString())).thenAnswer(invocation ->
+        table.stream().anyMatch(row -> invocation.getArgument(0).equals(row.getTokenId())));
+    when(repository.existsBySubjectAndTokenIdIsNullAndRevokedAtGreaterThanEqual(anyString(), any(Instant.class)))
+        .thenAnswer(invocation -> table.stream().anyMatch(row -> row.getTokenId() == null
+            && invocation.getArgument(0).equals(row.getSubject())
+            && !row.getRevokedAt().isBefore(invocation.getArgument(1))));
+    when(repository.findBySeqGreaterThanOrderBySeqAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation ->
+        table.stream()
+            .filter(row -> row.getSeq() > invocation.<Long>getArgument(0))
+            .sorted(Comparator.comparing(RevokedTokenEntity::getSeq))
+            .limit(invocation.<Pageable>getArgument(1).getPageSize())
+            .toList());
+    when(repository.findByRevokedAtGreaterThanEqual(any(Instant.class))).thenAnswer(invocation ->
+        table.stream().filter(row -> !row.getRevokedAt().isBefore(invocation.getArgument(0))).toList());
+  }
+
+  @Test
+  void logoutRevokesOnlyThatTokenOnEveryNode() {
+    Claims token = token("a@bas", Instant.now());
+    Claims sibling = token("a@bas", Instant.now());
+
+    node.revokeToken(token);
+    otherNode.poll();
+
+    assertTrue(node.isRevoked(token));
+    assertTrue(otherNode.isRevoked(token));
+    assertFalse(otherNode.isRevoked(sibling));
+  }
+
+  @Test
+  void subjectRevocationCoversTokensIssuedUpToItsSecond() {
+    Instant before = Instant.now().minusSeconds(30);
+    node.revokeSubject("a@bas");
+    Instant revokedAt = table.get(0).getRevokedAt();
+    otherNode.poll();
+
+    assertEquals(revokedAt, revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    assertTrue(otherNode.isRevoked(token("a@bas", before)));
+    // same second, even if issued after the revocation
+    assertTrue(otherNode.isRevoked(token("a@bas", revokedAt.plusMillis(999))));
+    assertFalse(otherNode.isRevoked(token("a@bas", revokedAt.plusSeconds(1))));
+    assertFalse(otherNode.isRevoked(token("b@bas", before)));
+  }
+
+  @Test
+  void filterHitIsSettledByTheDatabase() {
+    Claims token = token("a@bas", Instant.now());
+    node.revokeToken(token);
+
+    // e.g. purged meanwhile, or a Bloom false positive: the filter still says maybe, the row says no
+    table.clear();
+
+    assertFalse(node.isRevoked(token));
+    assertEquals(1, meterRegistry.get("bas.auth.revocation.checks").tag("result", "lookup").counter().count());
+  }
+
+  @Test
+  void feedPicksUpARowThatCommittedBehindTheCursor() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    Instant expiresAt = now.plusMillis(LIFETIME);
+    table.add(new RevokedTokenEntity(2L, "late-2", "a@bas", now, expiresAt));
+    otherNode.poll();
+
+    // sequence 1 was allocated first but only became visible now
+    table.add(new RevokedTokenEntity(1L, "late-1", "a@bas", now, expiresAt));
+    otherNode.poll();
+
+    assertTrue(otherNode.isRevoked(token("late-1", "a@bas", now, expiresAt)));
+  }
+
+  private TokenRevocationService service() {
+    TokenRevocationService service = new TokenRevocationService(repository, mock(PlatformTransactionManager.class),
+        meterRegistry);
+    ReflectionTestUtils.setField(service, "tokenLifetimeMillis", LIFETIME);
+    ReflectionTestUtils.setField(service, "rereadWindow", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(service, "bucket", Duration.ofMinutes(15));
+    ReflectionTestUtils.setField(service, "expectedPerBucket", 1000);
+    ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+    service.init();
+    return service;
+  }
+
+  private static Claims token(String subject, Instant issuedAt) {
+    return token(UUID.randomUUID().toString(), subject, issuedAt, issuedAt.plusMillis(LIFETIME));
+  }
+
+  // as parsed from a JWT: whole seconds
+  private static Claims token(String id, String subject, Instant issuedAt, Instant expiresAt) {
+    return Jwts.claims()
+        .id(id)
+        .subject(subject)
+        .issuedAt(Date.from(issuedAt.truncatedTo(ChronoUnit.SECONDS)))
+        .expiration(Date.from(expiresAt.truncatedTo(ChronoUnit.SECONDS)))
+        .build();
+  }
+}
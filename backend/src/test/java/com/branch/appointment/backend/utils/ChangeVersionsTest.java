@@ -0,0 +1,74 @@
+package com.branch.appointment.backend.utils;
+
+import com.branch.appointment.backend.config.BranchProperties;
+import com.branch.appointment.backend.config.ReplicaProperties;
+import com.branch.appointment.backend.enums.ResourceCollectionEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Two nodes sharing one version table.
+ */
+class ChangeVersionsTest {
+
+  private final JdbcTemplate jdbc = new JdbcTemplate(
+      new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+  private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+      jdbc.getDataSource());
+  private final ChangeVersions node = versions();
+  private final ChangeVersions otherNode = versions();
+
+  @BeforeEach
+  void createTable() {
+    jdbc.execute("create table BAS_Change_Versions (Change_Version_Id bigint auto_increment primary key,"
+        + " Collection_Name varchar(32) not null, Version bigint not null, Branch_Code varchar(32) not null,"
+        + " constraint UK_Change_Versions_Collection unique (Branch_Code, Collection_Name))");
+  }
+
+  @Test
+  void otherNodesPickUpABumpOnTheirNextSync() {
+    String before = otherNode.etag(ResourceCollectionEnum.BOOKINGS);
+
+    node.bump(ResourceCollectionEnum.BOOKINGS);
+
+    assertEquals(1, node.current(ResourceCollectionEnum.BOOKINGS));
+    assertEquals(before, otherNode.etag(ResourceCollectionEnum.BOOKINGS));
+    otherNode.sync();
+    assertEquals(node.etag(ResourceCollectionEnum.BOOKINGS), otherNode.etag(ResourceCollectionEnum.BOOKINGS));
+    assertNotEquals(before, otherNode.etag(ResourceCollectionEnum.BOOKINGS));
+    assertEquals(0, otherNode.current(ResourceCollectionEnum.BAYS));
+  }
+
+  @Test
+  void bumpsFromBothNodesAddUpAndRollbacksDoNotCount() {
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+    node.bump(ResourceCollectionEnum.BAYS);
+    tx.executeWithoutResult(status -> otherNode.bump(ResourceCollectionEnum.BAYS));
+    tx.executeWithoutResult(status -> {
+      otherNode.bump(ResourceCollectionEnum.BAYS);
+      status.setRollbackOnly();
+    });
+    BranchContext.runAs("NORTH", () -> node.bump(ResourceCollectionEnum.BAYS));
+    node.sync();
+
+    assertEquals(2, node.current(ResourceCollectionEnum.BAYS));
+    assertEquals(2, otherNode.current(ResourceCollectionEnum.BAYS));
+    assertEquals(1L, BranchContext.callAs("NORTH", () -> node.current(ResourceCollectionEnum.BAYS)));
+  }
+
+  private ChangeVersions versions() {
+    return new ChangeVersions(new ReplicaProperties(), new BranchProperties(), jdbc, transactionManager,
+        Duration.ofSeconds(1));
+  }
+}
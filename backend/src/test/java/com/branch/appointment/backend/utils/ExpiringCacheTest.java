@@ -0,0 +1,94 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExpiringCacheTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void hitsDoNotReload() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 10);
+
+    assertEquals(1, cache.get("a", loads::incrementAndGet));
+    assertEquals(1, cache.get("a", loads::incrementAndGet));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void fullCacheDropsTheOldestEntry() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 2);
+    cache.get("a", loads::incrementAndGet);
+    cache.get("b", loads::incrementAndGet);
+
+    cache.get("c", loads::incrementAndGet);
+
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.get("b", loads::incrementAndGet));
+    assertEquals(4, cache.get("a", loads::incrementAndGet)); // evicted, loaded again
+  }
+
+  @Test
+  void expiredEntriesAreReloaded() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ZERO, 10);
+
+    cache.get("a", loads::incrementAndGet);
+    cache.get("a", loads::incrementAndGet);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void waitersGetTheLoadersExceptionAndFailuresAreNotCached() throws Exception {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 10);
+    IllegalStateException failure = new IllegalStateException("database down");
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch fail = new CountDownLatch(1);
+    AtomicReference<Throwable> loaderSaw = new AtomicReference<>();
+    AtomicReference<Throwable> waiterSaw = new AtomicReference<>();
+
+    Thread loader = new Thread(() -> capture(loaderSaw, () -> cache.get("a", () -> {
+      loading.countDown();
+      await(fail);
+      throw failure;
+    })));
+    loader.start();
+    loading.await();
+    Thread waiter = new Thread(() -> capture(waiterSaw, () -> cache.get("a", loads::incrementAndGet)));
+    waiter.start();
+    while (waiter.getState() != Thread.State.WAITING) {
+      Thread.onSpinWait(); // parked on the loader's future
+    }
+    fail.countDown();
+    loader.join();
+    waiter.join();
+
+    assertSame(failure, loaderSaw.get());
+    assertSame(failure, waiterSaw.get());
+    assertEquals(1, cache.get("a", loads::incrementAndGet));
+  }
+
+  private static void capture(AtomicReference<Throwable> thrown, Runnable action) {
+    try {
+      action.run();
+    } catch (RuntimeException e) {
+      thrown.set(e);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.branch.appointment.backend.utils;
+
+import com.branch.appointment.backend.metrics.RequestStats;
+import com.branch.appointment.backend.metrics.StatementCountingInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FanOutTest {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    BranchContext.clear();
+    SecurityContextHolder.clearContext();
+    RequestStats.end();
+  }
+
+  @Test
+  void tasksSeeTheCallersBranchAndAuthentication() {
+    Authentication caller = new TestingAuthenticationToken("advisor@branch.test", null, "ROLE_SERVICE_ADVISOR");
+    SecurityContextHolder.getContext().setAuthentication(caller);
+    BranchContext.set("NORTH");
+    Thread requestThread = Thread.currentThread();
+
+    CompletableFuture<String> task = FanOut.fork(executor, () -> {
+      assertNotEquals(requestThread, Thread.currentThread());
+      return BranchContext.current() + "/" + SecurityContextHolder.getContext().getAuthentication().getName();
+    });
+
+    assertEquals("NORTH/advisor@branch.test", task.join());
+  }
+
+  @Test
+  void workerStatementsCountAgainstTheRequest() {
+    RequestStats stats = RequestStats.begin();
+
+    CompletableFuture.allOf(
+        FanOut.fork(executor, () -> new StatementCountingInspector().inspect("select 1")),
+        FanOut.fork(executor, () -> new StatementCountingInspector().inspect("select 2"))).join();
+
+    assertEquals(2, stats.getStatements());
+  }
+
+  @Test
+  void tasksRunConcurrently() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(4);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<?>[] tasks = new CompletableFuture<?>[4];
+    for (int i = 0; i < tasks.length; i++) {
+      tasks[i] = FanOut.fork(executor, () -> {
+        started.countDown();
+        try {
+          return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+    }
+
+    // all four are in flight at once before any of them finishes
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    release.countDown();
+    CompletableFuture.allOf(tasks).join();
+  }
+
+  @Test
+  void workerContextIsRestoredAfterTheTask() {
+    Authentication caller = new TestingAuthenticationToken("admin@branch.test", null, "ROLE_ADMIN");
+    SecurityContextHolder.getContext().setAuthentication(caller);
+    BranchContext.set("SOUTH");
+
+    // a caller-runs executor shows what the worker thread is left with
+    FanOut.fork(Runnable::run, () -> {
+      BranchContext.set("OTHER");
+      SecurityContextHolder.clearContext();
+      return null;
+    }).join();
+
+    assertEquals("SOUTH", BranchContext.current());
+    assertEquals(caller, SecurityContextHolder.getContext().getAuthentication());
+  }
+}
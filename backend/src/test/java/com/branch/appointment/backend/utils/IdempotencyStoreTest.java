@@ -0,0 +1,95 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+  private static final long TTL = Duration.ofMinutes(1).toMillis();
+  private static final byte[] BODY = fingerprint("{\"bayId\":1}");
+  private static final IdempotencyStore.StoredResponse CREATED =
+      new IdempotencyStore.StoredResponse(201, "application/json", new byte[0]);
+
+  private final IdempotencyStore store = new IdempotencyStore();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(store, "ttl", Duration.ofMillis(TTL));
+    ReflectionTestUtils.setField(store, "maxEntries", 2);
+  }
+
+  @Test
+  void duplicateJoinsTheOwnersEntry() {
+    IdempotencyStore.Claim first = store.claim("a", BODY, 0);
+    IdempotencyStore.Claim retry = store.claim("a", BODY, 1);
+
+    assertTrue(first.owner());
+    assertFalse(retry.owner());
+    assertSame(first.entry(), retry.entry());
+  }
+
+  @Test
+  void fingerprintIsTheBodyDigest() {
+    IdempotencyStore.Entry entry = store.claim("a", BODY, 0).entry();
+
+    assertEquals(32, BODY.length);
+    assertTrue(entry.matches(fingerprint("{\"bayId\":1}")));
+    assertFalse(entry.matches(fingerprint("{\"bayId\":2}")));
+  }
+
+  @Test
+  void completedEntryExpiresAfterTtl() {
+    IdempotencyStore.Claim first = store.claim("a", BODY, 0);
+    store.complete(first.entry(), CREATED, 10);
+
+    assertFalse(store.claim("a", BODY, 10 + TTL).owner());
+    assertTrue(store.claim("a", BODY, 11 + TTL).owner());
+  }
+
+  @Test
+  void fullStoreEvictsTheOldestCompletedEntry() {
+    store.complete(store.claim("a", BODY, 0).entry(), CREATED, 1);
+    store.complete(store.claim("b", BODY, 2).entry(), CREATED, 3);
+
+    assertTrue(store.claim("c", BODY, 4).owner());
+
+    assertEquals(2, store.size());
+    assertFalse(store.claim("b", BODY, 5).owner());
+    assertFalse(store.claim("c", BODY, 5).owner());
+  }
+
+  @Test
+  void inFlightEntriesAreNeverEvicted() {
+    IdempotencyStore.Claim inFlight = store.claim("a", BODY, 0);
+    store.complete(store.claim("b", BODY, 1).entry(), CREATED, 2);
+
+    store.claim("c", BODY, 3);
+
+    assertSame(inFlight.entry(), store.claim("a", BODY, 4).entry());
+    assertTrue(store.claim("b", BODY, 4).owner());
+  }
+
+  @Test
+  void abandonReleasesTheKeyAndWakesWaiters() {
+    IdempotencyStore.Claim first = store.claim("a", BODY, 0);
+
+    store.abandon("a", first.entry());
+
+    assertNull(first.entry().getResult().join());
+    assertTrue(store.claim("a", BODY, 1).owner());
+  }
+
+  private static byte[] fingerprint(String body) {
+    return IdempotencyStore.fingerprint(body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,61 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatisticTreeTest {
+
+  @Test
+  void rankAndWeightCountKeysBefore() {
+    OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+    tree.put(30, 3);
+    tree.put(10, 1);
+    tree.put(20, 2);
+
+    assertEquals(0, tree.rank(10));
+    assertEquals(2, tree.rank(30));
+    assertEquals(3, tree.weightBefore(30));
+    assertEquals(6, tree.weightBefore(99));
+  }
+
+  @Test
+  void putReplacesWeightAndRemoveReportsPresence() {
+    OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+    tree.put(10, 1);
+    tree.put(10, 5);
+
+    assertEquals(1, tree.size());
+    assertEquals(5, tree.weightBefore(11));
+    assertTrue(tree.remove(10));
+    assertFalse(tree.remove(10));
+    assertEquals(0, tree.size());
+  }
+
+  @Test
+  void matchesSortedMapUnderRandomChurn() {
+    OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+    TreeMap<Integer, Long> expected = new TreeMap<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 20_000; i++) {
+      int key = random.nextInt(200);
+      if (random.nextBoolean()) {
+        long weight = random.nextInt(100);
+        tree.put(key, weight);
+        expected.put(key, weight);
+      } else {
+        assertEquals(expected.remove(key) != null, tree.remove(key));
+      }
+      int probe = random.nextInt(210);
+      assertEquals(expected.headMap(probe).size(), tree.rank(probe));
+      assertEquals(expected.headMap(probe).values().stream().mapToLong(Long::longValue).sum(),
+          tree.weightBefore(probe));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+  private static final double ACCURACY = 0.02;
+
+  @Test
+  void quantilesStayWithinRelativeAccuracy() {
+    QuantileSketch sketch = new QuantileSketch(ACCURACY, 20_000);
+    double[] values = new Random(3).doubles(10_000).map(x -> 30 + Math.exp(x * 8)).sorted().toArray();
+    Arrays.stream(values).forEach(sketch::add);
+
+    for (double q : new double[] {0.1, 0.5, 0.9, 0.99}) {
+      double exact = values[(int) Math.ceil(q * values.length) - 1];
+      assertEquals(exact, sketch.quantile(q), exact * ACCURACY);
+    }
+  }
+
+  @Test
+  void mergeEqualsSketchOfBothStreams() {
+    QuantileSketch a = new QuantileSketch(ACCURACY, 20_000);
+    QuantileSketch b = new QuantileSketch(ACCURACY, 20_000);
+    QuantileSketch both = new QuantileSketch(ACCURACY, 20_000);
+    for (int i = 1; i <= 500; i++) {
+      (i % 3 == 0 ? a : b).add(i);
+      both.add(i);
+    }
+    a.merge(b);
+
+    assertEquals(both.count(), a.count());
+    assertEquals(both.quantile(0.5), a.quantile(0.5));
+    assertEquals(both.quantile(0.9), a.quantile(0.9));
+  }
+
+  @Test
+  void valuesPastTheRangeLandInTheTopBucket() {
+    QuantileSketch sketch = new QuantileSketch(ACCURACY, 100);
+    sketch.add(1_000_000);
+
+    assertTrue(sketch.quantile(1) <= 100 * (1 + ACCURACY));
+    assertTrue(Double.isNaN(new QuantileSketch(ACCURACY, 100).quantile(0.5)));
+    assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(ACCURACY, 1000)));
+  }
+}
@@ -0,0 +1,53 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationFilterTest {
+
+  private static final long BUCKET = 1_000;
+
+  @Test
+  void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put("jti:" + i));
+
+    assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("jti:" + i)));
+    long falsePositives = IntStream.range(10_000, 110_000).filter(i -> filter.mightContain("jti:" + i)).count();
+    assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+  }
+
+  @Test
+  void rangeCoversEveryExpiryInsideIt() {
+    RevocationFilter filter = new RevocationFilter(BUCKET, 100, 0.001);
+    filter.addRange("sub:a", 1_500, 4_200);
+
+    assertEquals(4, filter.buckets());
+    for (long expiresAt = 1_500; expiresAt <= 4_200; expiresAt += 100) {
+      assertTrue(filter.mightContain("sub:a", expiresAt));
+    }
+    assertFalse(filter.mightContain("sub:a", 999));
+    assertFalse(filter.mightContain("sub:a", 5_000));
+  }
+
+  @Test
+  void expireDropsOnlyBucketsWhollyInThePast() {
+    RevocationFilter filter = new RevocationFilter(BUCKET, 100, 0.001);
+    filter.addRange("sub:a", 1_500, 4_200);
+    filter.add("jti:t", 1_200);
+
+    filter.expire(3_100);
+
+    assertEquals(2, filter.buckets());
+    assertFalse(filter.mightContain("jti:t", 1_200));
+    assertFalse(filter.mightContain("sub:a", 2_900));
+    // the bucket `now` falls in still holds tokens that have not expired yet
+    assertTrue(filter.mightContain("sub:a", 3_000));
+    assertTrue(filter.mightContain("sub:a", 4_200));
+  }
+}
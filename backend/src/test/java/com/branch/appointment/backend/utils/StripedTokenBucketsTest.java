@@ -0,0 +1,56 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Buckets that never refill, so whether a key was forgotten shows as it getting a token again.
+ */
+class StripedTokenBucketsTest {
+
+  @Test
+  void bucketRunsDryAtCapacity() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(4);
+
+    assertEquals(0, buckets.tryAcquire("a", 2, 0));
+    assertEquals(0, buckets.tryAcquire("a", 2, 0));
+    assertEquals(Long.MAX_VALUE, buckets.tryAcquire("a", 2, 0));
+  }
+
+  @Test
+  void waitIsTimeToNextToken() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(4);
+    buckets.tryAcquire("a", 1, 10);
+
+    long wait = buckets.tryAcquire("a", 1, 10);
+
+    assertTrue(wait > 0 && wait <= 100_000_000L, "waited " + wait + " ns");
+  }
+
+  @Test
+  void capIsHardAndEvictsLeastRecentlyUsed() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(1, 2);
+    buckets.tryAcquire("a", 1, 0);
+    buckets.tryAcquire("b", 1, 0);
+    buckets.tryAcquire("a", 1, 0); // a is now the most recently used
+
+    assertEquals(0, buckets.tryAcquire("c", 1, 0));
+
+    assertEquals(2, buckets.size());
+    assertEquals(Long.MAX_VALUE, buckets.tryAcquire("a", 1, 0)); // still remembered, still dry
+    assertEquals(0, buckets.tryAcquire("b", 1, 0)); // forgotten, starts full
+  }
+
+  @Test
+  void manyKeysStayWithinTheCap() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(4, 8);
+
+    for (int i = 0; i < 10_000; i++) {
+      buckets.tryAcquire("client-" + i, 5, 1);
+    }
+
+    assertTrue(buckets.size() <= 4 * 8, "holds " + buckets.size() + " buckets");
+  }
+}
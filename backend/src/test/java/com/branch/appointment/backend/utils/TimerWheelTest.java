@@ -0,0 +1,48 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+  private static final long TICK = 1000;
+
+  @Test
+  void firesOnlyOnceDeadlineIsReached() {
+    TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+    wheel.schedule("a", 3 * TICK);
+    // same slot, one revolution later
+    wheel.schedule("b", 11 * TICK);
+
+    assertTrue(wheel.advance(2 * TICK).isEmpty());
+    assertEquals(List.of("a"), wheel.advance(3 * TICK));
+    assertTrue(wheel.advance(10 * TICK).isEmpty());
+    assertEquals(List.of("b"), wheel.advance(11 * TICK));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void cancelledTimersDoNotFire() {
+    TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+    TimerWheel.Timer<String> timer = wheel.schedule("a", 2 * TICK);
+    wheel.cancel(timer);
+
+    assertTrue(wheel.advance(5 * TICK).isEmpty());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void catchesUpAfterLongPause() {
+    TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+    wheel.schedule("a", 2 * TICK);
+    wheel.schedule("b", 20 * TICK);
+    wheel.schedule("past", 0);
+
+    List<String> fired = wheel.advance(100 * TICK);
+    assertEquals(3, fired.size());
+  }
+}
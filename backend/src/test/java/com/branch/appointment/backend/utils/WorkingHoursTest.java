@@ -0,0 +1,42 @@
+package com.branch.appointment.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkingHoursTest {
+
+  private final WorkingHours workingHours = new WorkingHours(LocalTime.of(8, 0), LocalTime.of(18, 0));
+
+  @Test
+  void plusRollsOverClosingIntoLaterDays() {
+    LocalDateTime friday = LocalDateTime.of(2025, 3, 7, 17, 0);
+
+    assertEquals(LocalDateTime.of(2025, 3, 7, 18, 0), workingHours.plus(friday, 60));
+    assertEquals(LocalDateTime.of(2025, 3, 8, 8, 1), workingHours.plus(friday, 61));
+    // 60 today, then 600 a day: the 25th day ends exactly at closing
+    assertEquals(LocalDateTime.of(2025, 4, 1, 18, 0), workingHours.plus(friday, 60 + 25 * 600));
+    assertEquals(LocalDateTime.of(2025, 3, 8, 9, 0), workingHours.plus(LocalDateTime.of(2025, 3, 7, 19, 0), 60));
+  }
+
+  @Test
+  void plusAgreesWithMinutesBetween() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 3, 7, 30);
+
+    for (long minutes : new long[] {1, 599, 600, 601, 12_345}) {
+      LocalDateTime end = workingHours.plus(start, minutes);
+      assertEquals(minutes, workingHours.minutesBetween(start, end));
+    }
+  }
+
+  @Test
+  void rejectsEmptyWorkingDay() {
+    assertThrows(IllegalArgumentException.class, () -> new WorkingHours(LocalTime.of(18, 0), LocalTime.of(8, 0)));
+    assertThrows(IllegalArgumentException.class,
+        () -> new WorkingHours(LocalTime.of(8, 0), LocalTime.of(8, 0, 30)));
+  }
+}
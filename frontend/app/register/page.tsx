@@ -10,7 +10,6 @@ export default function RegisterPage() {
     email: "",
     password: "",
     confirmPassword: "",
-    role: 1, // Default to technician
   });
   const [errors, setErrors] = useState<Record<string, string>>({});
   const [isLoading, setIsLoading] = useState(false);
@@ -64,7 +63,6 @@ export default function RegisterPage() {
         name: formData.name,
         email: formData.email,
         password: formData.password,
-        role: parseInt(formData.role.toString()),
       });
 
       if (response.success) {
@@ -192,36 +190,6 @@ export default function RegisterPage() {
               )}
             </div>
 
-            {/* Role Field */}
-            <div>
-              <label
-                htmlFor="role"
-                className="block text-sm font-medium text-toyota-white mb-2"
-              >
-                Role
-              </label>
-              <select
-                id="role"
-                name="role"
-                required
-                value={formData.role}
-                onChange={handleInputChange}
-                className={`w-full px-4 py-3 pr-10 bg-black/50 border-2 rounded-lg shadow-sm text-white focus:outline-none focus:ring-2 focus:ring-toyota-red focus:border-toyota-red transition-all duration-300 ${
-                  errors.role ? "border-red-500" : "border-gray-600"
-                }`}
-              >
-                <option value={1} className="bg-black text-white">
-                  Technician
-                </option>
-                <option value={2} className="bg-black text-white">
-                  Service Advisor
-                </option>
-              </select>
-              {errors.role && (
-                <p className="mt-1 text-sm text-red-400">{errors.role}</p>
-              )}
-            </div>
-
             {/* Password Field */}
             <div>
               <label
@@ -31,6 +31,7 @@ export interface ApiResponse<T> {
   data?: T;
   message?: string;
   error?: string;
+  status?: number;
 }
 
 // API Helper Functions
@@ -50,13 +51,19 @@ const apiCall = async <T>(
       ...options,
     });
 
-    const data = await response.json();
+    if (response.status === 204) {
+      return { success: true }; // no body to parse
+    }
+
+    // error responses such as a 409 may have no body
+    const data = await response.json().catch(() => ({}));
 
     if (!response.ok) {
       return {
         success: false,
         message: data.message || `HTTP error! status: ${response.status}`,
         error: data.error,
+        status: response.status,
       };
     }
 
@@ -109,9 +116,17 @@ export const technicianAPI = {
 
   // Delete technician
   deleteTechnician: async (id: number): Promise<ApiResponse<void>> => {
-    return apiCall<void>(`/technicians/${id}`, {
+    const response = await apiCall<void>(`/technicians/${id}`, {
       method: "DELETE",
     });
+    if (response.status === 409) {
+      return {
+        ...response,
+        message:
+          "This technician is assigned to bookings and can't be deleted. Set them to On Leave instead.",
+      };
+    }
+    return response;
   },
 };
 
@@ -9,7 +9,7 @@ export interface RegisterData {
   name: string;
   email: string;
   password: string;
-  role: number; // 0 = admin, 1 = technician, 2 = service advisor
+  // no role: accounts start as technicians and an admin assigns any other role
 }
 
 export interface LoginResponse {